@@ -0,0 +1,109 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.OdmCliBaseConfiguration;
+import org.opendatamesh.cli.extensions.importer.ImporterArguments;
+import org.opendatamesh.dpds.model.interfaces.Port;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of {@link ImporterJDBCExtension#importElement} against a synthetic H2 schema,
+ * importing into a new port and re-importing into an existing one, which adds the merge to the metadata walk.
+ * <p>
+ * Run with {@code -prof gc} for the allocation rate and with {@link PeakHeapProfiler} for the peak heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ImportBenchmark {
+
+    private static final String SCHEMA_NAME = "BENCHMARK_SCHEMA";
+
+    @Param({"10", "1000", "50000"})
+    public int tables;
+
+    @Param({"5", "50", "500"})
+    public int columns;
+
+    private Connection connection;
+    private ImporterJDBCExtension importer;
+    private ImporterArguments importerArguments;
+    private Port existingPort;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        String jdbcUrl = String.format("jdbc:h2:mem:benchmark_%d_%d;DB_CLOSE_DELAY=-1", tables, columns);
+        // Keeps the in-memory database open for the whole trial
+        connection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        SyntheticSchema.create(connection, SCHEMA_NAME, tables, columns);
+
+        OdmCliBaseConfiguration.SystemConfig systemConfig = new OdmCliBaseConfiguration.SystemConfig();
+        systemConfig.setName("benchmarkConnection");
+        systemConfig.setEndpoint(jdbcUrl);
+        systemConfig.setUser("sa");
+        systemConfig.setPassword("");
+        OdmCliBaseConfiguration config = new OdmCliBaseConfiguration();
+        config.setSystems(List.of(systemConfig));
+
+        importerArguments = new ImporterArguments();
+        importerArguments.setParentCommandOptions(Map.of(
+                "target", "benchmark-port",
+                "source", "benchmarkConnection",
+                "from", "jdbc",
+                "to", "output-port"
+        ));
+        importerArguments.setOdmCliConfig(config);
+
+        importer = new ImporterJDBCExtension();
+        Map<String, String> params = new HashMap<>();
+        params.put("--schemaName", SCHEMA_NAME);
+        params.put("--tablesPattern", "%");
+        params.put("--portVersion", "1.0.0");
+        params.put("--platform", "h2:benchmark");
+        importer.getExtensionOptions().forEach(option -> option.getSetter().accept(params.get(option.getNames().get(0))));
+
+        existingPort = importer.importElement(null, importerArguments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        SyntheticSchema.drop(connection, SCHEMA_NAME);
+        connection.close();
+    }
+
+    @Benchmark
+    public Port importNewPort() {
+        return importer.importElement(null, importerArguments);
+    }
+
+    /**
+     * The existing port is updated in place with the same content at each invocation, so every invocation
+     * merges against the same definition.
+     */
+    @Benchmark
+    public Port importExistingPort() {
+        return importer.importElement(existingPort, importerArguments);
+    }
+}
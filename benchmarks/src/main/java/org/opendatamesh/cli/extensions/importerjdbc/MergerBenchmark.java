@@ -0,0 +1,69 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of {@link DataStoreApiMerger} on generated definitions of growing size, where a given
+ * percentage of the tables changed since the existing definition was written.
+ * Both the JSON tree merge and the merge on the DataStore API model are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MergerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tables;
+
+    @Param({"20"})
+    public int columns;
+
+    @Param({"0", "50", "100"})
+    public int changedPercent;
+
+    private ObjectNode existingJson;
+    private ObjectNode importedJson;
+    private DataStoreApiDefinition existingDefinition;
+    private DataStoreApiDefinition importedDefinition;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        existingDefinition = SyntheticDefinition.existing(tables, columns);
+        importedDefinition = SyntheticDefinition.imported(tables, columns, changedPercent);
+        existingJson = objectMapper.valueToTree(existingDefinition);
+        importedJson = objectMapper.valueToTree(importedDefinition);
+    }
+
+    @Benchmark
+    public JsonNode mergeJsonTrees() {
+        return DataStoreApiMerger.mergeDataStoreApi(existingJson, importedJson);
+    }
+
+    @Benchmark
+    public DataStoreApiDefinition mergeTypedModel() {
+        return DataStoreApiMerger.mergeDataStoreApi(existingDefinition, importedDefinition);
+    }
+}
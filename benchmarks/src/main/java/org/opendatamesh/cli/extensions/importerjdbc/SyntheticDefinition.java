@@ -0,0 +1,95 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreAPISchemaEntityDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaResource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates DataStore API definitions shaped like the ones the importer produces, without a database.
+ */
+class SyntheticDefinition {
+
+    private static final String[][] COLUMN_TYPES = {
+            {"integer", "INTEGER"}, {"string", "CHARACTER VARYING"}, {"number", "NUMERIC"}, {"string", "TIMESTAMP"},
+            {"boolean", "BOOLEAN"}, {"string", "DATE"}, {"integer", "BIGINT"}, {"number", "DOUBLE PRECISION"}
+    };
+
+    private SyntheticDefinition() {
+    }
+
+    /**
+     * A definition as stored in an existing port: every table and column carries a property added by users.
+     */
+    static DataStoreApiDefinition existing(int tables, int columns) {
+        DataStoreApiDefinition definition = create(tables, columns, 0);
+        for (DataStoreApiSchemaEntity table : ((DataStoreApiSchemaResource) definition.getSchema()).getTables()) {
+            table.getDefinition().setAdditionalProperty("x-owner", "data-team");
+            table.getDefinition().getProperties().values().forEach(column -> column.setAdditionalProperty("x-pii", false));
+        }
+        return definition;
+    }
+
+    /**
+     * A freshly imported definition where {@code changedPercent} percent of the tables, spread evenly, differ
+     * from {@link #existing}: a new description, a column with another type, a dropped column and an added one.
+     */
+    static DataStoreApiDefinition imported(int tables, int columns, int changedPercent) {
+        return create(tables, columns, changedPercent);
+    }
+
+    private static DataStoreApiDefinition create(int tables, int columns, int changedPercent) {
+        List<DataStoreApiSchemaEntity> entities = new ArrayList<>(tables);
+        for (int table = 0; table < tables; table++) {
+            entities.add(createTable(table, columns, table % 100 < changedPercent));
+        }
+        DataStoreApiSchemaResource schema = new DataStoreApiSchemaResource();
+        schema.setDatabaseSchemaName("BENCHMARK_SCHEMA");
+        schema.setTables(entities);
+
+        DataStoreApiDefinition definition = new DataStoreApiDefinition();
+        definition.setDatastoreapi("1.0.0");
+        definition.setSchema(schema);
+        return definition;
+    }
+
+    private static DataStoreApiSchemaEntity createTable(int table, int columns, boolean changed) {
+        String tableName = SyntheticSchema.tableName(table);
+        Map<String, DataStoreApiSchemaColumn> properties = new LinkedHashMap<>();
+        for (int column = 0; column < columns; column++) {
+            // A changed table replaces its last column with a new one and changes the type of the second one
+            int columnNumber = changed && column == columns - 1 ? columns : column;
+            int typeIndex = changed && column == 1 ? table + column + 1 : table + column;
+            DataStoreApiSchemaColumn columnMetadata = createColumn(columnNumber, COLUMN_TYPES[typeIndex % COLUMN_TYPES.length]);
+            properties.put(columnMetadata.getName(), columnMetadata);
+        }
+
+        DataStoreAPISchemaEntityDefinition entityJsonSchema = new DataStoreAPISchemaEntityDefinition();
+        entityJsonSchema.setTitle(tableName);
+        entityJsonSchema.setName(tableName);
+        entityJsonSchema.setDescription(changed ? "Changed table " + tableName : "Table " + tableName);
+        entityJsonSchema.setProperties(properties);
+
+        DataStoreApiSchemaEntity entity = new DataStoreApiSchemaEntity();
+        entity.setSpecification("json-schema");
+        entity.setSpecificationVersion("1");
+        entity.setDefinition(entityJsonSchema);
+        return entity;
+    }
+
+    private static DataStoreApiSchemaColumn createColumn(int column, String[] type) {
+        DataStoreApiSchemaColumn columnMetadata = new DataStoreApiSchemaColumn();
+        columnMetadata.setName("COLUMN_" + column);
+        columnMetadata.setType(type[0]);
+        columnMetadata.setPhysicalType(type[1]);
+        columnMetadata.setNullable(column != 0);
+        columnMetadata.setOrdinalPosition(String.valueOf(column + 1));
+        return columnMetadata;
+    }
+}
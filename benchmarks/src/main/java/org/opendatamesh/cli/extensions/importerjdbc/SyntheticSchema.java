@@ -0,0 +1,54 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Generates a schema of a given shape in an H2 database: {@code tables} tables of {@code columns} columns each,
+ * cycling through a realistic mix of column types.
+ */
+class SyntheticSchema {
+
+    private static final String[] COLUMN_TYPES = {
+            "INT", "VARCHAR(255)", "DECIMAL(12,2)", "TIMESTAMP", "BOOLEAN",
+            "DATE", "BIGINT", "DOUBLE PRECISION", "CHAR(3)", "CLOB", "UUID", "VARCHAR(64) NOT NULL"
+    };
+    private static final int BATCH_SIZE = 100;
+
+    private SyntheticSchema() {
+    }
+
+    static void create(Connection connection, String schemaName, int tables, int columns) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + schemaName);
+            for (int table = 0; table < tables; table++) {
+                statement.addBatch(createTable(schemaName, table, columns));
+                if ((table + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    static void drop(Connection connection, String schemaName) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schemaName + " CASCADE");
+        }
+    }
+
+    static String tableName(int table) {
+        return String.format("TABLE_%05d", table);
+    }
+
+    private static String createTable(String schemaName, int table, int columns) {
+        StringBuilder ddl = new StringBuilder("CREATE TABLE ")
+                .append(schemaName).append('.').append(tableName(table))
+                .append(" (ID BIGINT PRIMARY KEY");
+        for (int column = 1; column < columns; column++) {
+            ddl.append(", COLUMN_").append(column).append(' ').append(COLUMN_TYPES[(table + column) % COLUMN_TYPES.length]);
+        }
+        return ddl.append(')').toString();
+    }
+}
@@ -0,0 +1,119 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.PostgreSQLMetadataDialect;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of {@link SQLToJsonSchemaMapper#mapSqlTypeToJsonSchema} over sequences of JDBC types drawn
+ * from realistic mixes, so that branch prediction and lookups behave as on real catalogs, and of the PostgreSQL
+ * type mapping profile looking up the type names of the same sequences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeMapperBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 4096;
+
+    /**
+     * <ul>
+     *     <li>{@code oltp}: identifiers, short strings, timestamps and flags</li>
+     *     <li>{@code warehouse}: decimals, floating point numbers, dates and wide strings</li>
+     *     <li>{@code vendor}: one type out of four is vendor specific or not mapped, hitting the default</li>
+     * </ul>
+     */
+    @Param({"oltp", "warehouse", "vendor"})
+    public String typeMix;
+
+    private int[] sqlTypes;
+    private String[] typeNames;
+    private final TypeMappingProfile postgresqlProfile = new PostgreSQLMetadataDialect().getTypeMappingProfile();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int[][] weightedTypes;
+        switch (typeMix) {
+            case "oltp":
+                weightedTypes = new int[][]{
+                        {Types.INTEGER, 20}, {Types.BIGINT, 15}, {Types.VARCHAR, 35}, {Types.TIMESTAMP, 15},
+                        {Types.BOOLEAN, 8}, {Types.CHAR, 5}, {Types.DECIMAL, 2}};
+                break;
+            case "warehouse":
+                weightedTypes = new int[][]{
+                        {Types.DECIMAL, 25}, {Types.NUMERIC, 10}, {Types.DOUBLE, 15}, {Types.DATE, 15},
+                        {Types.VARCHAR, 20}, {Types.LONGVARCHAR, 5}, {Types.BIGINT, 10}};
+                break;
+            case "vendor":
+                weightedTypes = new int[][]{
+                        {Types.INTEGER, 15}, {Types.VARCHAR, 30}, {Types.TIMESTAMP, 15}, {Types.DECIMAL, 15},
+                        {Types.OTHER, 8}, {Types.ARRAY, 5}, {Types.STRUCT, 2}, {Types.TIMESTAMP_WITH_TIMEZONE, 5},
+                        {Types.SQLXML, 5}};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type mix: " + typeMix);
+        }
+        sqlTypes = sample(weightedTypes, new Random(42));
+        // Fresh strings, as returned by a driver, rather than interned literals
+        typeNames = new String[sqlTypes.length];
+        for (int i = 0; i < sqlTypes.length; i++) {
+            typeNames[i] = new String(sqlTypes[i] == Types.OTHER ? "jsonb" : JDBCType.valueOf(sqlTypes[i]).getName().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENCE_LENGTH)
+    public void mapSqlTypeToJsonSchema(Blackhole blackhole) {
+        for (int sqlType : sqlTypes) {
+            blackhole.consume(SQLToJsonSchemaMapper.mapSqlTypeToJsonSchema(sqlType));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENCE_LENGTH)
+    public void mapWithTypeNames(Blackhole blackhole) {
+        for (int i = 0; i < sqlTypes.length; i++) {
+            blackhole.consume(postgresqlProfile.map(sqlTypes[i], typeNames[i]));
+        }
+    }
+
+    private static int[] sample(int[][] weightedTypes, Random random) {
+        int totalWeight = 0;
+        for (int[] weightedType : weightedTypes) {
+            totalWeight += weightedType[1];
+        }
+        int[] sample = new int[SEQUENCE_LENGTH];
+        for (int i = 0; i < sample.length; i++) {
+            int draw = random.nextInt(totalWeight);
+            int type = 0;
+            while (draw >= weightedTypes[type][1]) {
+                draw -= weightedTypes[type][1];
+                type++;
+            }
+            sample[i] = weightedTypes[type][0];
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,295 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.opendatamesh.dpds.model.core.ComponentBase;
+import org.opendatamesh.dpds.model.interfaces.Port;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Imports the entries of a {@link BatchManifest} in a single JVM.
+ * <p>
+ * The entries of the same source share a pool of connections, so that a manifest of many small ports opens a
+ * handful of connections per database instead of a pool per port. Entries writing different port files run
+ * concurrently; entries writing the same port file run one after the other, in manifest order, each one merging
+ * into the port written by the previous one. A fan-out entry reads its tables once and writes the port file of
+ * each of its routes.
+ */
+public class BatchImport {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchImport.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public BatchImport() {
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /**
+     * Runs the manifest given as first argument, exiting with status 1 if an entry fails.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: BatchImport <manifest.json>");
+            System.exit(2);
+        }
+        List<Result> results = new BatchImport().run(Paths.get(args[0]));
+        if (results.stream().anyMatch(result -> !result.isSuccess())) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a manifest and imports its entries, resolving the relative paths against the manifest directory.
+     *
+     * @return the result of each entry, in manifest order
+     */
+    public List<Result> run(Path manifestFile) {
+        BatchManifest manifest;
+        try {
+            manifest = objectMapper.readValue(manifestFile.toFile(), BatchManifest.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading the batch manifest " + manifestFile, e);
+        }
+        Path baseDirectory = manifestFile.toAbsolutePath().getParent();
+        return run(manifest, baseDirectory);
+    }
+
+    /**
+     * @param baseDirectory the directory the relative paths of the entries are resolved against
+     * @return the result of each entry, in manifest order
+     */
+    public List<Result> run(BatchManifest manifest, Path baseDirectory) {
+        if (manifest.getConcurrency() < 1) {
+            throw new RuntimeException("Invalid batch concurrency: expected a positive integer, found " + manifest.getConcurrency());
+        }
+        List<List<BatchManifest.Entry>> entryGroups = groupByPortFiles(manifest.getEntries(), baseDirectory);
+
+        Map<BatchManifest.Entry, Result> results = new IdentityHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(manifest.getConcurrency(), Math.max(1, entryGroups.size())));
+        try (ImportSession session = new ImportSession(manifest.getConnectionsPerSource())) {
+            List<Future<List<Result>>> futures = new ArrayList<>();
+            for (List<BatchManifest.Entry> entries : entryGroups) {
+                futures.add(executor.submit(() -> importEntries(session, manifest, baseDirectory, entries)));
+            }
+            for (Future<List<Result>> future : futures) {
+                for (Result result : future.get()) {
+                    results.put(result.getEntry(), result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Batch import failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Result> orderedResults = new ArrayList<>();
+        for (BatchManifest.Entry entry : manifest.getEntries()) {
+            orderedResults.add(results.get(entry));
+        }
+        long failed = orderedResults.stream().filter(result -> !result.isSuccess()).count();
+        log.info("Batch import completed: {} entries imported, {} failed", orderedResults.size() - failed, failed);
+        return orderedResults;
+    }
+
+    /**
+     * Groups the entries writing the same port files, directly or through another entry of the group, keeping the
+     * manifest order in each group.
+     */
+    private List<List<BatchManifest.Entry>> groupByPortFiles(List<BatchManifest.Entry> entries, Path baseDirectory) {
+        // Union-find over the entry indexes: each entry joins the group of the first entry writing one of its port files
+        int[] parents = new int[entries.size()];
+        Map<Path, Integer> firstEntryByPortFile = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            parents[i] = i;
+            for (Path portFile : portFiles(entries.get(i), baseDirectory)) {
+                Integer firstEntry = firstEntryByPortFile.putIfAbsent(portFile, i);
+                if (firstEntry != null) {
+                    parents[root(parents, i)] = root(parents, firstEntry);
+                }
+            }
+        }
+        Map<Integer, List<BatchManifest.Entry>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            groups.computeIfAbsent(root(parents, i), root -> new ArrayList<>()).add(entries.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int root(int[] parents, int index) {
+        while (parents[index] != index) {
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private List<Path> portFiles(BatchManifest.Entry entry, Path baseDirectory) {
+        List<String> portFiles = new ArrayList<>();
+        if (entry.getRoutes() != null) {
+            entry.getRoutes().forEach(route -> portFiles.add(route.getPortFile()));
+        } else {
+            portFiles.add(entry.getPortFile());
+        }
+        if (portFiles.isEmpty() || portFiles.contains(null)) {
+            throw new RuntimeException("Missing port file in batch entry " + entry);
+        }
+        return portFiles.stream().map(portFile -> baseDirectory.resolve(portFile).normalize()).collect(Collectors.toList());
+    }
+
+    private List<Result> importEntries(ImportSession session, BatchManifest manifest, Path baseDirectory, List<BatchManifest.Entry> entries) {
+        List<Result> results = new ArrayList<>();
+        for (BatchManifest.Entry entry : entries) {
+            List<Path> portFiles = portFiles(entry, baseDirectory);
+            try {
+                JdbcImportRequest request = toImportRequest(manifest, baseDirectory, entry);
+                if (entry.getRoutes() == null) {
+                    writePort(portFiles.get(0), session.importPort(request, readPort(portFiles.get(0))));
+                } else {
+                    importRoutes(session, request, entry.getRoutes(), portFiles);
+                }
+                log.info("Imported batch entry {} into {}", entry, portFiles);
+                results.add(new Result(entry, portFiles, null));
+            } catch (RuntimeException e) {
+                log.error("Error importing batch entry {}", entry, e);
+                results.add(new Result(entry, portFiles, e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        }
+        return results;
+    }
+
+    private void importRoutes(ImportSession session, JdbcImportRequest request, List<BatchManifest.Route> routes, List<Path> portFiles) {
+        List<PortRoute> portRoutes = new ArrayList<>();
+        Map<String, Port> existingPorts = new HashMap<>();
+        for (int i = 0; i < routes.size(); i++) {
+            portRoutes.add(new PortRoute(routes.get(i).getPort(), routes.get(i).getTablesRegex()));
+            Port existingPort = readPort(portFiles.get(i));
+            if (existingPort != null) {
+                existingPorts.put(routes.get(i).getPort(), existingPort);
+            }
+        }
+        Map<String, Port> ports = session.importPorts(request, portRoutes, existingPorts);
+        for (int i = 0; i < routes.size(); i++) {
+            writePort(portFiles.get(i), ports.get(routes.get(i).getPort()));
+        }
+    }
+
+    private JdbcImportRequest toImportRequest(BatchManifest manifest, Path baseDirectory, BatchManifest.Entry entry) {
+        BatchManifest.Source source = manifest.getSources().get(entry.getSource());
+        if (source == null) {
+            throw new RuntimeException("Unknown source " + entry.getSource() + " in batch entry " + entry);
+        }
+        String password = source.getPassword();
+        if (password == null && source.getPasswordEnv() != null) {
+            password = System.getenv(source.getPasswordEnv());
+            if (password == null) {
+                throw new RuntimeException("Missing environment variable " + source.getPasswordEnv() + " for source " + entry.getSource());
+            }
+        }
+        JdbcImportRequest.Builder builder = new JdbcImportRequest.Builder()
+                .sourceName(entry.getSource())
+                .endpoint(source.getEndpoint())
+                .user(source.getUser())
+                .password(password)
+                .portName(entry.getRoutes() != null
+                        ? entry.getRoutes().stream().map(BatchManifest.Route::getPort).collect(Collectors.joining(","))
+                        : entry.getPort())
+                .portVersion(entry.getPortVersion())
+                .platform(entry.getPlatform())
+                .catalogName(entry.getCatalogName())
+                .schemaName(entry.getSchemaName())
+                .tablesPattern(entry.getTablesPattern())
+                .tableTypes(entry.getTableTypes() != null ? Arrays.asList(entry.getTableTypes().split(",")) : null)
+                .parallelism(entry.getParallelism())
+                .incremental(entry.isIncremental());
+        if (entry.getMetadataDialect() != null) {
+            builder.metadataDialect(entry.getMetadataDialect());
+        }
+        if (entry.getDefinitionFile() != null) {
+            builder.definitionFile(baseDirectory.resolve(entry.getDefinitionFile()));
+        }
+        return builder.build();
+    }
+
+    private Port readPort(Path portFile) {
+        if (!Files.exists(portFile)) {
+            return null;
+        }
+        try {
+            ObjectNode portNode = objectMapper.readValue(portFile.toFile(), ObjectNode.class);
+            JsonNode definition = portNode.path("promises").path("api").path("definition");
+            Port port = objectMapper.treeToValue(portNode, Port.class);
+            if (port.getPromises() != null && port.getPromises().getApi() != null && !definition.isMissingNode()) {
+                port.getPromises().getApi().setDefinition(objectMapper.treeToValue(definition, ComponentBase.class));
+            }
+            return port;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading the port " + portFile, e);
+        }
+    }
+
+    private void writePort(Path portFile, Port port) {
+        try {
+            Path parent = portFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(portFile.toFile(), port);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing the port " + portFile, e);
+        }
+    }
+
+    /**
+     * The outcome of a batch entry.
+     */
+    public static final class Result {
+        private final BatchManifest.Entry entry;
+        private final List<Path> portFiles;
+        private final String error;
+
+        Result(BatchManifest.Entry entry, List<Path> portFiles, String error) {
+            this.entry = entry;
+            this.portFiles = portFiles;
+            this.error = error;
+        }
+
+        public BatchManifest.Entry getEntry() {
+            return entry;
+        }
+
+        /**
+         * @return the port file of the entry, or the port files of the routes of a fan-out entry
+         */
+        public List<Path> getPortFiles() {
+            return portFiles;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return the error message of a failed entry, otherwise null
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The list of imports run by a {@link BatchImport}, read from a JSON manifest:
+ * <pre>
+ * {
+ *   "concurrency": 4,
+ *   "connectionsPerSource": 4,
+ *   "sources": {
+ *     "sales-db": {"endpoint": "jdbc:postgresql://db/sales", "user": "reader", "passwordEnv": "SALES_DB_PASSWORD"}
+ *   },
+ *   "entries": [
+ *     {"source": "sales-db", "schemaName": "public", "tablesPattern": "order%", "port": "orders", "portVersion": "1.0.0",
+ *      "platform": "postgresql:prod", "portFile": "ports/output-port/orders.json"}
+ *   ]
+ * }
+ * </pre>
+ * An entry with {@code routes} instead of a port is a fan-out import: its tables are read once, then routed to
+ * the ports of the routes whose {@code tablesRegex} matches their name:
+ * <pre>
+ * {"source": "sales-db", "schemaName": "public", "portVersion": "1.0.0", "platform": "postgresql:prod", "routes": [
+ *   {"port": "orders", "tablesRegex": "ORDER.*", "portFile": "ports/output-port/orders.json"},
+ *   {"port": "customers", "tablesRegex": "CUSTOMER.*", "portFile": "ports/output-port/customers.json"}
+ * ]}
+ * </pre>
+ */
+public class BatchManifest {
+
+    private int concurrency = 4;
+    private int connectionsPerSource = 4;
+    private Map<String, Source> sources = new LinkedHashMap<>();
+    private List<Entry> entries = new ArrayList<>();
+
+    /**
+     * @return the number of entries imported concurrently
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return the number of connections shared by the entries of the same source
+     */
+    public int getConnectionsPerSource() {
+        return connectionsPerSource;
+    }
+
+    public void setConnectionsPerSource(int connectionsPerSource) {
+        this.connectionsPerSource = connectionsPerSource;
+    }
+
+    public Map<String, Source> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<String, Source> sources) {
+        this.sources = sources;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * A database the entries import from, as a system of the ODM CLI configuration.
+     */
+    public static class Source {
+        private String endpoint;
+        private String user;
+        private String password;
+        private String passwordEnv;
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public void setUser(String user) {
+            this.user = user;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * @return the environment variable holding the password, read when the password is not set in the manifest
+         */
+        public String getPasswordEnv() {
+            return passwordEnv;
+        }
+
+        public void setPasswordEnv(String passwordEnv) {
+            this.passwordEnv = passwordEnv;
+        }
+    }
+
+    /**
+     * A port imported from a source, or several ports in a fan-out import. The port file is read, when it exists, to merge the imported tables into
+     * the existing port, then written back; relative paths are resolved against the directory of the manifest.
+     */
+    public static class Entry {
+        private String source;
+        private String catalogName;
+        private String schemaName;
+        private String tablesPattern = "%";
+        private String tableTypes = "TABLE,VIEW";
+        private String port;
+        private String portVersion;
+        private String platform;
+        private String portFile;
+        private String definitionFile;
+        private String metadataDialect;
+        private int parallelism = 1;
+        private boolean incremental;
+        private List<Route> routes;
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        public String getCatalogName() {
+            return catalogName;
+        }
+
+        public void setCatalogName(String catalogName) {
+            this.catalogName = catalogName;
+        }
+
+        public String getSchemaName() {
+            return schemaName;
+        }
+
+        public void setSchemaName(String schemaName) {
+            this.schemaName = schemaName;
+        }
+
+        public String getTablesPattern() {
+            return tablesPattern;
+        }
+
+        public void setTablesPattern(String tablesPattern) {
+            this.tablesPattern = tablesPattern;
+        }
+
+        public String getTableTypes() {
+            return tableTypes;
+        }
+
+        public void setTableTypes(String tableTypes) {
+            this.tableTypes = tableTypes;
+        }
+
+        public String getPort() {
+            return port;
+        }
+
+        public void setPort(String port) {
+            this.port = port;
+        }
+
+        public String getPortVersion() {
+            return portVersion;
+        }
+
+        public void setPortVersion(String portVersion) {
+            this.portVersion = portVersion;
+        }
+
+        public String getPlatform() {
+            return platform;
+        }
+
+        public void setPlatform(String platform) {
+            this.platform = platform;
+        }
+
+        public String getPortFile() {
+            return portFile;
+        }
+
+        public void setPortFile(String portFile) {
+            this.portFile = portFile;
+        }
+
+        public String getDefinitionFile() {
+            return definitionFile;
+        }
+
+        public void setDefinitionFile(String definitionFile) {
+            this.definitionFile = definitionFile;
+        }
+
+        public String getMetadataDialect() {
+            return metadataDialect;
+        }
+
+        public void setMetadataDialect(String metadataDialect) {
+            this.metadataDialect = metadataDialect;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        public void setIncremental(boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        /**
+         * @return the routes of a fan-out import, otherwise null
+         */
+        public List<Route> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        @Override
+        public String toString() {
+            return source + ":" + schemaName + "/" + tablesPattern + " -> " + (routes != null ? routes : port);
+        }
+    }
+
+    /**
+     * A target port of a fan-out entry.
+     */
+    public static class Route {
+        private String port;
+        private String tablesRegex;
+        private String portFile;
+
+        public String getPort() {
+            return port;
+        }
+
+        public void setPort(String port) {
+            this.port = port;
+        }
+
+        /**
+         * @return the regular expression the names of the tables routed to the port must match
+         */
+        public String getTablesRegex() {
+            return tablesRegex;
+        }
+
+        public void setTablesRegex(String tablesRegex) {
+            this.tablesRegex = tablesRegex;
+        }
+
+        public String getPortFile() {
+            return portFile;
+        }
+
+        public void setPortFile(String portFile) {
+            this.portFile = portFile;
+        }
+
+        @Override
+        public String toString() {
+            return port;
+        }
+    }
+}
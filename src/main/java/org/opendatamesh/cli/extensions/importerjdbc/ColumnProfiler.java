@@ -0,0 +1,416 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataQuery;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.ProfilingQueries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the data profile of the columns, {@code minimum}, {@code maximum}, {@code minLength}, {@code maxLength}
+ * and {@code examples}, from a sample of the rows of each table, and the {@code enumValues} of the columns holding
+ * a small domain of values.
+ * <p>
+ * Each table is profiled with a single aggregate query covering all of its profiled columns, over a sample of at
+ * most {@code sampleRows} rows selected by {@link ProfilingQueries#sampleQuery}. The tables share a global budget:
+ * the rows they sample are taken from a row budget, and no table starts after the time budget, which also bounds
+ * the timeout of the running queries. The tables left over when a budget runs out are not profiled.
+ * <p>
+ * The enum candidates are the character columns declared with at most {@code enumMaxLength} characters. The
+ * candidates of a table are probed together, with a single statement reading at most {@code enumMaxValues + 1}
+ * distinct values of each of them through {@link ProfilingQueries#distinctValuesQuery}, so that the database stops
+ * as soon as a column has too many values. Only the columns whose whole domain was read get {@code enumValues}.
+ * When the table is profiled too, the candidates with more distinct values in the sample are not probed.
+ * <p>
+ * The profiler samples on connections of its own, so that a table can be profiled while the metadata reader
+ * holds the connections of the import. Profiling is best effort: a table whose query fails, such as a view the
+ * user cannot read, keeps its metadata without a profile.
+ */
+class ColumnProfiler implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcConnectionPool connectionPool;
+    private final ProfilingQueries dialect;
+    private final boolean profileColumns;
+    private final int sampleRows;
+    private final int enumMaxValues;
+    private final int enumMaxLength;
+    private final Duration timeBudget;
+    private final ImportMetrics metrics;
+    private final AtomicLong remainingRows;
+    private final AtomicLong deadlineNanos = new AtomicLong();
+    private final AtomicInteger profiledTables = new AtomicInteger();
+    private final AtomicInteger skippedTables = new AtomicInteger();
+    private final AtomicInteger enumColumns = new AtomicInteger();
+    private final ExecutorService executor;
+    private final List<Future<?>> pendingProfiles = new ArrayList<>();
+
+    /**
+     * @param connectionPool the connections the samples are read on, borrowed and released table by table
+     * @param dialect        the dialect building the sample queries, or null for the standard SQL of {@link ProfilingQueries#STANDARD}
+     * @param request        the import whose profiling options, budgets and parallelism apply
+     */
+    ColumnProfiler(JdbcConnectionPool connectionPool, ProfilingQueries dialect, JdbcImportRequest request, ImportMetrics metrics) {
+        this.connectionPool = connectionPool;
+        this.dialect = dialect != null ? dialect : ProfilingQueries.STANDARD;
+        this.profileColumns = request.isProfileColumns();
+        this.sampleRows = request.getProfileSampleRows();
+        this.enumMaxValues = request.isDetectEnums() ? request.getEnumMaxValues() : 0;
+        this.enumMaxLength = request.getEnumMaxLength();
+        this.timeBudget = request.getProfileTimeBudget();
+        this.metrics = metrics;
+        this.remainingRows = new AtomicLong(request.getProfileRowBudget());
+        this.executor = Executors.newFixedThreadPool(Math.min(request.getParallelism(), connectionPool.getMaxSize()));
+    }
+
+    /**
+     * @param query              the metadata query the table was read with
+     * @param tableNameQualifier how the name of the table was qualified
+     * @param tableName          the imported name of the table
+     * @return the catalog, schema and name of the table in the database
+     */
+    private static JdbcMetadataReader.TableKey locate(MetadataQuery query, JdbcMetadataReader.TableNameQualifier tableNameQualifier,
+                                                      String tableName, DatabaseMetaData metaData) throws SQLException {
+        // The schemas resolved from patterns are queried as escaped LIKE patterns
+        String schema = SchemaWorkers.unescapeLikePattern(query.getSchemaPattern(), metaData.getSearchStringEscape());
+        String prefix = tableNameQualifier.qualify(new JdbcMetadataReader.TableKey(query.getCatalogName(), schema, ""));
+        return new JdbcMetadataReader.TableKey(query.getCatalogName(), schema,
+                tableName.startsWith(prefix) ? tableName.substring(prefix.length()) : tableName);
+    }
+
+    /**
+     * Profiles a table in the background. The profile is complete once {@link #awaitCompletion()} returns.
+     *
+     * @param query              the metadata query the table was read with
+     * @param tableNameQualifier how the name of the table was qualified
+     */
+    void submit(MetadataQuery query, JdbcMetadataReader.TableNameQualifier tableNameQualifier, DataStoreApiSchemaEntity entity) {
+        synchronized (pendingProfiles) {
+            pendingProfiles.add(executor.submit(() -> profile(query, tableNameQualifier, entity)));
+        }
+    }
+
+    /**
+     * Waits for the tables submitted so far.
+     */
+    void awaitCompletion() {
+        List<Future<?>> profiles;
+        synchronized (pendingProfiles) {
+            profiles = new ArrayList<>(pendingProfiles);
+            pendingProfiles.clear();
+        }
+        try {
+            for (Future<?> profile : profiles) {
+                profile.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while profiling the columns", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error profiling the columns", e.getCause());
+        }
+    }
+
+    /**
+     * Profiles a table on the calling thread, unless a budget has run out. When the row budget has run out, the
+     * enum candidates are still probed, within the time budget.
+     *
+     * @param query              the metadata query the table was read with
+     * @param tableNameQualifier how the name of the table was qualified
+     */
+    void profile(MetadataQuery query, JdbcMetadataReader.TableNameQualifier tableNameQualifier, DataStoreApiSchemaEntity entity) {
+        List<DataStoreApiSchemaColumn> columns = new ArrayList<>();
+        List<DataStoreApiSchemaColumn> enumCandidates = new ArrayList<>();
+        for (DataStoreApiSchemaColumn column : entity.getDefinition().getProperties().values()) {
+            if (profileColumns && profileKind(column) != ProfileKind.NONE) {
+                columns.add(column);
+            }
+            if (isEnumCandidate(column)) {
+                enumCandidates.add(column);
+            }
+        }
+        if (columns.isEmpty() && enumCandidates.isEmpty()) {
+            return;
+        }
+        deadlineNanos.compareAndSet(0, System.nanoTime() + timeBudget.toNanos());
+        long timeLeftNanos = deadlineNanos.get() - System.nanoTime();
+        int rows = columns.isEmpty() ? 0 : reserveRows();
+        if (timeLeftNanos <= 0 || (rows == 0 && enumCandidates.isEmpty())) {
+            remainingRows.addAndGet(rows);
+            skippedTables.incrementAndGet();
+            return;
+        }
+
+        long sampledRows = 0;
+        Connection connection = null;
+        try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.PROFILING)) {
+            connection = connectionPool.borrow();
+            DatabaseMetaData metaData = connection.getMetaData();
+            String quote = metaData.getIdentifierQuoteString();
+            JdbcMetadataReader.TableKey tableKey = locate(query, tableNameQualifier, entity.getDefinition().getName(), metaData);
+            try (Statement statement = connection.createStatement()) {
+                // Rounded up: a zero timeout would mean no timeout at all
+                statement.setQueryTimeout((int) Math.max(1, (timeLeftNanos + 999_999_999L) / 1_000_000_000L));
+                if (rows > 0) {
+                    try (ResultSet profile = statement.executeQuery(profileQuery(quote, tableKey, columns, enumCandidates, rows))) {
+                        if (profile.next()) {
+                            sampledRows = profile.getLong(1);
+                            if (sampledRows > 0) {
+                                readProfile(profile, columns, enumCandidates);
+                            }
+                        }
+                    }
+                }
+                if (!enumCandidates.isEmpty()) {
+                    detectEnums(statement, quote, tableKey, enumCandidates);
+                }
+            }
+            profiledTables.incrementAndGet();
+        } catch (SQLTimeoutException e) {
+            logger.warn("Column profiling of {} stopped by the time budget of {}", entity.getDefinition().getName(), timeBudget);
+            skippedTables.incrementAndGet();
+        } catch (SQLException e) {
+            logger.warn("Column profiling of {} failed: {}", entity.getDefinition().getName(), e.getMessage());
+            skippedTables.incrementAndGet();
+        } finally {
+            connectionPool.release(connection);
+            // The rows the sample did not use go back to the budget
+            remainingRows.addAndGet(rows - Math.min(rows, sampledRows));
+        }
+    }
+
+    int getProfiledTableCount() {
+        return profiledTables.get();
+    }
+
+    int getSkippedTableCount() {
+        return skippedTables.get();
+    }
+
+    int getEnumColumnCount() {
+        return enumColumns.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the rows sampled from the next table, taken from the row budget, or 0 when it has run out
+     */
+    private int reserveRows() {
+        while (true) {
+            long remaining = remainingRows.get();
+            int rows = (int) Math.min(sampleRows, Math.max(0, remaining));
+            if (remainingRows.compareAndSet(remaining, remaining - rows)) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * {@code SELECT COUNT(*), MIN(c1), MAX(c1), MIN(CHAR_LENGTH(c2)), ... FROM (<sample>) s}, the aggregates of each
+     * column depending on its {@link ProfileKind}, followed by {@code COUNT(DISTINCT c)} for the enum candidates.
+     */
+    private String profileQuery(String quote, JdbcMetadataReader.TableKey tableKey, List<DataStoreApiSchemaColumn> columns,
+                                List<DataStoreApiSchemaColumn> enumCandidates, int rows) {
+        StringBuilder selectList = new StringBuilder();
+        StringBuilder aggregates = new StringBuilder("SELECT COUNT(*)");
+        for (DataStoreApiSchemaColumn column : columns) {
+            String name = quote(quote, column.getName());
+            selectList.append(selectList.length() > 0 ? ", " : "").append(name);
+            aggregates.append(", MIN(").append(name).append("), MAX(").append(name).append(')');
+            if (profileKind(column) == ProfileKind.TEXT) {
+                aggregates.append(", MIN(CHAR_LENGTH(").append(name).append(")), MAX(CHAR_LENGTH(").append(name).append("))");
+            }
+        }
+        for (DataStoreApiSchemaColumn column : enumCandidates) {
+            aggregates.append(", COUNT(DISTINCT ").append(quote(quote, column.getName())).append(')');
+        }
+        String table = tableName(quote, tableKey);
+        return aggregates.append(" FROM (").append(dialect.sampleQuery(selectList.toString(), table, rows)).append(") s").toString();
+    }
+
+    /**
+     * Reads the aggregates in the order {@link #profileQuery} selects them, and removes the enum candidates with
+     * too many distinct values in the sample.
+     */
+    private void readProfile(ResultSet profile, List<DataStoreApiSchemaColumn> columns, List<DataStoreApiSchemaColumn> enumCandidates)
+            throws SQLException {
+        int index = 2;
+        for (DataStoreApiSchemaColumn column : columns) {
+            ProfileKind kind = profileKind(column);
+            if (kind == ProfileKind.INTEGER) {
+                long minimum = profile.getLong(index);
+                if (!profile.wasNull() && minimum >= Integer.MIN_VALUE && minimum <= Integer.MAX_VALUE) {
+                    column.setMinimum((int) minimum);
+                }
+                long maximum = profile.getLong(index + 1);
+                if (!profile.wasNull() && maximum >= Integer.MIN_VALUE && maximum <= Integer.MAX_VALUE) {
+                    column.setMaximum((int) maximum);
+                }
+            } else {
+                List<String> examples = new ArrayList<>(2);
+                String minimum = profile.getString(index);
+                String maximum = profile.getString(index + 1);
+                if (minimum != null) {
+                    examples.add(minimum);
+                }
+                if (maximum != null && !maximum.equals(minimum)) {
+                    examples.add(maximum);
+                }
+                if (!examples.isEmpty()) {
+                    column.setExamples(examples);
+                }
+            }
+            index += 2;
+            if (kind == ProfileKind.TEXT) {
+                int minLength = profile.getInt(index);
+                if (!profile.wasNull()) {
+                    column.setMinLength(minLength);
+                }
+                int maxLength = profile.getInt(index + 1);
+                // The declared length of the column, if any, is its actual maximum length
+                if (!profile.wasNull() && column.getMaxLength() == null) {
+                    column.setMaxLength(maxLength);
+                }
+                index += 2;
+            }
+        }
+        for (Iterator<DataStoreApiSchemaColumn> candidates = enumCandidates.iterator(); candidates.hasNext(); index++) {
+            candidates.next();
+            if (profile.getLong(index) > enumMaxValues) {
+                candidates.remove();
+            }
+        }
+    }
+
+    /**
+     * Reads at most {@code enumMaxValues + 1} distinct values of each candidate with a single statement,
+     * {@code SELECT 0, p0.* FROM (<distinct values of c0>) p0 UNION ALL SELECT 1, p1.* FROM (...) p1 ...},
+     * and sets the values of the candidates whose whole domain was read.
+     */
+    private void detectEnums(Statement statement, String quote, JdbcMetadataReader.TableKey tableKey,
+                             List<DataStoreApiSchemaColumn> enumCandidates) throws SQLException {
+        String table = tableName(quote, tableKey);
+        StringBuilder probes = new StringBuilder();
+        for (int i = 0; i < enumCandidates.size(); i++) {
+            String column = quote(quote, enumCandidates.get(i).getName());
+            String distinctValuesQuery = dialect.distinctValuesQuery(column, table, enumMaxValues + 1);
+            probes.append(i > 0 ? " UNION ALL " : "")
+                    .append("SELECT ").append(i).append(", p").append(i).append(".* FROM (").append(distinctValuesQuery).append(") p").append(i);
+        }
+        List<Set<String>> values = new ArrayList<>();
+        enumCandidates.forEach(candidate -> values.add(new TreeSet<>()));
+        try (ResultSet distinctValues = statement.executeQuery(probes.toString())) {
+            while (distinctValues.next()) {
+                String value = distinctValues.getString(2);
+                if (value != null) {
+                    values.get(distinctValues.getInt(1)).add(value);
+                }
+            }
+        }
+        for (int i = 0; i < enumCandidates.size(); i++) {
+            if (!values.get(i).isEmpty() && values.get(i).size() <= enumMaxValues) {
+                enumCandidates.get(i).setEnumValues(new ArrayList<>(values.get(i)));
+                enumColumns.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isEnumCandidate(DataStoreApiSchemaColumn column) {
+        return enumMaxValues > 0 && profileKind(column) == ProfileKind.TEXT
+                && column.getMaxLength() != null && column.getMaxLength() <= enumMaxLength;
+    }
+
+    private static String tableName(String quote, JdbcMetadataReader.TableKey tableKey) {
+        StringBuilder table = new StringBuilder();
+        if (tableKey.catalog != null) {
+            table.append(quote(quote, tableKey.catalog)).append('.');
+        }
+        if (tableKey.schema != null) {
+            table.append(quote(quote, tableKey.schema)).append('.');
+        }
+        return table.append(quote(quote, tableKey.name)).toString();
+    }
+
+    /**
+     * @return the aggregates computed for the column: the large objects, binary, boolean and structured types are
+     * not profiled, since they cannot be compared or their values make no useful examples
+     */
+    static ProfileKind profileKind(DataStoreApiSchemaColumn column) {
+        String type = column.getType();
+        if ("integer".equals(type)) {
+            return ProfileKind.INTEGER;
+        }
+        if ("number".equals(type)) {
+            return ProfileKind.VALUE;
+        }
+        if (!"string".equals(type)) {
+            return ProfileKind.NONE;
+        }
+        String format = column.getFormat();
+        if ("date".equals(format) || "time".equals(format) || "date-time".equals(format)) {
+            return ProfileKind.VALUE;
+        }
+        String physicalType = column.getPhysicalType() != null ? column.getPhysicalType().toUpperCase(Locale.ROOT) : "";
+        if (format == null && !physicalType.contains("LOB") && !physicalType.contains("LARGE OBJECT")
+                && (physicalType.contains("CHAR") || physicalType.equals("TEXT"))) {
+            return ProfileKind.TEXT;
+        }
+        return ProfileKind.NONE;
+    }
+
+    private static String quote(String quote, String identifier) {
+        if (quote == null || quote.isBlank()) {
+            return identifier;
+        }
+        return quote + identifier.replace(quote, quote + quote) + quote;
+    }
+
+    /**
+     * The aggregates computed for a column.
+     */
+    enum ProfileKind {
+        /**
+         * Not profiled.
+         */
+        NONE,
+        /**
+         * {@code minimum} and {@code maximum}, when they fit the model.
+         */
+        INTEGER,
+        /**
+         * The smallest and largest values as {@code examples}, for decimal numbers, dates and times.
+         */
+        VALUE,
+        /**
+         * The smallest and largest values as {@code examples}, {@code minLength}, and {@code maxLength} when no
+         * length is declared, for character types.
+         */
+        TEXT
+    }
+}
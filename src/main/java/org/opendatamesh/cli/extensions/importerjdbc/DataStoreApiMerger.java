@@ -5,15 +5,225 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreAPISchemaEntityDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaResource;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class DataStoreApiMerger {
 
+    /**
+     * Merges an imported definition into an existing one working directly on the DataStore API model,
+     * following the same rules as {@link #mergeDataStoreApi(ObjectNode, ObjectNode)}: properties added by
+     * users are kept, imported properties are overwritten, tables and columns no longer imported are dropped.
+     * <p>
+     * Neither input is modified: objects are copied only when they change, everything else is shared.
+     */
+    static DataStoreApiDefinition mergeDataStoreApi(DataStoreApiDefinition existingDefinition, DataStoreApiDefinition newDefinition) {
+        if (!(existingDefinition.getSchema() instanceof DataStoreApiSchemaResource)) {
+            return newDefinition;
+        }
+        DataStoreApiSchemaResource existingSchema = (DataStoreApiSchemaResource) existingDefinition.getSchema();
+        DataStoreApiSchemaResource newSchema = (DataStoreApiSchemaResource) newDefinition.getSchema();
+
+        DataStoreApiDefinition mergedDefinition = new DataStoreApiDefinition();
+        mergedDefinition.setDatastoreapi(existingDefinition.getDatastoreapi());
+        mergedDefinition.setInfo(existingDefinition.getInfo());
+        existingDefinition.getAdditionalProperties().forEach(mergedDefinition::setAdditionalProperty);
+        mergedDefinition.setSchema(copyWithTables(existingSchema, mergeTables(existingSchema.getTables(), newSchema.getTables())));
+        return mergedDefinition;
+    }
+
+    /**
+     * Keeps the existing tables that are still imported, in their order, merged with their imported
+     * counterpart, then appends the tables imported for the first time.
+     */
+    private static List<DataStoreApiSchemaEntity> mergeTables(List<DataStoreApiSchemaEntity> existingTables, List<DataStoreApiSchemaEntity> newTables) {
+        List<DataStoreApiSchemaEntity> newTableList = newTables != null ? newTables : List.of();
+        Map<String, DataStoreApiSchemaEntity> existingTablesByName = new HashMap<>();
+        if (existingTables != null) {
+            existingTables.forEach(table -> existingTablesByName.putIfAbsent(normalizeName(tableName(table)), table));
+        }
+
+        // Pair each imported table with its existing counterpart, each existing table being used once
+        Map<DataStoreApiSchemaEntity, DataStoreApiSchemaEntity> mergedTablesByExistingTable = new IdentityHashMap<>();
+        List<DataStoreApiSchemaEntity> addedTables = new ArrayList<>();
+        for (DataStoreApiSchemaEntity newTable : newTableList) {
+            DataStoreApiSchemaEntity existingTable = existingTablesByName.remove(normalizeName(tableName(newTable)));
+            if (existingTable != null) {
+                mergedTablesByExistingTable.put(existingTable, mergeTable(existingTable, newTable));
+            } else {
+                addedTables.add(newTable);
+            }
+        }
+
+        List<DataStoreApiSchemaEntity> mergedTables = new ArrayList<>(newTableList.size());
+        if (existingTables != null) {
+            for (DataStoreApiSchemaEntity existingTable : existingTables) {
+                DataStoreApiSchemaEntity mergedTable = mergedTablesByExistingTable.get(existingTable);
+                if (mergedTable != null) {
+                    mergedTables.add(mergedTable);
+                }
+            }
+        }
+        mergedTables.addAll(addedTables);
+        return mergedTables;
+    }
+
+    private static DataStoreApiSchemaEntity mergeTable(DataStoreApiSchemaEntity existingTable, DataStoreApiSchemaEntity newTable) {
+        DataStoreAPISchemaEntityDefinition existingDefinition = existingTable.getDefinition();
+        DataStoreAPISchemaEntityDefinition newDefinition = newTable.getDefinition();
+        if (existingDefinition == null || newDefinition == null) {
+            return newTable;
+        }
+
+        DataStoreAPISchemaEntityDefinition mergedDefinition = new DataStoreAPISchemaEntityDefinition();
+        mergedDefinition.setTitle(firstNonNull(newDefinition.getTitle(), existingDefinition.getTitle()));
+        mergedDefinition.setName(firstNonNull(newDefinition.getName(), existingDefinition.getName()));
+        mergedDefinition.setKind(firstNonNull(newDefinition.getKind(), existingDefinition.getKind()));
+        mergedDefinition.setType(firstNonNull(newDefinition.getType(), existingDefinition.getType()));
+        mergedDefinition.setComments(firstNonNull(newDefinition.getComments(), existingDefinition.getComments()));
+        mergedDefinition.setStatus(firstNonNull(newDefinition.getStatus(), existingDefinition.getStatus()));
+        mergedDefinition.setTags(firstNonNull(newDefinition.getTags(), existingDefinition.getTags()));
+        mergedDefinition.setOwner(firstNonNull(newDefinition.getOwner(), existingDefinition.getOwner()));
+        mergedDefinition.setDomain(firstNonNull(newDefinition.getDomain(), existingDefinition.getDomain()));
+        mergedDefinition.setContactPoints(firstNonNull(newDefinition.getContactPoints(), existingDefinition.getContactPoints()));
+        mergedDefinition.setScope(firstNonNull(newDefinition.getScope(), existingDefinition.getScope()));
+        mergedDefinition.setVersion(firstNonNull(newDefinition.getVersion(), existingDefinition.getVersion()));
+        mergedDefinition.setFullyQualifiedName(firstNonNull(newDefinition.getFullyQualifiedName(), existingDefinition.getFullyQualifiedName()));
+        mergedDefinition.setDisplayName(firstNonNull(newDefinition.getDisplayName(), existingDefinition.getDisplayName()));
+        mergedDefinition.setDescription(firstNonNull(newDefinition.getDescription(), existingDefinition.getDescription()));
+        mergedDefinition.setPhysicalType(firstNonNull(newDefinition.getPhysicalType(), existingDefinition.getPhysicalType()));
+        mergedDefinition.setExternalDocs(firstNonNull(newDefinition.getExternalDocs(), existingDefinition.getExternalDocs()));
+        mergedDefinition.setsContext(firstNonNull(newDefinition.getsContext(), existingDefinition.getsContext()));
+        mergedDefinition.setForeignKeys(firstNonNull(newDefinition.getForeignKeys(), existingDefinition.getForeignKeys()));
+        mergedDefinition.setStatistics(firstNonNull(newDefinition.getStatistics(), existingDefinition.getStatistics()));
+        existingDefinition.getAdditionalProperties().forEach(mergedDefinition::setAdditionalProperty);
+        newDefinition.getAdditionalProperties().forEach(mergedDefinition::setAdditionalProperty);
+        mergedDefinition.setProperties(mergeColumns(existingDefinition.getProperties(), newDefinition.getProperties()));
+
+        DataStoreApiSchemaEntity mergedTable = new DataStoreApiSchemaEntity();
+        mergedTable.setSpecification(existingTable.getSpecification());
+        mergedTable.setSpecificationVersion(existingTable.getSpecificationVersion());
+        existingTable.getAdditionalProperties().forEach(mergedTable::setAdditionalProperty);
+        mergedTable.setDefinition(mergedDefinition);
+        return mergedTable;
+    }
+
+    /**
+     * Keeps the existing columns that are still imported, merged with their imported counterpart,
+     * then appends the columns imported for the first time.
+     */
+    private static Map<String, DataStoreApiSchemaColumn> mergeColumns(Map<String, DataStoreApiSchemaColumn> existingColumns, Map<String, DataStoreApiSchemaColumn> newColumns) {
+        Map<String, DataStoreApiSchemaColumn> mergedColumns = new LinkedHashMap<>();
+        if (newColumns == null) {
+            return mergedColumns;
+        }
+        Map<String, String> newColumnNames = new HashMap<>();
+        newColumns.keySet().forEach(columnName -> newColumnNames.putIfAbsent(normalizeName(columnName), columnName));
+
+        if (existingColumns != null) {
+            existingColumns.forEach((existingColumnName, existingColumn) -> {
+                String columnName = newColumnNames.remove(normalizeName(existingColumnName));
+                if (columnName != null) {
+                    mergedColumns.put(columnName, mergeColumn(existingColumn, newColumns.get(columnName)));
+                }
+            });
+        }
+        newColumns.forEach(mergedColumns::putIfAbsent);
+        return mergedColumns;
+    }
+
+    private static DataStoreApiSchemaColumn mergeColumn(DataStoreApiSchemaColumn existingColumn, DataStoreApiSchemaColumn newColumn) {
+        DataStoreApiSchemaColumn mergedColumn = new DataStoreApiSchemaColumn(
+                firstNonNull(newColumn.getType(), existingColumn.getType()),
+                firstNonNull(newColumn.getDescription(), existingColumn.getDescription()),
+                firstNonNull(newColumn.getName(), existingColumn.getName()),
+                firstNonNull(newColumn.getKind(), existingColumn.getKind()),
+                firstNonNull(newColumn.isRequired(), existingColumn.isRequired()),
+                firstNonNull(newColumn.getDisplayName(), existingColumn.getDisplayName()),
+                firstNonNull(newColumn.getSummary(), existingColumn.getSummary()),
+                firstNonNull(newColumn.getComments(), existingColumn.getComments()),
+                firstNonNull(newColumn.getExamples(), existingColumn.getExamples()),
+                firstNonNull(newColumn.getStatus(), existingColumn.getStatus()),
+                firstNonNull(newColumn.getTags(), existingColumn.getTags()),
+                firstNonNull(newColumn.getExternalDocs(), existingColumn.getExternalDocs()),
+                firstNonNull(newColumn.getDefaultValue(), existingColumn.getDefaultValue()),
+                firstNonNull(newColumn.isClassified(), existingColumn.isClassified()),
+                firstNonNull(newColumn.getClassificationLevel(), existingColumn.getClassificationLevel()),
+                firstNonNull(newColumn.isUnique(), existingColumn.isUnique()),
+                firstNonNull(newColumn.isNullable(), existingColumn.isNullable()),
+                firstNonNull(newColumn.getPattern(), existingColumn.getPattern()),
+                firstNonNull(newColumn.getFormat(), existingColumn.getFormat()),
+                firstNonNull(newColumn.getEnumValues(), existingColumn.getEnumValues()),
+                firstNonNull(newColumn.getMinLength(), existingColumn.getMinLength()),
+                firstNonNull(newColumn.getMaxLength(), existingColumn.getMaxLength()),
+                firstNonNull(newColumn.getContentEncoding(), existingColumn.getContentEncoding()),
+                firstNonNull(newColumn.getContentMediaType(), existingColumn.getContentMediaType()),
+                firstNonNull(newColumn.getPrecision(), existingColumn.getPrecision()),
+                firstNonNull(newColumn.getScale(), existingColumn.getScale()),
+                firstNonNull(newColumn.getMinimum(), existingColumn.getMinimum()),
+                firstNonNull(newColumn.isExclusiveMinimum(), existingColumn.isExclusiveMinimum()),
+                firstNonNull(newColumn.getMaximum(), existingColumn.getMaximum()),
+                firstNonNull(newColumn.isExclusiveMaximum(), existingColumn.isExclusiveMaximum()),
+                firstNonNull(newColumn.isReadOnly(), existingColumn.isReadOnly()),
+                firstNonNull(newColumn.isWriteOnly(), existingColumn.isWriteOnly()),
+                firstNonNull(newColumn.getPhysicalType(), existingColumn.getPhysicalType()),
+                firstNonNull(newColumn.isPartitionStatus(), existingColumn.isPartitionStatus()),
+                firstNonNull(newColumn.getPartitionKeyPosition(), existingColumn.getPartitionKeyPosition()),
+                firstNonNull(newColumn.isClusterStatus(), existingColumn.isClusterStatus()),
+                firstNonNull(newColumn.getClusterKeyPosition(), existingColumn.getClusterKeyPosition())
+        );
+        mergedColumn.setOrdinalPosition(firstNonNull(newColumn.getOrdinalPosition(), existingColumn.getOrdinalPosition()));
+        existingColumn.getAdditionalProperties().forEach(mergedColumn::setAdditionalProperty);
+        newColumn.getAdditionalProperties().forEach(mergedColumn::setAdditionalProperty);
+        return mergedColumn;
+    }
+
+    private static DataStoreApiSchemaResource copyWithTables(DataStoreApiSchemaResource schema, List<DataStoreApiSchemaEntity> tables) {
+        DataStoreApiSchemaResource copy = new DataStoreApiSchemaResource();
+        copy.setId(schema.getId());
+        copy.setName(schema.getName());
+        copy.setVersion(schema.getVersion());
+        copy.setMediaType(schema.getMediaType());
+        copy.setDatabaseSchemaName(schema.getDatabaseSchemaName());
+        copy.setDatabaseName(schema.getDatabaseName());
+        schema.getAdditionalProperties().forEach(copy::setAdditionalProperty);
+        copy.setTables(tables);
+        return copy;
+    }
+
+    private static String tableName(DataStoreApiSchemaEntity table) {
+        return table.getDefinition() != null && table.getDefinition().getName() != null ? table.getDefinition().getName() : "";
+    }
+
+    private static <T> T firstNonNull(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * The key tables and columns are matched by: names are compared ignoring case, consistently across
+     * all the merge steps, since the case of identifiers depends on the database and on how they were quoted.
+     */
+    static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
 
+    /**
+     * Merges an imported definition into an existing one, both expressed as JSON trees.
+     */
     static JsonNode mergeDataStoreApi(ObjectNode existingDefinitionInput, ObjectNode newDefinition) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
@@ -29,115 +239,109 @@ public class DataStoreApiMerger {
         JsonNode existingTables = existingSchema.path("tables");
         JsonNode newTables = newSchema.path("tables");
 
-        // Create a list of table names from the new schema for comparison
-        List<String> newTableNames = new ArrayList<>();
-        newTables.forEach(table -> newTableNames.add(table.path("definition").path("name").asText()));
-
-        // Remove tables from the existing schema that are not present in the new schema
-        removeOldTablesNotInNewSchema(existingTables, newTableNames);
-
-        // Merge the tables: update existing tables and add new ones
-        mergeTables(existingTables, newTables);
+        // Merge the tables: update existing tables, add new ones and remove the ones not present in the new schema
+        if (existingTables.isArray()) {
+            mergeTables((ArrayNode) existingTables, newTables);
+        }
 
         return existingDefinition;
     }
 
     /**
-     * Removes tables from the existing schema that are not present in the new schema.
+     * Merges the tables: updates existing tables, adds new ones and removes the ones not present in the new schema.
+     * Existing tables keep their order, new ones are appended in import order.
      */
-    private static void removeOldTablesNotInNewSchema(JsonNode existingTables, List<String> newTableNames) {
-        Iterator<JsonNode> existingTableIterator = existingTables.elements();
-        while (existingTableIterator.hasNext()) {
-            JsonNode existingTable = existingTableIterator.next();
-            String existingTableName = existingTable.path("definition").path("name").asText();
-            if (!newTableNames.contains(existingTableName)) {
-                existingTableIterator.remove(); // Remove the table if it is not in the new schema
-            }
-        }
-    }
-
-    /**
-     * Merges the tables: updates existing tables and adds new ones.
-     */
-    private static void mergeTables(JsonNode existingTables, JsonNode newTables) {
+    private static void mergeTables(ArrayNode existingTables, JsonNode newTables) {
+        Map<String, JsonNode> existingTablesByName = indexTablesByName(existingTables);
+        Set<JsonNode> mergedTables = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<JsonNode> addedTables = new ArrayList<>();
         for (JsonNode newTable : newTables) {
-            String newTableName = newTable.path("definition").path("name").asText();
-
             // Check if the table already exists in the existing schema
-            JsonNode existingTable = findTableByName(existingTables, newTableName);
+            JsonNode existingTable = existingTablesByName.remove(normalizeName(tableName(newTable)));
             if (existingTable != null) {
                 // If it exists, merge the columns and preserve other properties
-                mergeColumns(existingTable, newTable);
-                mergeTableProperties(existingTable,newTable);
+                mergedTables.add(mergeTable(existingTable, newTable));
             } else {
                 // If the table doesn't exist, add it to the schema
-                ((ArrayNode) existingTables).add(newTable);
+                addedTables.add(newTable);
             }
         }
+
+        // Remove tables from the existing schema that are not present in the new schema
+        Iterator<JsonNode> existingTableIterator = existingTables.elements();
+        while (existingTableIterator.hasNext()) {
+            if (!mergedTables.contains(existingTableIterator.next())) {
+                existingTableIterator.remove();
+            }
+        }
+        existingTables.addAll(addedTables);
     }
 
     /**
-     * Finds a table by its name in the 'tables' array of the schema.
+     * Merges a single imported table into its existing counterpart, which is modified in place.
+     * Returns the new table as is when there is no existing counterpart.
      */
-    private static JsonNode findTableByName(JsonNode tables, String tableName) {
-        if (tables.isArray()) {
-            for (JsonNode table : tables) {
-                if (table.path("definition").path("name").asText().equalsIgnoreCase(tableName)) {
-                    return table;
-                }
-            }
+    static JsonNode mergeTable(JsonNode existingTable, JsonNode newTable) {
+        if (existingTable == null) {
+            return newTable;
         }
-        return null;
+        mergeColumns(existingTable, newTable);
+        mergeTableProperties(existingTable, newTable);
+        return existingTable;
     }
 
     /**
-     * Merges columns of a table, preserving existing data and adding new columns.
+     * Indexes the tables of a definition by their normalized name, see {@link #normalizeName(String)}.
      */
-    private static void mergeColumns(JsonNode existingTable, JsonNode newTable) {
-        JsonNode existingColumns = existingTable.path("definition").path("properties");
-        JsonNode newColumns = newTable.path("definition").path("properties");
-
-        // Create a list of column names in the new schema for comparison
-        List<String> newColumnNames = new ArrayList<>();
-        newColumns.fieldNames().forEachRemaining(newColumnNames::add);
+    static Map<String, JsonNode> indexTablesByName(JsonNode definition) {
+        JsonNode tables = definition.path("schema").path("tables");
+        return tables.isArray() ? indexTablesByName((ArrayNode) tables) : new HashMap<>();
+    }
 
-        // Remove columns that are in the existing schema but not in the new schema
-        removeOldColumnsNotInNewSchema(existingColumns, newColumnNames);
+    private static Map<String, JsonNode> indexTablesByName(ArrayNode tables) {
+        Map<String, JsonNode> tablesByName = new LinkedHashMap<>();
+        tables.forEach(table -> tablesByName.putIfAbsent(normalizeName(tableName(table)), table));
+        return tablesByName;
+    }
 
-        // Merge new columns into the existing ones
-        addOrUpdateColumns(existingColumns, newColumns);
+    private static String tableName(JsonNode table) {
+        return table.path("definition").path("name").asText();
     }
 
     /**
-     * Removes columns from the existing schema that are not present in the new schema.
+     * Merges columns of a table, preserving existing data, adding new columns and removing the ones not present
+     * in the new schema. Existing columns keep their order and take the name they have in the new schema.
      */
-    private static void removeOldColumnsNotInNewSchema(JsonNode existingColumns, List<String> newColumnNames) {
+    private static void mergeColumns(JsonNode existingTable, JsonNode newTable) {
+        JsonNode existingTableDefinition = existingTable.path("definition");
+        JsonNode existingColumns = existingTableDefinition.path("properties");
+        JsonNode newColumns = newTable.path("definition").path("properties");
+        if (!existingTableDefinition.isObject() || !newColumns.isObject()) {
+            return;
+        }
+
+        // Index the new column names by their normalized name
+        Map<String, String> newColumnNames = new HashMap<>();
+        newColumns.fieldNames().forEachRemaining(columnName -> newColumnNames.putIfAbsent(normalizeName(columnName), columnName));
+
+        ObjectNode mergedColumns = ((ObjectNode) existingTableDefinition).objectNode();
         Iterator<Map.Entry<String, JsonNode>> existingColumnIterator = existingColumns.fields();
         while (existingColumnIterator.hasNext()) {
-            Map.Entry<String, JsonNode> entry = existingColumnIterator.next();
-            String existingColumnName = entry.getKey();
-            if (!newColumnNames.contains(existingColumnName)) {
-                existingColumnIterator.remove(); // Remove the column if it's not in the new schema
+            Map.Entry<String, JsonNode> existingColumn = existingColumnIterator.next();
+            String columnName = newColumnNames.remove(normalizeName(existingColumn.getKey()));
+            // Columns that are not in the new schema are dropped, the others are merged preserving existing data
+            if (columnName != null) {
+                mergeColumnProperties(existingColumn.getValue(), newColumns.path(columnName));
+                mergedColumns.set(columnName, existingColumn.getValue());
             }
         }
-    }
-
-    /**
-     * Adds or updates columns in the existing schema based on the new schema.
-     */
-    private static void addOrUpdateColumns(JsonNode existingColumns, JsonNode newColumns) {
-        newColumns.fieldNames().forEachRemaining(columnName -> {
-            JsonNode newColumn = newColumns.path(columnName);
-            JsonNode existingColumn = existingColumns.path(columnName);
-
-            if (existingColumn.isMissingNode()) {
-                // If the column doesn't exist, add it
-                ((ObjectNode) existingColumns).set(columnName, newColumn);
-            } else {
-                // If the column exists, merge properties and preserve existing data
-                mergeColumnProperties(existingColumn, newColumn);
+        // Add the columns that don't exist yet
+        newColumns.fields().forEachRemaining(newColumn -> {
+            if (!mergedColumns.has(newColumn.getKey())) {
+                mergedColumns.set(newColumn.getKey(), newColumn.getValue());
             }
         });
+        ((ObjectNode) existingTableDefinition).set("properties", mergedColumns);
     }
 
     private static void mergeTableProperties(JsonNode existingTable, JsonNode newTable) {
@@ -0,0 +1,149 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the RFC 6902 JSON Patch turning a port definition into another one.
+ * <p>
+ * Objects are compared field by field. The arrays of named elements, such as the tables and the foreign keys, are
+ * matched by name, ignoring case as the merge does: the elements that disappeared are removed, the new ones added
+ * and the moved ones moved, so that a table added in the middle of the schema does not shift every table after it.
+ * The other arrays, such as the tags or the examples of a column, are replaced as a whole when they changed.
+ */
+final class DefinitionPatch {
+
+    private DefinitionPatch() {
+    }
+
+    /**
+     * @param source the definition the patch applies to, or null when there is none
+     * @param target the definition the patch produces
+     * @return the patch operations, empty when both definitions are equal
+     */
+    static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        if (source == null || source.isMissingNode()) {
+            patch.add(operation("add", "").set("value", target));
+        } else {
+            diff("", source, target, patch);
+        }
+        return patch;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.isObject() && target.isObject()) {
+            diffObjects(path, (ObjectNode) source, (ObjectNode) target, patch);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(path, (ArrayNode) source, (ArrayNode) target, patch);
+        } else if (!source.equals(target)) {
+            patch.add(operation("replace", path).set("value", target));
+        }
+    }
+
+    private static void diffObjects(String path, ObjectNode source, ObjectNode target, ArrayNode patch) {
+        for (Iterator<String> fieldNames = source.fieldNames(); fieldNames.hasNext(); ) {
+            String fieldName = fieldNames.next();
+            if (!target.has(fieldName)) {
+                patch.add(operation("remove", path + "/" + escape(fieldName)));
+            }
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = target.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode sourceValue = source.get(field.getKey());
+            if (sourceValue == null) {
+                patch.add(operation("add", fieldPath).set("value", field.getValue()));
+            } else {
+                diff(fieldPath, sourceValue, field.getValue(), patch);
+            }
+        }
+    }
+
+    /**
+     * Matches the elements by name, applying the operations to a working copy of the source names so that each
+     * index is the one the operation sees once the previous operations have been applied.
+     */
+    private static void diffArrays(String path, ArrayNode source, ArrayNode target, ArrayNode patch) {
+        List<String> sourceNames = names(source);
+        List<String> targetNames = names(target);
+        if (sourceNames == null || targetNames == null) {
+            if (!source.equals(target)) {
+                patch.add(operation("replace", path).set("value", target));
+            }
+            return;
+        }
+
+        List<String> names = new ArrayList<>(sourceNames);
+        List<JsonNode> elements = new ArrayList<>();
+        source.forEach(elements::add);
+        // From the last element, so that the indexes of the elements still to remove do not change
+        Set<String> targetNameSet = new HashSet<>(targetNames);
+        for (int index = names.size() - 1; index >= 0; index--) {
+            if (!targetNameSet.contains(names.get(index))) {
+                patch.add(operation("remove", path + "/" + index));
+                names.remove(index);
+                elements.remove(index);
+            }
+        }
+        for (int index = 0; index < target.size(); index++) {
+            String name = targetNames.get(index);
+            String elementPath = path + "/" + index;
+            // Unchanged arrays keep their order: the lookup only runs for the added and moved elements
+            int sourceIndex = index < names.size() && names.get(index).equals(name) ? index : names.subList(index, names.size()).indexOf(name);
+            if (sourceIndex < 0) {
+                patch.add(operation("add", elementPath).set("value", target.get(index)));
+                names.add(index, name);
+                elements.add(index, target.get(index));
+                continue;
+            }
+            if (sourceIndex != index) {
+                sourceIndex += index;
+                patch.add(operation("move", elementPath).put("from", path + "/" + sourceIndex));
+                names.add(index, names.remove(sourceIndex));
+                elements.add(index, elements.remove(sourceIndex));
+            }
+            diff(elementPath, elements.get(index), target.get(index), patch);
+        }
+    }
+
+    /**
+     * @return the normalized names of the elements, or null when an element has no name or two elements have the same name
+     */
+    private static List<String> names(ArrayNode array) {
+        List<String> names = new ArrayList<>(array.size());
+        Set<String> distinctNames = new HashSet<>();
+        for (JsonNode element : array) {
+            // Tables are named by their definition, foreign keys by themselves
+            JsonNode name = element.path("definition").path("name");
+            if (!name.isTextual()) {
+                name = element.path("name");
+            }
+            if (!name.isTextual() || !distinctNames.add(DataStoreApiMerger.normalizeName(name.asText()))) {
+                return null;
+            }
+            names.add(DataStoreApiMerger.normalizeName(name.asText()));
+        }
+        return names;
+    }
+
+    private static ObjectNode operation(String op, String path) {
+        return JsonNodeFactory.instance.objectNode().put("op", op).put("path", path);
+    }
+
+    /**
+     * Escapes a field name as a JSON Pointer reference token.
+     */
+    private static String escape(String fieldName) {
+        return fieldName.replace("~", "~0").replace("/", "~1");
+    }
+}
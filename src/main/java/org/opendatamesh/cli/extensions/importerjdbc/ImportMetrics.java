@@ -0,0 +1,201 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time spent in each phase of an import, and the metadata calls and rows it took.
+ * <p>
+ * Phases nest: a phase started while another one is running on the same thread pauses it, so that each phase
+ * only records its own time, e.g. opening a connection during the column fetch counts as connect time. The
+ * times of the phases running concurrently on several threads add up, so their sum may exceed the wall time
+ * of the import.
+ */
+class ImportMetrics {
+
+    /**
+     * The phases of an import.
+     */
+    enum Phase {
+        /**
+         * Opening the JDBC connections.
+         */
+        CONNECT("connect"),
+        /**
+         * Listing the schemas and tables.
+         */
+        TABLE_ENUMERATION("tableEnumeration"),
+        /**
+         * Reading the keys and foreign keys.
+         */
+        KEY_FETCH("keyFetch"),
+        /**
+         * Reading the columns, excluding the model build.
+         */
+        COLUMN_FETCH("columnFetch"),
+        /**
+         * Building the DataStore API tables and columns from the metadata rows.
+         */
+        MODEL_BUILD("modelBuild"),
+        /**
+         * Merging the imported tables with the existing definition, and writing them in a streaming import.
+         */
+        MERGE("merge"),
+        /**
+         * Profiling the columns from a sample of the rows, when enabled.
+         */
+        PROFILING("profiling"),
+        /**
+         * Converting the definitions between the DataStore API model and the port's JSON tree.
+         */
+        TREE_CONVERSION("treeConversion");
+
+        private final String reportName;
+
+        Phase(String reportName) {
+            this.reportName = reportName;
+        }
+    }
+
+    private final ThreadLocal<Timer> runningTimer = new ThreadLocal<>();
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+    private final LongAdder metadataCalls = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder tables = new LongAdder();
+    private final LongAdder columns = new LongAdder();
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+
+    ImportMetrics() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+            phaseCounts.put(phase, new LongAdder());
+        }
+    }
+
+    /**
+     * Starts timing a phase on the current thread, pausing the phase running on it if any.
+     */
+    Timer time(Phase phase) {
+        Timer timer = new Timer(phase, runningTimer.get());
+        runningTimer.set(timer);
+        return timer;
+    }
+
+    /**
+     * Records the time of a phase measured by the caller, nested in the phase running on the current thread: that
+     * phase does not count this time, as if a {@link Timer} had paused it. Per-row loops use it to record a phase
+     * once per table or batch of rows, instead of starting a timer for each row.
+     */
+    void recordNested(Phase phase, long nanos) {
+        phaseNanos.get(phase).add(nanos);
+        phaseCounts.get(phase).increment();
+        Timer running = runningTimer.get();
+        if (running != null) {
+            running.elapsedNanos -= nanos;
+        }
+    }
+
+    void metadataCall() {
+        metadataCalls.increment();
+    }
+
+    void rowRead() {
+        rowsRead.increment();
+    }
+
+    void tableRead() {
+        tables.increment();
+    }
+
+    void columnRead() {
+        columns.increment();
+    }
+
+    long getMetadataCalls() {
+        return metadataCalls.sum();
+    }
+
+    long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    long getPhaseNanos(Phase phase) {
+        return phaseNanos.get(phase).sum();
+    }
+
+    /**
+     * @param labels the fields identifying the import, such as the source and the port, written first
+     */
+    ObjectNode toReport(ObjectMapper objectMapper, Map<String, String> labels) {
+        ObjectNode report = objectMapper.createObjectNode();
+        labels.forEach(report::put);
+        report.put("startedAt", startedAt.toString());
+        report.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        ObjectNode phases = report.putObject("phases");
+        for (Phase phase : Phase.values()) {
+            phases.putObject(phase.reportName)
+                    .put("millis", TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase).sum()))
+                    .put("count", phaseCounts.get(phase).sum());
+        }
+        report.putObject("counters")
+                .put("metadataCalls", metadataCalls.sum())
+                .put("rowsRead", rowsRead.sum())
+                .put("tables", tables.sum())
+                .put("columns", columns.sum());
+        return report;
+    }
+
+    /**
+     * Writes the report to a JSON file, replacing it if it exists.
+     */
+    void writeReport(ObjectMapper objectMapper, Map<String, String> labels, Path reportFile) throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), toReport(objectMapper, labels));
+    }
+
+    /**
+     * Times a phase until closed. Must be closed on the thread that started it.
+     */
+    final class Timer implements AutoCloseable {
+        private final Phase phase;
+        private final Timer pausedTimer;
+        private long startNanos;
+        private long elapsedNanos;
+
+        private Timer(Phase phase, Timer pausedTimer) {
+            this.phase = phase;
+            this.pausedTimer = pausedTimer;
+            this.startNanos = System.nanoTime();
+            if (pausedTimer != null) {
+                pausedTimer.elapsedNanos += startNanos - pausedTimer.startNanos;
+            }
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            phaseNanos.get(phase).add(elapsedNanos + now - startNanos);
+            phaseCounts.get(phase).increment();
+            if (pausedTimer != null) {
+                pausedTimer.startNanos = now;
+                runningTimer.set(pausedTimer);
+            } else {
+                runningTimer.remove();
+            }
+        }
+    }
+}
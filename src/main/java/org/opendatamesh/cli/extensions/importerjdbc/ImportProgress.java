@@ -0,0 +1,51 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the progress of an import.
+ */
+public final class ImportProgress {
+
+    private final int discoveredTables;
+    private final int completedTables;
+    private final long columnsRead;
+    private final Duration elapsed;
+
+    ImportProgress(int discoveredTables, int completedTables, long columnsRead, Duration elapsed) {
+        this.discoveredTables = discoveredTables;
+        this.completedTables = completedTables;
+        this.columnsRead = columnsRead;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return the number of tables listed so far; with several schemas, the schemas not listed yet are not counted
+     */
+    public int getDiscoveredTables() {
+        return discoveredTables;
+    }
+
+    public int getCompletedTables() {
+        return completedTables;
+    }
+
+    public long getColumnsRead() {
+        return columnsRead;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return the time left to complete the discovered tables at the average pace of the completed ones,
+     * or null before the first table is completed
+     */
+    public Duration getEstimatedRemaining() {
+        if (completedTables == 0) {
+            return null;
+        }
+        return elapsed.multipliedBy(Math.max(0, discoveredTables - completedTables)).dividedBy(completedTables);
+    }
+}
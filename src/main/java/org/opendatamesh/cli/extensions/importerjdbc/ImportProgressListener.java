@@ -0,0 +1,42 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+/**
+ * Receives the progress of an import, in place of per-table and per-column log lines.
+ * <p>
+ * {@link #columnRead(String, String)} may be called concurrently by the workers reading the columns of several
+ * tables; {@link #tablesDiscovered(int)} and {@link #tableCompleted(String, ImportProgress)} are never called
+ * concurrently. Every method has an empty default, so that listeners only implement the events they need.
+ *
+ * @see ImporterJDBCExtension#setProgressListener(ImportProgressListener)
+ */
+public interface ImportProgressListener {
+
+    /**
+     * A listener ignoring every event.
+     */
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    /**
+     * Called once the tables of a schema have been listed; with several schemas, once per schema.
+     *
+     * @param tableCount the number of tables listed in the schema
+     */
+    default void tablesDiscovered(int tableCount) {
+    }
+
+    /**
+     * Called once all the metadata of a table has been read and the table has been added to the definition.
+     *
+     * @param tableName the name of the table, as it appears in the definition
+     * @param progress  the progress of the import, including this table
+     */
+    default void tableCompleted(String tableName, ImportProgress progress) {
+    }
+
+    /**
+     * Called for every column read from the database.
+     */
+    default void columnRead(String tableName, String columnName) {
+    }
+}
@@ -0,0 +1,49 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the tables and columns of an import and forwards them to its {@link ImportProgressListener}.
+ * <p>
+ * The schema workers of a multi-schema import discover their tables concurrently, while the tables are completed
+ * from the sink: the table events are forwarded under a lock, so that the listener sees them one at a time.
+ */
+class ImportProgressTracker {
+
+    private final ImportProgressListener listener;
+    private final AtomicInteger discoveredTables = new AtomicInteger();
+    private final AtomicInteger completedTables = new AtomicInteger();
+    private final LongAdder columnsRead = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private final Object tableEventLock = new Object();
+
+    ImportProgressTracker(ImportProgressListener listener) {
+        this.listener = listener;
+    }
+
+    void tablesDiscovered(int tableCount) {
+        discoveredTables.addAndGet(tableCount);
+        synchronized (tableEventLock) {
+            listener.tablesDiscovered(tableCount);
+        }
+    }
+
+    void columnRead(String tableName, String columnName) {
+        columnsRead.increment();
+        listener.columnRead(tableName, columnName);
+    }
+
+    void tableCompleted(DataStoreApiSchemaEntity table) {
+        int completed = completedTables.incrementAndGet();
+        // Replayed snapshots complete tables that were never listed
+        int discovered = discoveredTables.accumulateAndGet(completed, Math::max);
+        synchronized (tableEventLock) {
+            listener.tableCompleted(table.getDefinition().getName(),
+                    new ImportProgress(discovered, completed, columnsRead.sum(), Duration.ofNanos(System.nanoTime() - startNanos)));
+        }
+    }
+}
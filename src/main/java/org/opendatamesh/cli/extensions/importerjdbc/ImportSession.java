@@ -0,0 +1,661 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.*;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialect;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialects;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataQuery;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfiles;
+import org.opendatamesh.dpds.model.core.ComponentBase;
+import org.opendatamesh.dpds.model.core.StandardDefinition;
+import org.opendatamesh.dpds.model.interfaces.Port;
+import org.opendatamesh.dpds.model.interfaces.Promises;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.opendatamesh.cli.extensions.importerjdbc.DataStoreApiMerger.mergeDataStoreApi;
+
+/**
+ * Runs {@link JdbcImportRequest}s. A session holds no state of its own imports: it may run any number of them
+ * concurrently, from any thread, each import keeping its own metrics and progress.
+ * <p>
+ * By default each import opens its own connections. A session created with shared connections instead keeps one
+ * pool per endpoint and user, from which all the imports against that endpoint borrow, until the session is closed.
+ * The connections of a shared pool are not aborted when the metadata deadline of an import is overrun: the queries
+ * of that import are only cancelled.
+ */
+public class ImportSession implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final int sharedConnectionsPerEndpoint;
+    private final Map<String, JdbcConnectionPool> sharedPools = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a session in which each import opens its own connections.
+     */
+    public ImportSession() {
+        this(0);
+    }
+
+    /**
+     * @param sharedConnectionsPerEndpoint the size of the pool shared by the imports against the same endpoint and
+     *                                     user, or 0 for each import to open its own connections; the parallelism
+     *                                     of an import is capped by the size of the shared pool
+     */
+    public ImportSession(int sharedConnectionsPerEndpoint) {
+        this.sharedConnectionsPerEndpoint = sharedConnectionsPerEndpoint;
+    }
+
+    /**
+     * Imports the tables selected by the request into a port.
+     *
+     * @param request      the import to run
+     * @param existingPort the port to merge the imported tables into, which is updated and returned, or null
+     * @return the imported port
+     * @throws RuntimeException if the metadata cannot be read or the definition cannot be written
+     */
+    public Port importPort(JdbcImportRequest request, Port existingPort) {
+        return new ImportRun(request).importPort(existingPort);
+    }
+
+    /**
+     * Imports the tables selected by the request into several ports in a fan-out import: the schema is read once,
+     * then each table is routed to the ports whose route matches its name, and the ports are merged concurrently.
+     * The port name of the request is ignored; its other port fields apply to every port. The tables matching no
+     * route are not imported.
+     * <p>
+     * Fan-out imports do not support a definition file, a patch file nor an incremental import.
+     *
+     * @param request       the import to run
+     * @param routes        the routes of the target ports, with distinct port names
+     * @param existingPorts the ports to merge the routed tables into, by port name, which are updated and returned
+     * @return the imported ports by port name, in the order of the routes
+     * @throws RuntimeException if the metadata cannot be read or the request is not supported by a fan-out import
+     */
+    public Map<String, Port> importPorts(JdbcImportRequest request, List<PortRoute> routes, Map<String, Port> existingPorts) {
+        if (routes.isEmpty()) {
+            throw new RuntimeException("Missing port routes");
+        }
+        if (routes.stream().map(PortRoute::getPortName).distinct().count() < routes.size()) {
+            throw new RuntimeException("Duplicated port name in port routes " + routes);
+        }
+        if (request.getDefinitionFile() != null || request.getPatchFile() != null || request.isIncremental()) {
+            throw new RuntimeException("Definition files, patch files and incremental imports are not supported by a fan-out import");
+        }
+        return new ImportRun(request).importPorts(routes, existingPorts);
+    }
+
+    /**
+     * Closes the shared connections. Imports must not be running anymore.
+     */
+    @Override
+    public void close() {
+        for (JdbcConnectionPool sharedPool : sharedPools.values()) {
+            try {
+                sharedPool.close();
+            } catch (SQLException e) {
+                logger.warn("Error closing the shared connections: {}", e.getMessage());
+            }
+        }
+        sharedPools.clear();
+    }
+
+    int getSharedPoolCount() {
+        return sharedPools.size();
+    }
+
+    /**
+     * @return the pool shared by the imports against the endpoint of the request, or null without shared connections
+     */
+    private JdbcConnectionPool sharedPool(JdbcImportRequest request) {
+        if (sharedConnectionsPerEndpoint < 1) {
+            return null;
+        }
+        return sharedPools.computeIfAbsent(request.getEndpoint() + "\u0000" + request.getUser(), endpoint ->
+                new JdbcConnectionPool(request.getEndpoint(), request.getUser(), request.getPassword(), sharedConnectionsPerEndpoint));
+    }
+
+    /**
+     * @throws RuntimeException if two tables of the schema have the same name
+     */
+    static void validateUniqueTableNames(DataStoreApiSchemaResource dataStoreApiSchemaResource) {
+        List<String> tableNames = dataStoreApiSchemaResource.getTables().stream().map(table -> table.getDefinition().getName()).collect(Collectors.toList());
+
+        Set<String> uniqueNames = new HashSet<>();
+        for (String name : tableNames) {
+            if (!uniqueNames.add(name)) {
+                throw new RuntimeException("Duplicated table name found: please specify the correct catalog.");
+            }
+        }
+    }
+
+    /**
+     * Resolves the type mappings of the database, layering the overrides of the request, if any. A generic metadata
+     * import maps the types with the profile of the detected database as well, so that both paths import the same
+     * columns.
+     */
+    private static TypeMappingProfile typeMappings(JdbcImportRequest request) {
+        String dialectName = MetadataDialects.GENERIC.equalsIgnoreCase(request.getMetadataDialect()) ? MetadataDialects.AUTO : request.getMetadataDialect();
+        TypeMappingProfile typeMappings = MetadataDialects.resolve(dialectName, request.getPlatform(), request.getEndpoint())
+                .map(MetadataDialect::getTypeMappingProfile)
+                .orElse(TypeMappingProfiles.GENERIC);
+        return request.getTypeMappingFile() != null ? TypeMappingProfiles.withOverrides(typeMappings, request.getTypeMappingFile()) : typeMappings;
+    }
+
+    /**
+     * @return the trimmed elements of a comma separated list, or a list holding null when the value is null
+     */
+    private static List<String> parseList(String value) {
+        if (value == null) {
+            return Collections.singletonList(null);
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(element -> !element.isEmpty()).collect(Collectors.toList());
+    }
+
+    /**
+     * The state of a single import.
+     */
+    private final class ImportRun {
+
+        private final JdbcImportRequest request;
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final ImportMetrics metrics = new ImportMetrics();
+        private final ImportProgressTracker progress;
+        private final TypeMappingProfile typeMappings;
+
+        ImportRun(JdbcImportRequest request) {
+            this.request = request;
+            this.typeMappings = typeMappings(request);
+            this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+            this.progress = new ImportProgressTracker(request.getProgressListener() != null
+                    ? request.getProgressListener()
+                    : new ThrottledProgressReporter(request.getProgressInterval()));
+        }
+
+        Port importPort(Port targetObject) {
+            ComponentBase existingDefinition = existingDefinition(targetObject);
+            JsonNode existingDefinitionJsonNode = null;
+            if (request.getPatchFile() != null && existingDefinition != null) {
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TREE_CONVERSION)) {
+                    existingDefinitionJsonNode = objectMapper.valueToTree(existingDefinition);
+                }
+            }
+            ComponentBase importedDefinition = request.getDefinitionFile() == null
+                    ? importDefinition(newDefinition(), existingDefinition)
+                    : streamDefinition(newDefinition(), existingDefinition, request.getDefinitionFile());
+            if (request.getPatchFile() != null) {
+                writePatch(existingDefinitionJsonNode, importedDefinition, request.getPatchFile());
+            }
+            writeMetricsReport(request.getPortName());
+            return buildPort(targetObject, request.getPortName(), importedDefinition);
+        }
+
+        /**
+         * Reads the tables once, then merges the tables of each route into its port, one merge per thread.
+         */
+        Map<String, Port> importPorts(List<PortRoute> routes, Map<String, Port> existingPorts) {
+            SortedMap<Integer, DataStoreApiSchemaEntity> tables = new TreeMap<>();
+            boolean complete = readTables(null, tables::put);
+
+            Map<PortRoute, List<DataStoreApiSchemaEntity>> routedTables = new LinkedHashMap<>();
+            routes.forEach(route -> routedTables.put(route, new ArrayList<>()));
+            int unroutedTableCount = 0;
+            for (DataStoreApiSchemaEntity table : tables.values()) {
+                boolean routed = false;
+                for (PortRoute route : routes) {
+                    if (route.matches(table.getDefinition().getName())) {
+                        routedTables.get(route).add(table);
+                        routed = true;
+                    }
+                }
+                if (!routed) {
+                    unroutedTableCount++;
+                }
+            }
+            if (unroutedTableCount > 0) {
+                logger.info("Fan-out import: {} tables match no port route and are not imported", unroutedTableCount);
+            }
+
+            // The merges only read the imported tables, so the tables routed to several ports are shared
+            Map<String, Port> ports = new LinkedHashMap<>();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(routes.size(), Runtime.getRuntime().availableProcessors()));
+            try {
+                Map<String, Future<Port>> futures = new LinkedHashMap<>();
+                routedTables.forEach((route, portTables) -> futures.put(route.getPortName(), executor.submit(() -> {
+                    Port targetObject = existingPorts.get(route.getPortName());
+                    DataStoreApiDefinition existingApiDefinition = toApiDefinition(existingDefinition(targetObject));
+                    ComponentBase importedDefinition = mergeDefinition(newDefinition(), portTables, existingApiDefinition, complete);
+                    return buildPort(targetObject, route.getPortName(), importedDefinition);
+                })));
+                for (Map.Entry<String, Future<Port>> future : futures.entrySet()) {
+                    ports.put(future.getKey(), future.getValue().get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while merging the routed tables", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            writeMetricsReport(String.join(",", ports.keySet()));
+            return ports;
+        }
+
+        /**
+         * @return an empty definition of the imported schema, to which the tables are added
+         */
+        private DataStoreApiDefinition newDefinition() {
+            DataStoreApiDefinition dataStoreApiDefinition = new DataStoreApiDefinition();
+            dataStoreApiDefinition.setDatastoreapi("1.0.0");
+            DataStoreApiSchemaResource dataStoreApiSchemaResource = new DataStoreApiSchemaResource();
+            dataStoreApiSchemaResource.setDatabaseSchemaName(request.getSchemaName());
+            dataStoreApiDefinition.setSchema(dataStoreApiSchemaResource);
+            return dataStoreApiDefinition;
+        }
+
+        private ComponentBase existingDefinition(Port targetObject) {
+            return targetObject != null && targetObject.getPromises() != null && targetObject.getPromises().getApi() != null
+                    ? targetObject.getPromises().getApi().getDefinition()
+                    : null;
+        }
+
+        /**
+         * Sets the imported definition and the port fields of the request on the existing port, or on a new port.
+         */
+        private Port buildPort(Port targetObject, String portName, ComponentBase importedDefinition) {
+            Port port = targetObject != null ? targetObject : new Port();
+            port.setRef(String.format("ports/%s/%s.json", request.getPortKind(), portName));
+            port.setName(portName);
+            port.setVersion(request.getPortVersion());
+
+            Promises promises = port.getPromises() != null ? port.getPromises() : new Promises();
+            port.setPromises(promises);
+            promises.setPlatform(request.getPlatform());
+            promises.setServicesType("datastore-services");
+
+            StandardDefinition api = promises.getApi() != null ? promises.getApi() : new StandardDefinition();
+            promises.setApi(api);
+            api.setName(portName);
+            api.setVersion(request.getPortVersion());
+            api.setSpecification("datastoreapi");
+            api.setSpecificationVersion("1.0.0");
+
+            api.setDefinition(importedDefinition);
+            return port;
+        }
+
+        /**
+         * Reads the whole schema in memory, then merges it with the existing definition, if any.
+         */
+        private ComponentBase importDefinition(DataStoreApiDefinition dataStoreApiDefinition, ComponentBase existingDefinition) {
+            SortedMap<Integer, DataStoreApiSchemaEntity> tables = new TreeMap<>();
+            DataStoreApiDefinition existingApiDefinition = toApiDefinition(existingDefinition);
+            boolean complete = readTables(createWatermarks(existingApiDefinition), tables::put);
+            return mergeDefinition(dataStoreApiDefinition, tables.values(), existingApiDefinition, complete);
+        }
+
+        /**
+         * @return the existing definition as a DataStore API definition, or null when there is none
+         */
+        private DataStoreApiDefinition toApiDefinition(ComponentBase existingDefinition) {
+            if (existingDefinition == null || existingDefinition.getAdditionalProperties().isEmpty()) {
+                return null;
+            }
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TREE_CONVERSION)) {
+                return objectMapper.convertValue(existingDefinition, DataStoreApiDefinition.class);
+            }
+        }
+
+        /**
+         * Adds the imported tables to the definition and merges it with the existing definition, if any.
+         *
+         * @param complete false in a partial import, to keep the existing tables that were not read
+         */
+        private ComponentBase mergeDefinition(DataStoreApiDefinition dataStoreApiDefinition, Collection<DataStoreApiSchemaEntity> tables,
+                                              DataStoreApiDefinition existingApiDefinition, boolean complete) {
+            DataStoreApiSchemaResource dataStoreApiSchemaResource = (DataStoreApiSchemaResource) dataStoreApiDefinition.getSchema();
+            dataStoreApiSchemaResource.setTables(new ArrayList<>(tables));
+            if (!complete && existingApiDefinition != null) {
+                keepUnreadExistingTables(dataStoreApiSchemaResource, existingApiDefinition);
+            }
+
+            validateUniqueTableNames(dataStoreApiSchemaResource);
+            logger.info("Import completed. Found {} tables.", dataStoreApiSchemaResource.getTables().size());
+
+            // Merge on the model directly: the existing definition is converted once, the merged one once
+            DataStoreApiDefinition mergedApiDefinition;
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.MERGE)) {
+                mergedApiDefinition = existingApiDefinition != null ?
+                        mergeDataStoreApi(existingApiDefinition, dataStoreApiDefinition) :
+                        dataStoreApiDefinition;
+            }
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TREE_CONVERSION)) {
+                return objectMapper.convertValue(mergedApiDefinition, ComponentBase.class);
+            }
+        }
+
+        /**
+         * Writes each table to the definition file as soon as its columns are read, merging it with the existing
+         * definition if any, and returns a definition referencing the file.
+         */
+        private ComponentBase streamDefinition(DataStoreApiDefinition dataStoreApiDefinition, ComponentBase existingDefinition, Path definitionFile) {
+            try {
+                ObjectNode existingDefinitionJsonNode = null;
+                DataStoreApiDefinition existingApiDefinition = null;
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TREE_CONVERSION)) {
+                    if (existingDefinition != null && !existingDefinition.getAdditionalProperties().isEmpty()) {
+                        existingDefinitionJsonNode = objectMapper.valueToTree(existingDefinition);
+                        // The definition of a previous streaming import is a reference to the definition file
+                        if (!existingDefinitionJsonNode.has("schema") && Files.exists(definitionFile)) {
+                            existingDefinitionJsonNode = (ObjectNode) objectMapper.readTree(definitionFile.toFile());
+                        }
+                    }
+                    if (existingDefinitionJsonNode != null && request.isIncremental()) {
+                        existingApiDefinition = objectMapper.convertValue(existingDefinitionJsonNode, DataStoreApiDefinition.class);
+                    }
+                }
+                TableWatermarks watermarks = createWatermarks(existingApiDefinition);
+                try (StreamingDataStoreApiWriter writer = new StreamingDataStoreApiWriter(objectMapper, definitionFile, dataStoreApiDefinition, existingDefinitionJsonNode)) {
+                    boolean complete = readTables(watermarks, (position, table) -> {
+                        try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.MERGE)) {
+                            writer.writeTable(table);
+                        }
+                    });
+                    try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.MERGE)) {
+                        if (!complete) {
+                            logger.warn("Partial import: kept {} existing tables not read before the deadline", writer.writeUnwrittenExistingTables());
+                        }
+                        writer.commit();
+                    }
+                    logger.info("Import completed. Wrote {} tables to {}.", writer.getTableCount(), definitionFile);
+                }
+                return objectMapper.treeToValue(objectMapper.createObjectNode().put("$ref", definitionFile.toString()), ComponentBase.class);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing the DataStore API definition to " + definitionFile, e);
+            }
+        }
+
+        /**
+         * Reads the tables of the selected schemas: a single schema directly, several schemas through concurrent
+         * schema workers sharing the connection pool.
+         *
+         * @param watermarks the watermarks of the previous import in an incremental import, otherwise null
+         * @return false if the metadata deadline was reached and the tables read so far are returned as a partial import
+         */
+        private boolean readTables(TableWatermarks watermarks, JdbcMetadataReader.TableSink sink) {
+            List<String> catalogNames = parseList(request.getCatalogName());
+            List<String> schemaNames = parseList(request.getSchemaName());
+            String[] tableTypes = request.getTableTypes() != null ? request.getTableTypes().toArray(new String[0]) : null;
+
+            MetadataSnapshotCache snapshotCache = createSnapshotCache(watermarks);
+            int parallelism = request.getParallelism();
+            JdbcMetadataReader.TableSink progressSink = (position, table) -> {
+                sink.accept(position, table);
+                progress.tableCompleted(table);
+            };
+            // Connections are opened lazily: replaying snapshots does not connect to the database
+            JdbcConnectionPool sharedPool = sharedPool(request);
+            try (JdbcConnectionPool ownPool = sharedPool == null
+                    ? new JdbcConnectionPool(request.getEndpoint(), request.getUser(), request.getPassword(), parallelism, metrics)
+                    : null;
+                 MetadataQueryLimits limits = new MetadataQueryLimits(request.getMetadataFetchSize(), request.getMetadataQueryTimeout(),
+                         request.getMetadataDeadline(), ownPool);
+                 JdbcConnectionPool streamingProfilingPool = createStreamingProfilingPool();
+                 ColumnProfiler profiler = createColumnProfiler(streamingProfilingPool != null ? streamingProfilingPool
+                         : sharedPool != null ? sharedPool : ownPool)) {
+                JdbcConnectionPool connectionPool = sharedPool != null ? sharedPool : ownPool;
+                List<MetadataQuery> metadataQueries;
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TABLE_ENUMERATION)) {
+                    metadataQueries = SchemaWorkers.resolveQueries(connectionPool, catalogNames, schemaNames, request.getTablesPattern(), tableTypes, metrics);
+                }
+                JdbcMetadataReader.TableNameQualifier tableNameQualifier = SchemaWorkers.tableNameQualifier(metadataQueries);
+                if (metadataQueries.size() == 1) {
+                    readSchema(connectionPool, limits, parallelism, metadataQueries.get(0), tableNameQualifier, watermarks, snapshotCache,
+                            profilingSink(profiler, metadataQueries.get(0), tableNameQualifier, progressSink));
+                } else {
+                    // The connection budget is shared: each worker gets its slice of the parallelism for its per-table lookups
+                    int workers = Math.min(parallelism, metadataQueries.size());
+                    int schemaParallelism = Math.max(1, parallelism / workers);
+                    logger.info("Importing {} schemas with {} schema workers", metadataQueries.size(), workers);
+                    new SchemaWorkers(workers).readSchemas(metadataQueries, (metadataQuery, schemaSink) ->
+                            readSchema(connectionPool, limits, schemaParallelism, metadataQuery, tableNameQualifier,
+                                    watermarks, snapshotCache, profilingSink(profiler, metadataQuery, tableNameQualifier, schemaSink)), progressSink);
+                }
+                if (profiler != null) {
+                    profiler.awaitCompletion();
+                    logger.info("Column profiling: {} tables profiled, {} skipped by the budget or failed, {} enum columns detected",
+                            profiler.getProfiledTableCount(), profiler.getSkippedTableCount(), profiler.getEnumColumnCount());
+                }
+                if (watermarks != null) {
+                    logger.info("Incremental import: reused {} unchanged tables", watermarks.getReusedTableCount());
+                }
+                return !limits.isDeadlineReached();
+            } catch (SQLException e) {
+                if (request.getMetadataDeadline() != null && e instanceof SQLTimeoutException) {
+                    throw new RuntimeException("Error retrieving JDBC metadata: the deadline of " + request.getMetadataDeadline() + " has been reached", e);
+                }
+                throw new RuntimeException("Error retrieving JDBC metadata", e);
+            }
+        }
+
+        /**
+         * Reads the tables of a single schema, from its snapshot when the snapshot cache has a valid one.
+         * When the deadline is reached in a partial import, the tables read so far are kept and the snapshot is discarded.
+         */
+        private void readSchema(JdbcConnectionPool connectionPool, MetadataQueryLimits limits, int parallelism, MetadataQuery metadataQuery,
+                                JdbcMetadataReader.TableNameQualifier tableNameQualifier, TableWatermarks watermarks,
+                                MetadataSnapshotCache snapshotCache, JdbcMetadataReader.TableSink sink) throws SQLException {
+            String jdbcUrl = request.getEndpoint();
+            String snapshotKey = MetadataSnapshotCache.key(jdbcUrl, metadataQuery, typeMappings.getName(), request.isTableStatistics());
+            try {
+                if (snapshotCache != null && snapshotCache.replay(snapshotKey, sink)) {
+                    return;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading the metadata snapshot", e);
+            }
+
+            try (MetadataSnapshotCache.Writer snapshotWriter = snapshotCache != null ? snapshotCache.openWriter(snapshotKey) : null) {
+                MetadataDialect dialect = MetadataDialects.resolve(request.getMetadataDialect(), request.getPlatform(), jdbcUrl)
+                        .orElse(null);
+
+                logger.info("Loading metadata: catalog={}, schema={}, tables={}",
+                        metadataQuery.getCatalogName(), metadataQuery.getSchemaPattern(), metadataQuery.getTablePattern());
+                JdbcMetadataReader metadataReader = new JdbcMetadataReader(connectionPool, parallelism, dialect, watermarks, tableNameQualifier, limits, metrics, progress, typeMappings,
+                        request.isTableStatistics());
+                try {
+                    metadataReader.readTables(metadataQuery, request.getColumnFetchMode(), snapshotWriter == null ? sink : (position, table) -> {
+                        snapshotWriter.writeTable(position, table);
+                        sink.accept(position, table);
+                    });
+                } catch (SQLException e) {
+                    if (!request.isPartialOnDeadline() || !limits.isDeadlineReached()) {
+                        throw e;
+                    }
+                    logger.warn("The metadata deadline has been reached while reading {}: keeping the tables read so far", metadataQuery);
+                    return;
+                }
+                if (snapshotWriter != null) {
+                    snapshotWriter.commit();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing the metadata snapshot", e);
+            }
+        }
+
+        /**
+         * @param connectionPool the connections the tables are profiled on
+         * @return the column profiler, or null when profiling is disabled
+         */
+        private ColumnProfiler createColumnProfiler(JdbcConnectionPool connectionPool) {
+            if (!isProfiling()) {
+                return null;
+            }
+            MetadataDialect dialect = MetadataDialects.resolve(request.getMetadataDialect(), request.getPlatform(), request.getEndpoint())
+                    .orElse(null);
+            return new ColumnProfiler(connectionPool, dialect, request, metrics);
+        }
+
+        /**
+         * A streamed definition profiles each table on the thread reading it, which may still hold its connection:
+         * borrowing another one from the same pool could wait forever, so the profiling gets a connection of its own.
+         * Otherwise the tables are profiled in the background on the connections of the import.
+         *
+         * @return the connection of the streamed profiling, or null when the profiling borrows the import connections
+         */
+        private JdbcConnectionPool createStreamingProfilingPool() {
+            if (!isProfiling() || request.getDefinitionFile() == null) {
+                return null;
+            }
+            return new JdbcConnectionPool(request.getEndpoint(), request.getUser(), request.getPassword(), 1, metrics);
+        }
+
+        private boolean isProfiling() {
+            return request.isProfileColumns() || request.isDetectEnums();
+        }
+
+        /**
+         * Profiles each table read, replayed or reused before handing it to the sink. A streaming import writes the
+         * tables as they come, so they are profiled one at a time; otherwise they are profiled in the background,
+         * and the profiles are complete once the profiler has been awaited.
+         */
+        private JdbcMetadataReader.TableSink profilingSink(ColumnProfiler profiler, MetadataQuery metadataQuery,
+                                                           JdbcMetadataReader.TableNameQualifier tableNameQualifier,
+                                                           JdbcMetadataReader.TableSink sink) {
+            if (profiler == null) {
+                return sink;
+            }
+            return (position, table) -> {
+                if (request.getDefinitionFile() != null) {
+                    profiler.profile(metadataQuery, tableNameQualifier, table);
+                } else {
+                    profiler.submit(metadataQuery, tableNameQualifier, table);
+                }
+                sink.accept(position, table);
+            };
+        }
+
+        /**
+         * @return the snapshot cache, or null when it is disabled; incremental imports never use it,
+         * since detecting the changed tables requires reading the catalog
+         */
+        private MetadataSnapshotCache createSnapshotCache(TableWatermarks watermarks) {
+            if (request.getSnapshotCacheDir() == null) {
+                return null;
+            }
+            if (watermarks != null) {
+                logger.info("The metadata snapshot cache is not used by incremental imports");
+                return null;
+            }
+            return new MetadataSnapshotCache(request.getSnapshotCacheDir(), request.getSnapshotCacheTtl(), request.getSnapshotCacheMaxSizeMb() * 1024 * 1024);
+        }
+
+        /**
+         * Appends the existing tables that were not read to a partial import, so that the merge does not drop them.
+         */
+        private void keepUnreadExistingTables(DataStoreApiSchemaResource dataStoreApiSchemaResource, DataStoreApiDefinition existingApiDefinition) {
+            if (!(existingApiDefinition.getSchema() instanceof DataStoreApiSchemaResource)
+                    || ((DataStoreApiSchemaResource) existingApiDefinition.getSchema()).getTables() == null) {
+                return;
+            }
+            Set<String> readTableNames = dataStoreApiSchemaResource.getTables().stream()
+                    .map(table -> DataStoreApiMerger.normalizeName(table.getDefinition().getName()))
+                    .collect(Collectors.toSet());
+            int keptTableCount = 0;
+            for (DataStoreApiSchemaEntity existingTable : ((DataStoreApiSchemaResource) existingApiDefinition.getSchema()).getTables()) {
+                if (existingTable.getDefinition() != null && existingTable.getDefinition().getName() != null
+                        && readTableNames.add(DataStoreApiMerger.normalizeName(existingTable.getDefinition().getName()))) {
+                    dataStoreApiSchemaResource.getTables().add(existingTable);
+                    keptTableCount++;
+                }
+            }
+            logger.warn("Partial import: kept {} existing tables not read before the deadline", keptTableCount);
+        }
+
+        /**
+         * Writes the JSON Patch turning the existing definition into the imported one, an empty array when the import
+         * changed nothing, so that the definition does not need to be rewritten as a whole.
+         */
+        private void writePatch(JsonNode existingDefinitionJsonNode, ComponentBase importedDefinition, Path patchFile) {
+            JsonNode importedDefinitionJsonNode;
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TREE_CONVERSION)) {
+                importedDefinitionJsonNode = objectMapper.valueToTree(importedDefinition);
+            }
+            ArrayNode patch;
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.MERGE)) {
+                patch = DefinitionPatch.diff(existingDefinitionJsonNode, importedDefinitionJsonNode);
+            }
+            try {
+                Path parent = patchFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(patchFile.toFile(), patch);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing the definition patch to " + patchFile, e);
+            }
+            logger.info("Definition patch of {} operations written to {}", patch.size(), patchFile);
+        }
+
+        /**
+         * Logs a summary of the import metrics, and writes them as a JSON report when a metrics file is set.
+         *
+         * @param portName the name of the imported port, or the comma separated names of the ports of a fan-out import
+         */
+        private void writeMetricsReport(String portName) {
+            logger.info("Import metrics: {} metadata calls, {} rows read", metrics.getMetadataCalls(), metrics.getRowsRead());
+            Path metricsFile = request.getMetricsFile();
+            if (metricsFile == null) {
+                return;
+            }
+            Map<String, String> labels = new LinkedHashMap<>();
+            labels.put("source", request.getSourceName());
+            labels.put("port", portName);
+            labels.put("schemaName", request.getSchemaName());
+            try {
+                metrics.writeReport(objectMapper, labels, metricsFile);
+                logger.info("Import metrics written to {}", metricsFile);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing the import metrics to " + metricsFile, e);
+            }
+        }
+
+        /**
+         * @return the watermarks of the tables of the existing definition in an incremental import, otherwise null
+         */
+        private TableWatermarks createWatermarks(DataStoreApiDefinition existingApiDefinition) {
+            if (!request.isIncremental()) {
+                return null;
+            }
+            List<DataStoreApiSchemaEntity> previousTables = existingApiDefinition != null
+                    && existingApiDefinition.getSchema() instanceof DataStoreApiSchemaResource
+                    && ((DataStoreApiSchemaResource) existingApiDefinition.getSchema()).getTables() != null
+                    ? ((DataStoreApiSchemaResource) existingApiDefinition.getSchema()).getTables()
+                    : List.of();
+            return new TableWatermarks(previousTables, typeMappings.getName());
+        }
+    }
+}
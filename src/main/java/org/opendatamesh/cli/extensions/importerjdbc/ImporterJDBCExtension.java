@@ -1,29 +1,22 @@
 package org.opendatamesh.cli.extensions.importerjdbc;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.opendatamesh.cli.extensions.ExtensionInfo;
 import org.opendatamesh.cli.extensions.ExtensionOption;
 import org.opendatamesh.cli.extensions.OdmCliBaseConfiguration;
 import org.opendatamesh.cli.extensions.importer.ImporterArguments;
 import org.opendatamesh.cli.extensions.importer.ImporterExtension;
 import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.*;
-import org.opendatamesh.dpds.model.core.ComponentBase;
-import org.opendatamesh.dpds.model.core.StandardDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialects;
 import org.opendatamesh.dpds.model.interfaces.Port;
-import org.opendatamesh.dpds.model.interfaces.Promises;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.*;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static org.opendatamesh.cli.extensions.importerjdbc.DataStoreApiMerger.mergeDataStoreApi;
-
 public class ImporterJDBCExtension implements ImporterExtension<Port> {
 
     private static final String PARAM_TABLE_TYPES = "--tableTypes";
@@ -38,8 +31,44 @@ public class ImporterJDBCExtension implements ImporterExtension<Port> {
     private static final String PARAM_CATALOG_NAME = "--catalogName";
     private static final String PARAM_SCHEMA_NAME = "--schemaName";
     private static final String PARAM_TABLES_REGEX = "--tablesPattern";
+    private static final String PARAM_COLUMN_FETCH_MODE = "--columnFetchMode";
+    private static final String PARAM_PARALLELISM = "--parallelism";
+    private static final String PARAM_METADATA_DIALECT = "--metadataDialect";
+    private static final String PARAM_DEFINITION_FILE = "--definitionFile";
+    private static final String PARAM_INCREMENTAL = "--incremental";
+    private static final String PARAM_SNAPSHOT_CACHE_DIR = "--snapshotCacheDir";
+    private static final String PARAM_SNAPSHOT_CACHE_TTL = "--snapshotCacheTtl";
+    private static final String PARAM_SNAPSHOT_CACHE_MAX_SIZE = "--snapshotCacheMaxSizeMb";
+    private static final String PARAM_METADATA_FETCH_SIZE = "--metadataFetchSize";
+    private static final String PARAM_METADATA_QUERY_TIMEOUT = "--metadataQueryTimeout";
+    private static final String PARAM_METADATA_DEADLINE = "--metadataDeadline";
+    private static final String PARAM_ON_METADATA_DEADLINE = "--onMetadataDeadline";
+    private static final String PARAM_METRICS_FILE = "--metricsFile";
+    private static final String PARAM_PROGRESS_INTERVAL = "--progressInterval";
+    private static final String PARAM_TYPE_MAPPING_FILE = "--typeMappingFile";
+    private static final String PARAM_PROFILE_COLUMNS = "--profileColumns";
+    private static final String PARAM_PROFILE_SAMPLE_ROWS = "--profileSampleRows";
+    private static final String PARAM_PROFILE_ROW_BUDGET = "--profileRowBudget";
+    private static final String PARAM_PROFILE_TIME_BUDGET = "--profileTimeBudget";
+    private static final String PARAM_DETECT_ENUMS = "--detectEnums";
+    private static final String PARAM_ENUM_MAX_VALUES = "--enumMaxValues";
+    private static final String PARAM_ENUM_MAX_LENGTH = "--enumMaxLength";
+    private static final String PARAM_TABLE_STATISTICS = "--tableStatistics";
+    private static final String PARAM_PATCH_FILE = "--patchFile";
 
     private final Map<String, String> parameters = new HashMap<>();
+    private final ImportSession importSession = new ImportSession();
+    private ImportProgressListener progressListener;
+
+    /**
+     * Sets the listener notified of the progress of the next imports, instead of the default reporter logging
+     * a progress line every {@code --progressInterval}.
+     *
+     * @param progressListener the listener, or null to restore the default reporter
+     */
+    public void setProgressListener(ImportProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
 
     @Override
     public boolean supports(String from, String to) {
@@ -53,7 +82,23 @@ public class ImporterJDBCExtension implements ImporterExtension<Port> {
 
     @Override
     public Port importElement(Port targetObject, ImporterArguments importerArguments) {
+        return importSession.importPort(toImportRequest(importerArguments), targetObject);
+    }
 
+    /**
+     * Runs an import built by the caller rather than from the extension options. Unlike {@link #importElement},
+     * it may be called concurrently from several threads on the same extension instance.
+     *
+     * @param targetObject the port to merge the imported tables into, or null
+     */
+    public Port importPort(JdbcImportRequest request, Port targetObject) {
+        return importSession.importPort(request, targetObject);
+    }
+
+    /**
+     * Builds the import request from the current values of the extension options.
+     */
+    private JdbcImportRequest toImportRequest(ImporterArguments importerArguments) {
         validateRequiredParameters();
 
         // Retrieve connection configuration
@@ -66,109 +111,57 @@ public class ImporterJDBCExtension implements ImporterExtension<Port> {
                         String.format("Connection %s not found in ODM config", parameters.get(PARAM_CONNECTION_NAME))
                 ));
 
-        String jdbcUrl = connection.getEndpoint();
-        String jdbcUser = connection.getUser();
-        String jdbcPassword = connection.getPassword();
-
-        // Data structure to hold schema metadata
-        DataStoreApiDefinition dataStoreApiDefinition = new DataStoreApiDefinition();
-        dataStoreApiDefinition.setDatastoreapi("1.0.0");
-        DataStoreApiSchemaResource dataStoreApiSchemaResource = new DataStoreApiSchemaResource();
-        dataStoreApiSchemaResource.setTables(new ArrayList<>());
-        dataStoreApiSchemaResource.setDatabaseSchemaName(parameters.get(PARAM_SCHEMA_NAME));
-        dataStoreApiDefinition.setSchema(dataStoreApiSchemaResource);
-
-        // Retrieve metadata from JDBC
-        logger.info("Opening connection to {}", jdbcUrl);
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword)) {
-            DatabaseMetaData metaData = conn.getMetaData();
-            String catalogName = parameters.get(PARAM_CATALOG_NAME);
-            String schemaName = parameters.get(PARAM_SCHEMA_NAME);
-            String tablePattern = parameters.get(PARAM_TABLES_REGEX);
-            String[] tableTypes = parameters.get(PARAM_TABLE_TYPES) != null ? parameters.get(PARAM_TABLE_TYPES).split(",") : null;
-
-            logger.info("Loading metadata: catalog={}, schema={}, tables={}", catalogName, schemaName, tablePattern);
-            try (ResultSet tables = metaData.getTables(catalogName, schemaName, tablePattern, tableTypes)) {
-                while (tables.next()) {
-                    String tableName = tables.getString("TABLE_NAME");
-                    String tableSchema = tables.getString("TABLE_SCHEM");
-                    String tableCatalog = tables.getString("TABLE_CAT");
-
-                    DataStoreApiSchemaEntity entity = new DataStoreApiSchemaEntity();
-                    entity.setSpecification("json-schema");
-                    entity.setSpecificationVersion("1");
-                    DataStoreAPISchemaEntityDefinition entityJsonSchema = new DataStoreAPISchemaEntityDefinition();
-                    entity.setDefinition(entityJsonSchema);
-
-                    entityJsonSchema.setTitle(tableName);
-                    entityJsonSchema.setDescription(tables.getString("REMARKS"));
-                    entityJsonSchema.setName(tableName);
-                    entityJsonSchema.setProperties(new HashMap<>());
-
-                    dataStoreApiSchemaResource.getTables().add(entity);
-
-                    logger.info("Table: {} - {}.{}", tableCatalog, tableSchema, tableName);
-
-                    try (ResultSet columns = metaData.getColumns(tableCatalog, tableSchema, tableName, null)) {
-                        while (columns.next()) {
-                            DataStoreApiSchemaColumn columnMetadata = new DataStoreApiSchemaColumn();
-                            columnMetadata.setName(columns.getString("COLUMN_NAME"));
-                            columnMetadata.setType(SQLToJsonSchemaMapper.mapSqlTypeToJsonSchema(columns.getInt("DATA_TYPE")));
-                            columnMetadata.setPhysicalType(columns.getString("TYPE_NAME"));
-                            columnMetadata.setDescription(columns.getString("REMARKS"));
-                            String isNullableISOString = columns.getString("IS_NULLABLE");
-                            Boolean isNullable = "YES".equalsIgnoreCase(isNullableISOString) ? Boolean.TRUE
-                                    : "NO".equalsIgnoreCase(isNullableISOString) ? Boolean.FALSE
-                                    : null;
-                            columnMetadata.setNullable(isNullable);
-                            columnMetadata.setOrdinalPosition(columns.getString("ORDINAL_POSITION"));
-                            entityJsonSchema.getProperties().put(columnMetadata.getName(), columnMetadata);
-                            logger.info("--> Column: {}", columnMetadata.getName());
-                        }
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error retrieving JDBC metadata", e);
-        }
+        return new JdbcImportRequest.Builder()
+                .connection(connection)
+                .portName(importerArguments.getParentCommandOptions().get("target"))
+                .portKind(importerArguments.getParentCommandOptions().get("to"))
+                .portVersion(parameters.get(PARAM_PORT_VERSION))
+                .platform(parameters.get(PARAM_PLATFORM))
+                .catalogName(parameters.get(PARAM_CATALOG_NAME))
+                .schemaName(parameters.get(PARAM_SCHEMA_NAME))
+                .tablesPattern(parameters.get(PARAM_TABLES_REGEX))
+                .tableTypes(parameters.get(PARAM_TABLE_TYPES) != null ? Arrays.asList(parameters.get(PARAM_TABLE_TYPES).split(",")) : null)
+                .columnFetchMode(parameters.get(PARAM_COLUMN_FETCH_MODE))
+                .parallelism(parsePositiveInteger(PARAM_PARALLELISM, parameters.get(PARAM_PARALLELISM), 1))
+                .metadataDialect(parameters.get(PARAM_METADATA_DIALECT))
+                .definitionFile(parameters.get(PARAM_DEFINITION_FILE) != null ? Paths.get(parameters.get(PARAM_DEFINITION_FILE)) : null)
+                .incremental(Boolean.parseBoolean(parameters.get(PARAM_INCREMENTAL)))
+                .snapshotCacheDir(parameters.get(PARAM_SNAPSHOT_CACHE_DIR) != null ? Paths.get(parameters.get(PARAM_SNAPSHOT_CACHE_DIR)) : null)
+                .snapshotCacheTtl(parseDuration(PARAM_SNAPSHOT_CACHE_TTL, parameters.get(PARAM_SNAPSHOT_CACHE_TTL), Duration.ofHours(1)))
+                .snapshotCacheMaxSizeMb(parsePositiveInteger(PARAM_SNAPSHOT_CACHE_MAX_SIZE, parameters.get(PARAM_SNAPSHOT_CACHE_MAX_SIZE), 1024))
+                .metadataFetchSize(parameters.get(PARAM_METADATA_FETCH_SIZE) != null
+                        ? parsePositiveInteger(PARAM_METADATA_FETCH_SIZE, parameters.get(PARAM_METADATA_FETCH_SIZE), 0)
+                        : null)
+                .metadataQueryTimeout(parseDuration(PARAM_METADATA_QUERY_TIMEOUT, parameters.get(PARAM_METADATA_QUERY_TIMEOUT), null))
+                .metadataDeadline(parseDuration(PARAM_METADATA_DEADLINE, parameters.get(PARAM_METADATA_DEADLINE), null))
+                .partialOnDeadline(isPartialOnDeadline())
+                .metricsFile(parameters.get(PARAM_METRICS_FILE) != null ? Paths.get(parameters.get(PARAM_METRICS_FILE)) : null)
+                .progressInterval(parseDuration(PARAM_PROGRESS_INTERVAL, parameters.get(PARAM_PROGRESS_INTERVAL), Duration.ofSeconds(10)))
+                .progressListener(progressListener)
+                .typeMappingFile(parameters.get(PARAM_TYPE_MAPPING_FILE) != null ? Paths.get(parameters.get(PARAM_TYPE_MAPPING_FILE)) : null)
+                .profileColumns(Boolean.parseBoolean(parameters.get(PARAM_PROFILE_COLUMNS)))
+                .profileSampleRows(parsePositiveInteger(PARAM_PROFILE_SAMPLE_ROWS, parameters.get(PARAM_PROFILE_SAMPLE_ROWS), 10_000))
+                .profileRowBudget(parsePositiveInteger(PARAM_PROFILE_ROW_BUDGET, parameters.get(PARAM_PROFILE_ROW_BUDGET), 1_000_000))
+                .profileTimeBudget(parseDuration(PARAM_PROFILE_TIME_BUDGET, parameters.get(PARAM_PROFILE_TIME_BUDGET), Duration.ofMinutes(5)))
+                .detectEnums(Boolean.parseBoolean(parameters.get(PARAM_DETECT_ENUMS)))
+                .enumMaxValues(parsePositiveInteger(PARAM_ENUM_MAX_VALUES, parameters.get(PARAM_ENUM_MAX_VALUES), 10))
+                .enumMaxLength(parsePositiveInteger(PARAM_ENUM_MAX_LENGTH, parameters.get(PARAM_ENUM_MAX_LENGTH), 32))
+                .tableStatistics(Boolean.parseBoolean(parameters.get(PARAM_TABLE_STATISTICS)))
+                .patchFile(parameters.get(PARAM_PATCH_FILE) != null ? Paths.get(parameters.get(PARAM_PATCH_FILE)) : null)
+                .build();
+    }
 
-        validateUniqueTableNames(dataStoreApiSchemaResource);
-        logger.info("Import completed. Found {} tables.", dataStoreApiSchemaResource.getTables().size());
-
-        Port port = targetObject != null ? targetObject : new Port();
-        String portName = importerArguments.getParentCommandOptions().get("target");
-        port.setRef(String.format("ports/%s/%s.json", importerArguments.getParentCommandOptions().get("to"), portName));
-        port.setName(portName);
-        port.setVersion(parameters.get(PARAM_PORT_VERSION));
-
-        Promises promises = port.getPromises() != null ? port.getPromises() : new Promises();
-        port.setPromises(promises);
-        promises.setPlatform(parameters.get(PARAM_PLATFORM));
-        promises.setServicesType("datastore-services");
-
-        StandardDefinition api = promises.getApi() != null ? promises.getApi() : new StandardDefinition();
-        promises.setApi(api);
-        api.setName(portName);
-        api.setVersion(parameters.get(PARAM_PORT_VERSION));
-        api.setSpecification("datastoreapi");
-        api.setSpecificationVersion("1.0.0");
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        ObjectNode newDataStoreApiDefinitionJsonNode = objectMapper.valueToTree(dataStoreApiDefinition);
-
-        JsonNode mergedApiDefinition = api.getDefinition() != null && !api.getDefinition().getAdditionalProperties().isEmpty() ?
-                mergeDataStoreApi(objectMapper.valueToTree(api.getDefinition()), newDataStoreApiDefinitionJsonNode) :
-                newDataStoreApiDefinitionJsonNode;
-        try {
-            api.setDefinition(objectMapper.treeToValue(mergedApiDefinition, ComponentBase.class));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+    private boolean isPartialOnDeadline() {
+        String onDeadline = parameters.get(PARAM_ON_METADATA_DEADLINE);
+        if (onDeadline == null || onDeadline.equalsIgnoreCase("fail")) {
+            return false;
+        }
+        if (onDeadline.equalsIgnoreCase("partial")) {
+            return true;
         }
-        return port;
+        throw new RuntimeException("Unsupported value for " + PARAM_ON_METADATA_DEADLINE + ": " + onDeadline + ". Allowed values are: fail, partial");
     }
 
-
     private void validateRequiredParameters() {
         List<String> requiredParams = getExtensionOptions().stream().filter(ExtensionOption::isRequired).map(ExtensionOption::getNames).flatMap(Collection::stream).collect(Collectors.toList());
 
@@ -179,26 +172,69 @@ public class ImporterJDBCExtension implements ImporterExtension<Port> {
         }
     }
 
-    public void validateUniqueTableNames(DataStoreApiSchemaResource dataStoreApiSchemaResource) {
-        List<String> tableNames = dataStoreApiSchemaResource.getTables().stream().map(table -> table.getDefinition().getName()).collect(Collectors.toList());
+    private Duration parseDuration(String name, String value, Duration defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Duration.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid parameter " + name + ": expected an ISO-8601 duration such as PT1H, found " + value);
+        }
+    }
 
-        Set<String> uniqueNames = new HashSet<>();
-        for (String name : tableNames) {
-            if (!uniqueNames.add(name)) {
-                throw new RuntimeException("Duplicated table name found: please specify the correct catalog.");
+    private int parsePositiveInteger(String name, String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number < 1) {
+                throw new NumberFormatException();
             }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid parameter " + name + ": expected a positive integer, found " + value);
         }
     }
 
+    public void validateUniqueTableNames(DataStoreApiSchemaResource dataStoreApiSchemaResource) {
+        ImportSession.validateUniqueTableNames(dataStoreApiSchemaResource);
+    }
+
     @Override
     public List<ExtensionOption> getExtensionOptions() {
         return List.of(
                 createRequiredOption(PARAM_PORT_VERSION, "The version of the port"),
                 createRequiredOption(PARAM_PLATFORM, "The name of the platform"),
-                createOptionWithDefault(PARAM_CATALOG_NAME, "The catalog regex to fetch JDBC metadata", null),
-                createRequiredOption(PARAM_SCHEMA_NAME, "The schema name to fetch JDBC metadata"),
+                createOptionWithDefault(PARAM_CATALOG_NAME, "The catalog, or a comma separated list of catalogs or patterns, to fetch JDBC metadata", null),
+                createRequiredOption(PARAM_SCHEMA_NAME, "The schema name, or a comma separated list of schema names or patterns, to fetch JDBC metadata"),
                 createOptionWithDefault(PARAM_TABLES_REGEX, "The tables pattern to fetch JDBC metadata", "%"),
-                createOptionWithDefault(PARAM_TABLE_TYPES, "The table type list to fetch JDBC metadata", "TABLE,VIEW")
+                createOptionWithDefault(PARAM_TABLE_TYPES, "The table type list to fetch JDBC metadata", "TABLE,VIEW"),
+                createOptionWithDefault(PARAM_COLUMN_FETCH_MODE, "How columns are fetched: 'per-table' (one call per table) or 'bulk' (one call per schema)", "per-table"),
+                createOptionWithDefault(PARAM_PARALLELISM, "The number of pooled connections used to read per-table metadata concurrently", "1"),
+                createOptionWithDefault(PARAM_METADATA_DIALECT, "The metadata dialect: 'auto' (detected from the platform or JDBC URL), 'generic' (DatabaseMetaData only) or a database type such as 'h2' or 'postgresql'", MetadataDialects.AUTO),
+                createOptionWithDefault(PARAM_DEFINITION_FILE, "When set, the DataStore API definition is streamed table by table to this file and referenced from the port", null),
+                createOptionWithDefault(PARAM_INCREMENTAL, "When true, the tables unchanged since the previous import are reused from the existing port instead of being read again", "false"),
+                createOptionWithDefault(PARAM_SNAPSHOT_CACHE_DIR, "When set, the tables read from the database are cached in this directory and reused by the next imports of the same schema", null),
+                createOptionWithDefault(PARAM_SNAPSHOT_CACHE_TTL, "How long a metadata snapshot stays valid, as an ISO-8601 duration", "PT1H"),
+                createOptionWithDefault(PARAM_SNAPSHOT_CACHE_MAX_SIZE, "The maximum size of the snapshot cache directory in megabytes, beyond which the oldest snapshots are evicted", "1024"),
+                createOptionWithDefault(PARAM_METADATA_FETCH_SIZE, "The number of rows fetched per round-trip by the metadata queries, instead of the driver default", null),
+                createOptionWithDefault(PARAM_METADATA_QUERY_TIMEOUT, "The maximum duration of each metadata query, as an ISO-8601 duration", null),
+                createOptionWithDefault(PARAM_METADATA_DEADLINE, "The maximum duration of the whole metadata read, as an ISO-8601 duration, after which the running queries are cancelled", null),
+                createOptionWithDefault(PARAM_ON_METADATA_DEADLINE, "What happens when the metadata deadline is reached: 'fail' or 'partial' (keep the tables read so far, and the existing ones not read)", "fail"),
+                createOptionWithDefault(PARAM_PROGRESS_INTERVAL, "The minimum time between two progress lines, as an ISO-8601 duration; tables and columns are only logged at DEBUG level", "PT10S"),
+                createOptionWithDefault(PARAM_METRICS_FILE, "When set, a JSON report of the time spent in each import phase, the metadata calls and the rows read is written to this file", null),
+                createOptionWithDefault(PARAM_TYPE_MAPPING_FILE, "A JSON file of type mappings overriding those of the database, by type name or JDBC type", null),
+                createOptionWithDefault(PARAM_PROFILE_COLUMNS, "When true, the minimum, maximum, lengths and examples of the columns are computed from a sample of the rows of each table", "false"),
+                createOptionWithDefault(PARAM_PROFILE_SAMPLE_ROWS, "The maximum number of rows sampled from each profiled table", "10000"),
+                createOptionWithDefault(PARAM_PROFILE_ROW_BUDGET, "The maximum number of rows sampled from all the profiled tables", "1000000"),
+                createOptionWithDefault(PARAM_PROFILE_TIME_BUDGET, "The maximum duration of the column profiling, as an ISO-8601 duration, after which the remaining tables are not profiled", "PT5M"),
+                createOptionWithDefault(PARAM_DETECT_ENUMS, "When true, the enum values of the short character columns holding a small domain of values are read with bounded distinct queries", "false"),
+                createOptionWithDefault(PARAM_ENUM_MAX_VALUES, "The maximum number of distinct values of a column detected as an enum", "10"),
+                createOptionWithDefault(PARAM_ENUM_MAX_LENGTH, "The maximum declared length of the character columns probed for enum values", "32"),
+                createOptionWithDefault(PARAM_TABLE_STATISTICS, "When true, the row count and size of the tables are read from the catalog statistics of the database, without scanning them", "false"),
+                createOptionWithDefault(PARAM_PATCH_FILE, "When set, the JSON Patch (RFC 6902) turning the existing definition into the imported one is written to this file", null)
         );
     }
 
@@ -0,0 +1,160 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal bounded pool of JDBC connections opened lazily through {@link DriverManager}.
+ * At most {@code maxSize} connections are opened; callers wait when all of them are in use.
+ * <p>
+ * Connections are opened in auto-commit mode, and given back in it: a borrower that left it, e.g. to fetch rows in
+ * batches, has its transaction rolled back on release, so that no lock and no aborted transaction outlive it.
+ */
+class JdbcConnectionPool implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final int maxSize;
+    private final ImportMetrics metrics;
+
+    private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+    private final List<Connection> openedConnections = new ArrayList<>();
+    private volatile boolean aborted;
+
+    JdbcConnectionPool(String jdbcUrl, String jdbcUser, String jdbcPassword, int maxSize) {
+        this(jdbcUrl, jdbcUser, jdbcPassword, maxSize, new ImportMetrics());
+    }
+
+    /**
+     * @param metrics the metrics recording the time spent opening connections
+     */
+    JdbcConnectionPool(String jdbcUrl, String jdbcUser, String jdbcPassword, int maxSize, ImportMetrics metrics) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The connection pool size must be at least 1");
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUser = jdbcUser;
+        this.jdbcPassword = jdbcPassword;
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns an idle connection, opening a new one if the pool has not reached its maximum size,
+     * otherwise waits until another caller releases one.
+     */
+    Connection borrow() throws SQLException {
+        while (true) {
+            if (aborted) {
+                throw new SQLException("The JDBC connections to " + jdbcUrl + " have been aborted");
+            }
+            Connection connection = idleConnections.poll();
+            if (connection != null) {
+                return connection;
+            }
+            synchronized (openedConnections) {
+                if (openedConnections.size() < maxSize) {
+                    logger.info("Opening connection {} of {} to {}", openedConnections.size() + 1, maxSize, jdbcUrl);
+                    try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.CONNECT)) {
+                        connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+                    }
+                    openedConnections.add(connection);
+                    return connection;
+                }
+            }
+            try {
+                // Polled rather than taken: a connection discarded on release frees a slot without being offered
+                connection = idleConnections.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a JDBC connection", e);
+            }
+            if (connection != null) {
+                return connection;
+            }
+        }
+    }
+
+    /**
+     * Gives a connection back, ending the transaction its borrower left open. A connection that cannot be reset is
+     * closed instead, and a new one is opened in its place when needed.
+     */
+    void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("Discarding a connection to {} that could not be reset: {}", jdbcUrl, e.getMessage());
+            synchronized (openedConnections) {
+                openedConnections.remove(connection);
+            }
+            try {
+                connection.close();
+            } catch (SQLException closeException) {
+                logger.debug("Unable to close a connection to {}: {}", jdbcUrl, closeException.getMessage());
+            }
+            return;
+        }
+        idleConnections.offer(connection);
+    }
+
+    /**
+     * Aborts every opened connection, interrupting the calls running on them. The pool cannot be used afterwards.
+     */
+    void abort() {
+        aborted = true;
+        synchronized (openedConnections) {
+            for (Connection connection : openedConnections) {
+                try {
+                    connection.abort(Runnable::run);
+                } catch (SQLException e) {
+                    logger.debug("Unable to abort a connection to {}: {}", jdbcUrl, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        SQLException closeException = null;
+        synchronized (openedConnections) {
+            for (Connection connection : openedConnections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    if (closeException == null) {
+                        closeException = e;
+                    } else {
+                        closeException.addSuppressed(e);
+                    }
+                }
+            }
+            openedConnections.clear();
+            idleConnections.clear();
+        }
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+}
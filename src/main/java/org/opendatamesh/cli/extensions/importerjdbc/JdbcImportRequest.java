@@ -0,0 +1,577 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.OdmCliBaseConfiguration;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialects;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The immutable description of a single import: the source database, the target port and the import options.
+ * <p>
+ * Requests are built with {@link Builder} and run by an {@link ImportSession}. The options and their defaults
+ * are those of the extension command arguments.
+ */
+public final class JdbcImportRequest {
+
+    private final String sourceName;
+    private final String endpoint;
+    private final String user;
+    private final String password;
+    private final String portName;
+    private final String portKind;
+    private final String portVersion;
+    private final String platform;
+    private final String catalogName;
+    private final String schemaName;
+    private final String tablesPattern;
+    private final List<String> tableTypes;
+    private final JdbcMetadataReader.ColumnFetchMode columnFetchMode;
+    private final int parallelism;
+    private final String metadataDialect;
+    private final Path definitionFile;
+    private final boolean incremental;
+    private final Path snapshotCacheDir;
+    private final Duration snapshotCacheTtl;
+    private final long snapshotCacheMaxSizeMb;
+    private final Integer metadataFetchSize;
+    private final Duration metadataQueryTimeout;
+    private final Duration metadataDeadline;
+    private final boolean partialOnDeadline;
+    private final Path metricsFile;
+    private final Duration progressInterval;
+    private final ImportProgressListener progressListener;
+    private final Path typeMappingFile;
+    private final boolean profileColumns;
+    private final int profileSampleRows;
+    private final long profileRowBudget;
+    private final Duration profileTimeBudget;
+    private final boolean detectEnums;
+    private final int enumMaxValues;
+    private final int enumMaxLength;
+    private final boolean tableStatistics;
+    private final Path patchFile;
+
+    private JdbcImportRequest(Builder builder) {
+        this.sourceName = builder.sourceName;
+        this.endpoint = builder.endpoint;
+        this.user = builder.user;
+        this.password = builder.password;
+        this.portName = builder.portName;
+        this.portKind = builder.portKind;
+        this.portVersion = builder.portVersion;
+        this.platform = builder.platform;
+        this.catalogName = builder.catalogName;
+        this.schemaName = builder.schemaName;
+        this.tablesPattern = builder.tablesPattern;
+        this.tableTypes = builder.tableTypes != null ? List.copyOf(builder.tableTypes) : null;
+        this.columnFetchMode = JdbcMetadataReader.ColumnFetchMode.fromParameter(builder.columnFetchMode);
+        this.parallelism = builder.parallelism;
+        this.metadataDialect = builder.metadataDialect;
+        this.definitionFile = builder.definitionFile;
+        this.incremental = builder.incremental;
+        this.snapshotCacheDir = builder.snapshotCacheDir;
+        this.snapshotCacheTtl = builder.snapshotCacheTtl;
+        this.snapshotCacheMaxSizeMb = builder.snapshotCacheMaxSizeMb;
+        this.metadataFetchSize = builder.metadataFetchSize;
+        this.metadataQueryTimeout = builder.metadataQueryTimeout;
+        this.metadataDeadline = builder.metadataDeadline;
+        this.partialOnDeadline = builder.partialOnDeadline;
+        this.metricsFile = builder.metricsFile;
+        this.progressInterval = builder.progressInterval;
+        this.progressListener = builder.progressListener;
+        this.typeMappingFile = builder.typeMappingFile;
+        this.profileColumns = builder.profileColumns;
+        this.profileSampleRows = builder.profileSampleRows;
+        this.profileRowBudget = builder.profileRowBudget;
+        this.profileTimeBudget = builder.profileTimeBudget;
+        this.detectEnums = builder.detectEnums;
+        this.enumMaxValues = builder.enumMaxValues;
+        this.enumMaxLength = builder.enumMaxLength;
+        this.tableStatistics = builder.tableStatistics;
+        this.patchFile = builder.patchFile;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getPortName() {
+        return portName;
+    }
+
+    public String getPortKind() {
+        return portKind;
+    }
+
+    public String getPortVersion() {
+        return portVersion;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTablesPattern() {
+        return tablesPattern;
+    }
+
+    public List<String> getTableTypes() {
+        return tableTypes;
+    }
+
+    JdbcMetadataReader.ColumnFetchMode getColumnFetchMode() {
+        return columnFetchMode;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public String getMetadataDialect() {
+        return metadataDialect;
+    }
+
+    public Path getDefinitionFile() {
+        return definitionFile;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public Path getSnapshotCacheDir() {
+        return snapshotCacheDir;
+    }
+
+    public Duration getSnapshotCacheTtl() {
+        return snapshotCacheTtl;
+    }
+
+    public long getSnapshotCacheMaxSizeMb() {
+        return snapshotCacheMaxSizeMb;
+    }
+
+    public Integer getMetadataFetchSize() {
+        return metadataFetchSize;
+    }
+
+    public Duration getMetadataQueryTimeout() {
+        return metadataQueryTimeout;
+    }
+
+    public Duration getMetadataDeadline() {
+        return metadataDeadline;
+    }
+
+    public boolean isPartialOnDeadline() {
+        return partialOnDeadline;
+    }
+
+    public Path getMetricsFile() {
+        return metricsFile;
+    }
+
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    public ImportProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public Path getTypeMappingFile() {
+        return typeMappingFile;
+    }
+
+    public boolean isProfileColumns() {
+        return profileColumns;
+    }
+
+    public int getProfileSampleRows() {
+        return profileSampleRows;
+    }
+
+    public long getProfileRowBudget() {
+        return profileRowBudget;
+    }
+
+    public Duration getProfileTimeBudget() {
+        return profileTimeBudget;
+    }
+
+    public boolean isDetectEnums() {
+        return detectEnums;
+    }
+
+    public int getEnumMaxValues() {
+        return enumMaxValues;
+    }
+
+    public int getEnumMaxLength() {
+        return enumMaxLength;
+    }
+
+    public boolean isTableStatistics() {
+        return tableStatistics;
+    }
+
+    public Path getPatchFile() {
+        return patchFile;
+    }
+
+    /**
+     * Builds a {@link JdbcImportRequest}. The endpoint, the schema name and the port name are required.
+     */
+    public static class Builder {
+        private String sourceName;
+        private String endpoint;
+        private String user;
+        private String password;
+        private String portName;
+        private String portKind = "output-port";
+        private String portVersion;
+        private String platform;
+        private String catalogName;
+        private String schemaName;
+        private String tablesPattern = "%";
+        private List<String> tableTypes = List.of("TABLE", "VIEW");
+        private String columnFetchMode;
+        private int parallelism = 1;
+        private String metadataDialect = MetadataDialects.AUTO;
+        private Path definitionFile;
+        private boolean incremental;
+        private Path snapshotCacheDir;
+        private Duration snapshotCacheTtl = Duration.ofHours(1);
+        private long snapshotCacheMaxSizeMb = 1024;
+        private Integer metadataFetchSize;
+        private Duration metadataQueryTimeout;
+        private Duration metadataDeadline;
+        private boolean partialOnDeadline;
+        private Path metricsFile;
+        private Duration progressInterval = Duration.ofSeconds(10);
+        private ImportProgressListener progressListener;
+        private Path typeMappingFile;
+        private boolean profileColumns;
+        private int profileSampleRows = 10_000;
+        private long profileRowBudget = 1_000_000;
+        private Duration profileTimeBudget = Duration.ofMinutes(5);
+        private boolean detectEnums;
+        private int enumMaxValues = 10;
+        private int enumMaxLength = 32;
+        private boolean tableStatistics;
+        private Path patchFile;
+
+        /**
+         * Sets the source name, endpoint, user and password of a system of the ODM CLI configuration.
+         */
+        public Builder connection(OdmCliBaseConfiguration.SystemConfig connection) {
+            this.sourceName = connection.getName();
+            this.endpoint = connection.getEndpoint();
+            this.user = connection.getUser();
+            this.password = connection.getPassword();
+            return this;
+        }
+
+        public Builder sourceName(String sourceName) {
+            this.sourceName = sourceName;
+            return this;
+        }
+
+        public Builder endpoint(String endpoint) {
+            this.endpoint = endpoint;
+            return this;
+        }
+
+        public Builder user(String user) {
+            this.user = user;
+            return this;
+        }
+
+        public Builder password(String password) {
+            this.password = password;
+            return this;
+        }
+
+        public Builder portName(String portName) {
+            this.portName = portName;
+            return this;
+        }
+
+        /**
+         * @param portKind the kind of port, used in the port reference {@code ports/<kind>/<name>.json} (default: {@code output-port})
+         */
+        public Builder portKind(String portKind) {
+            this.portKind = portKind;
+            return this;
+        }
+
+        public Builder portVersion(String portVersion) {
+            this.portVersion = portVersion;
+            return this;
+        }
+
+        public Builder platform(String platform) {
+            this.platform = platform;
+            return this;
+        }
+
+        /**
+         * @param catalogName the catalog, or a comma separated list of catalog names or LIKE patterns, or null
+         */
+        public Builder catalogName(String catalogName) {
+            this.catalogName = catalogName;
+            return this;
+        }
+
+        /**
+         * @param schemaName the schema, or a comma separated list of schema names or LIKE patterns
+         */
+        public Builder schemaName(String schemaName) {
+            this.schemaName = schemaName;
+            return this;
+        }
+
+        public Builder tablesPattern(String tablesPattern) {
+            this.tablesPattern = tablesPattern;
+            return this;
+        }
+
+        /**
+         * @param tableTypes the table types to import, or null for every type
+         */
+        public Builder tableTypes(List<String> tableTypes) {
+            this.tableTypes = tableTypes;
+            return this;
+        }
+
+        /**
+         * @param columnFetchMode {@code per-table} or {@code bulk}
+         */
+        public Builder columnFetchMode(String columnFetchMode) {
+            this.columnFetchMode = columnFetchMode;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param metadataDialect {@code auto}, {@code generic} or a database type such as {@code h2}
+         */
+        public Builder metadataDialect(String metadataDialect) {
+            this.metadataDialect = metadataDialect;
+            return this;
+        }
+
+        public Builder definitionFile(Path definitionFile) {
+            this.definitionFile = definitionFile;
+            return this;
+        }
+
+        public Builder incremental(boolean incremental) {
+            this.incremental = incremental;
+            return this;
+        }
+
+        public Builder snapshotCacheDir(Path snapshotCacheDir) {
+            this.snapshotCacheDir = snapshotCacheDir;
+            return this;
+        }
+
+        public Builder snapshotCacheTtl(Duration snapshotCacheTtl) {
+            this.snapshotCacheTtl = snapshotCacheTtl;
+            return this;
+        }
+
+        public Builder snapshotCacheMaxSizeMb(long snapshotCacheMaxSizeMb) {
+            this.snapshotCacheMaxSizeMb = snapshotCacheMaxSizeMb;
+            return this;
+        }
+
+        public Builder metadataFetchSize(Integer metadataFetchSize) {
+            this.metadataFetchSize = metadataFetchSize;
+            return this;
+        }
+
+        public Builder metadataQueryTimeout(Duration metadataQueryTimeout) {
+            this.metadataQueryTimeout = metadataQueryTimeout;
+            return this;
+        }
+
+        public Builder metadataDeadline(Duration metadataDeadline) {
+            this.metadataDeadline = metadataDeadline;
+            return this;
+        }
+
+        /**
+         * @param partialOnDeadline true to keep the tables read so far when the metadata deadline is reached, false to fail
+         */
+        public Builder partialOnDeadline(boolean partialOnDeadline) {
+            this.partialOnDeadline = partialOnDeadline;
+            return this;
+        }
+
+        public Builder metricsFile(Path metricsFile) {
+            this.metricsFile = metricsFile;
+            return this;
+        }
+
+        public Builder progressInterval(Duration progressInterval) {
+            this.progressInterval = progressInterval;
+            return this;
+        }
+
+        /**
+         * @param progressListener the listener notified of the progress, or null for the default throttled reporter
+         */
+        public Builder progressListener(ImportProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * @param typeMappingFile a JSON file of type mappings layered over those of the database, or null
+         * @see org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfiles#withOverrides
+         */
+        public Builder typeMappingFile(Path typeMappingFile) {
+            this.typeMappingFile = typeMappingFile;
+            return this;
+        }
+
+        /**
+         * @param profileColumns true to fill the data profile of the columns from a sample of the rows of each table
+         */
+        public Builder profileColumns(boolean profileColumns) {
+            this.profileColumns = profileColumns;
+            return this;
+        }
+
+        /**
+         * @param profileSampleRows the maximum number of rows sampled from each profiled table
+         */
+        public Builder profileSampleRows(int profileSampleRows) {
+            this.profileSampleRows = profileSampleRows;
+            return this;
+        }
+
+        /**
+         * @param profileRowBudget the maximum number of rows sampled from all the profiled tables
+         */
+        public Builder profileRowBudget(long profileRowBudget) {
+            this.profileRowBudget = profileRowBudget;
+            return this;
+        }
+
+        /**
+         * @param profileTimeBudget the maximum duration of the column profiling, after which no table is profiled
+         */
+        public Builder profileTimeBudget(Duration profileTimeBudget) {
+            this.profileTimeBudget = profileTimeBudget;
+            return this;
+        }
+
+        /**
+         * @param detectEnums true to fill the enum values of the short character columns holding a small domain of values
+         */
+        public Builder detectEnums(boolean detectEnums) {
+            this.detectEnums = detectEnums;
+            return this;
+        }
+
+        /**
+         * @param enumMaxValues the maximum number of distinct values of a column detected as an enum
+         */
+        public Builder enumMaxValues(int enumMaxValues) {
+            this.enumMaxValues = enumMaxValues;
+            return this;
+        }
+
+        /**
+         * @param enumMaxLength the maximum declared length of the character columns probed for enum values
+         */
+        public Builder enumMaxLength(int enumMaxLength) {
+            this.enumMaxLength = enumMaxLength;
+            return this;
+        }
+
+        /**
+         * @param tableStatistics true to fill the row count and size of the tables from the catalog statistics of the database
+         */
+        public Builder tableStatistics(boolean tableStatistics) {
+            this.tableStatistics = tableStatistics;
+            return this;
+        }
+
+        /**
+         * @param patchFile the file the JSON Patch from the existing definition to the imported one is written to, or null
+         */
+        public Builder patchFile(Path patchFile) {
+            this.patchFile = patchFile;
+            return this;
+        }
+
+        /**
+         * @throws RuntimeException if a required value is missing or an option is invalid
+         */
+        public JdbcImportRequest build() {
+            if (endpoint == null) {
+                throw new RuntimeException("Missing JDBC endpoint");
+            }
+            if (schemaName == null) {
+                throw new RuntimeException("Missing schema name");
+            }
+            if (portName == null) {
+                throw new RuntimeException("Missing port name");
+            }
+            if (parallelism < 1) {
+                throw new RuntimeException("Invalid parallelism: expected a positive integer, found " + parallelism);
+            }
+            if (metadataFetchSize != null && metadataFetchSize < 1) {
+                throw new RuntimeException("Invalid metadata fetch size: expected a positive integer, found " + metadataFetchSize);
+            }
+            if (profileSampleRows < 1) {
+                throw new RuntimeException("Invalid profile sample rows: expected a positive integer, found " + profileSampleRows);
+            }
+            if (profileRowBudget < 1) {
+                throw new RuntimeException("Invalid profile row budget: expected a positive integer, found " + profileRowBudget);
+            }
+            if (profileTimeBudget == null || profileTimeBudget.isNegative() || profileTimeBudget.isZero()) {
+                throw new RuntimeException("Invalid profile time budget: expected a positive duration, found " + profileTimeBudget);
+            }
+            if (enumMaxValues < 1) {
+                throw new RuntimeException("Invalid enum max values: expected a positive integer, found " + enumMaxValues);
+            }
+            if (enumMaxLength < 1) {
+                throw new RuntimeException("Invalid enum max length: expected a positive integer, found " + enumMaxLength);
+            }
+            if (patchFile != null && definitionFile != null) {
+                throw new RuntimeException("A patch file cannot be written with a definition file");
+            }
+            return new JdbcImportRequest(this);
+        }
+    }
+}
@@ -0,0 +1,802 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreAPISchemaEntityDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiForeignKey;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiTableStatistics;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.InformationSchemaQueries;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialect;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataQuery;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reads tables and columns through the generic JDBC {@link DatabaseMetaData} API,
+ * or through the set-based queries of a {@link MetadataDialect} when one is available.
+ * <p>
+ * The primary keys, unique constraints and clustered indexes are read with a single query for all the selected
+ * tables, through the dialect or the standard {@code INFORMATION_SCHEMA} views, and fill the unique and
+ * clustering attributes of the columns. The foreign keys are read the same way and attached to the tables.
+ * <p>
+ * When requested, the row count and size of the tables are read from the catalog statistics with a single query
+ * through the dialect, or with one approximate {@link DatabaseMetaData#getIndexInfo} call per table otherwise.
+ */
+class JdbcMetadataReader {
+
+    /**
+     * Above this number of changed tables, the columns query is not restricted by table name: the columns of the
+     * unchanged tables are discarded instead, to avoid oversized IN lists.
+     */
+    private static final int MAX_TABLE_NAME_FILTER = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcConnectionPool connectionPool;
+    private final int parallelism;
+    private final MetadataDialect dialect;
+    private final TableWatermarks watermarks;
+    private final TableNameQualifier tableNameQualifier;
+    private final MetadataQueryLimits limits;
+    private final ImportMetrics metrics;
+    private final ImportProgressTracker progress;
+    private final TypeMappingProfile typeMappings;
+    private final boolean tableStatistics;
+    /**
+     * The catalog and schema names, physical types and ordinal positions read so far. Wide catalogs repeat these few
+     * values across millions of tables and columns, so each distinct value is kept once. Column and table names are
+     * mostly distinct and are not interned: the map would only keep a second reference to each of them.
+     */
+    private final Map<String, String> internedStrings = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectionPool     the pool the metadata connections are borrowed from
+     * @param parallelism        the number of tables processed concurrently by the per-table lookups
+     * @param dialect            the dialect providing the set-based fast path, or null to use the generic path
+     * @param watermarks         the watermarks of the previous import, or null for a full import
+     * @param tableNameQualifier how the names of the imported tables are qualified, when several schemas are imported together
+     * @param limits             the fetch size, timeouts and deadline of the metadata queries
+     * @param metrics            the metrics recording the time of each phase, the metadata calls and the rows read
+     * @param progress           the tracker notified of the discovered tables and of the columns read
+     * @param typeMappings       the mappings of the column types to JSON schema types
+     * @param tableStatistics    true to read the row count and size of the tables from the catalog statistics
+     */
+    JdbcMetadataReader(JdbcConnectionPool connectionPool, int parallelism, MetadataDialect dialect, TableWatermarks watermarks,
+                       TableNameQualifier tableNameQualifier, MetadataQueryLimits limits, ImportMetrics metrics, ImportProgressTracker progress,
+                       TypeMappingProfile typeMappings, boolean tableStatistics) {
+        this.connectionPool = connectionPool;
+        this.parallelism = Math.min(parallelism, connectionPool.getMaxSize());
+        this.dialect = dialect;
+        this.watermarks = watermarks;
+        this.tableNameQualifier = tableNameQualifier;
+        this.limits = limits;
+        this.metrics = metrics;
+        this.progress = progress;
+        this.typeMappings = typeMappings;
+        this.tableStatistics = tableStatistics;
+    }
+
+    /**
+     * Reads the tables matching the given filters, together with their columns.
+     * The returned list follows the order in which the tables were enumerated,
+     * whatever the parallelism used to read the columns.
+     */
+    List<DataStoreApiSchemaEntity> readTables(MetadataQuery query, ColumnFetchMode columnFetchMode) throws SQLException {
+        SortedMap<Integer, DataStoreApiSchemaEntity> tables = new TreeMap<>();
+        readTables(query, columnFetchMode, tables::put);
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Reads the tables matching the given filters and hands each of them to the sink as soon as
+     * its columns have been read, so that the caller does not need to hold the whole schema in memory.
+     * <p>
+     * With the per-table fetch mode the tables reach the sink in enumeration order; with the bulk
+     * fetch mode and with dialects they reach it in the order the columns are returned.
+     * <p>
+     * In an incremental import, the previous entries of the unchanged tables are handed to the sink instead,
+     * first when the dialect exposes LAST_ALTERED, otherwise once their columns have been read and hashed.
+     */
+    void readTables(MetadataQuery query, ColumnFetchMode columnFetchMode, TableSink sink) throws SQLException {
+        Map<TableKey, PendingTable> tables = new LinkedHashMap<>();
+        TableSink readTableSink = watermarks == null ? sink : (position, entity) -> {
+            DataStoreApiSchemaEntity reusedEntity = watermarks.reuseIfSameColumns(entity);
+            if (entity.getDefinition().getStatistics() != null) {
+                // The statistics change with the data, not with the columns
+                reusedEntity.getDefinition().setStatistics(entity.getDefinition().getStatistics());
+            }
+            sink.accept(position, reusedEntity);
+        };
+        Map<TableKey, Map<String, KeyColumn>> keys;
+        limits.checkDeadline();
+        Connection connection = connectionPool.borrow();
+        try {
+            if (dialect != null) {
+                logger.info("Using {} metadata dialect", dialect.getDatabaseType());
+                Map<TableKey, PendingTable> unalteredTables = new LinkedHashMap<>();
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TABLE_ENUMERATION)) {
+                    try (PreparedStatement statement = limits.configure(dialect.prepareTablesQuery(connection, watermarks != null ? query.withLastAltered() : query));
+                         ResultSet tablesResultSet = executeQuery(statement)) {
+                        readTableRows(tablesResultSet, tables, unalteredTables);
+                    }
+                    if (tableStatistics) {
+                        Map<TableKey, PendingTable> enumeratedTables = new HashMap<>(tables);
+                        enumeratedTables.putAll(unalteredTables);
+                        readTableStatistics(connection, query, enumeratedTables);
+                    }
+                }
+                progress.tablesDiscovered(tables.size() + unalteredTables.size());
+                for (PendingTable unalteredTable : unalteredTables.values()) {
+                    sink.accept(unalteredTable.position, unalteredTable.entity);
+                }
+                MetadataQuery columnsQuery = query;
+                if (!unalteredTables.isEmpty()) {
+                    logger.info("Skipped reading the columns of {} unchanged tables", unalteredTables.size());
+                    if (tables.isEmpty()) {
+                        return;
+                    }
+                    if (tables.size() <= MAX_TABLE_NAME_FILTER) {
+                        columnsQuery = query.withTableNames(tables.keySet().stream().map(tableKey -> tableKey.name).collect(Collectors.toSet()));
+                    }
+                }
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.KEY_FETCH)) {
+                    keys = readKeys(connection, columnsQuery);
+                    attachForeignKeys(tables, readForeignKeys(connection, columnsQuery));
+                }
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.COLUMN_FETCH);
+                     PreparedStatement statement = limits.configure(dialect.prepareColumnsQuery(connection, columnsQuery));
+                     ResultSet columns = executeQuery(statement)) {
+                    readColumnRowsInBulk(columns, tables, keys, readTableSink);
+                }
+                return;
+            }
+
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.TABLE_ENUMERATION)) {
+                try (ResultSet tablesResultSet = metadataCall(metaData.getTables(query.getCatalogName(), query.getSchemaPattern(), query.getTablePattern(), query.getTableTypesArray()))) {
+                    readTableRows(tablesResultSet, tables, new HashMap<>());
+                }
+                if (tableStatistics) {
+                    readTableStatistics(connection, query, tables);
+                }
+            }
+            progress.tablesDiscovered(tables.size());
+            try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.KEY_FETCH)) {
+                keys = readKeys(connection, query);
+                attachForeignKeys(tables, readForeignKeys(connection, query));
+            }
+            if (columnFetchMode == ColumnFetchMode.BULK) {
+                try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.COLUMN_FETCH);
+                     ResultSet columns = metadataCall(metaData.getColumns(query.getCatalogName(), query.getSchemaPattern(), query.getTablePattern(), null))) {
+                    readColumnRowsInBulk(columns, tables, keys, readTableSink);
+                }
+                return;
+            }
+        } finally {
+            connectionPool.release(connection);
+        }
+
+        Map<TableKey, Map<String, KeyColumn>> tableKeys = keys;
+        forEachTable(tables, (metaData, tableKey, entity) -> readColumnsOfTable(metaData, tableKey, entity, keyColumns(tableKeys, tableKey)), readTableSink);
+    }
+
+    /**
+     * Reads the keys of the selected tables with a single query.
+     *
+     * @return the key columns of each table, or null when the generic path cannot read them
+     * from {@code INFORMATION_SCHEMA}
+     */
+    private Map<TableKey, Map<String, KeyColumn>> readKeys(Connection connection, MetadataQuery query) throws SQLException {
+        if (dialect != null) {
+            try (PreparedStatement statement = limits.configure(dialect.prepareKeysQuery(connection, query));
+                 ResultSet keys = executeQuery(statement)) {
+                return readKeyRows(keys);
+            }
+        }
+        try (PreparedStatement statement = limits.configure(InformationSchemaQueries.prepareKeysQuery(connection, query));
+             ResultSet keys = executeQuery(statement)) {
+            return readKeyRows(keys);
+        } catch (SQLException e) {
+            logger.warn("Keys not available from INFORMATION_SCHEMA, the unique and clustering attributes are not imported: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A column is unique when it is the only column of a unique key, and part of the clustering key when it
+     * belongs to a clustered index.
+     */
+    private Map<TableKey, Map<String, KeyColumn>> readKeyRows(ResultSet keys) throws SQLException {
+        Map<TableKey, Map<String, KeyColumn>> keyColumns = new HashMap<>();
+        Map<TableKey, Map<String, List<String>>> uniqueKeys = new HashMap<>();
+        while (keys.next()) {
+            metrics.rowRead();
+            TableKey tableKey = new TableKey(keys.getString("TABLE_CAT"), keys.getString("TABLE_SCHEM"), keys.getString("TABLE_NAME"));
+            String columnName = keys.getString("COLUMN_NAME");
+            Map<String, KeyColumn> tableKeyColumns = keyColumns.computeIfAbsent(tableKey, table -> new HashMap<>());
+            if ("YES".equalsIgnoreCase(keys.getString("IS_UNIQUE"))) {
+                uniqueKeys.computeIfAbsent(tableKey, table -> new HashMap<>())
+                        .computeIfAbsent(keys.getString("KEY_NAME"), key -> new ArrayList<>())
+                        .add(columnName);
+            }
+            if ("YES".equalsIgnoreCase(keys.getString("IS_CLUSTERED"))) {
+                tableKeyColumns.computeIfAbsent(columnName, column -> new KeyColumn()).clusterKeyPosition = keys.getInt("KEY_SEQ");
+            }
+        }
+        uniqueKeys.forEach((tableKey, tableUniqueKeys) -> tableUniqueKeys.values().stream()
+                .filter(uniqueKeyColumns -> uniqueKeyColumns.size() == 1)
+                .forEach(uniqueKeyColumns -> keyColumns.get(tableKey).computeIfAbsent(uniqueKeyColumns.get(0), column -> new KeyColumn()).unique = true));
+        return keyColumns;
+    }
+
+    /**
+     * Reads the foreign keys of the selected tables with a single query, through the dialect or, on the generic
+     * path, the standard {@code INFORMATION_SCHEMA} views. {@link DatabaseMetaData#getCrossReference} is not used:
+     * the JDBC contract requires a parent table, and {@link DatabaseMetaData#getImportedKeys} takes one call per table.
+     *
+     * @return the foreign keys of each table, empty when they cannot be read
+     */
+    private Map<TableKey, List<DataStoreApiForeignKey>> readForeignKeys(Connection connection, MetadataQuery query) throws SQLException {
+        if (dialect != null) {
+            try (PreparedStatement statement = limits.configure(dialect.prepareForeignKeysQuery(connection, query));
+                 ResultSet foreignKeys = executeQuery(statement)) {
+                return readForeignKeyRows(foreignKeys);
+            }
+        }
+        try (PreparedStatement statement = limits.configure(InformationSchemaQueries.prepareForeignKeysQuery(connection, query));
+             ResultSet foreignKeys = executeQuery(statement)) {
+            return readForeignKeyRows(foreignKeys);
+        } catch (SQLException e) {
+            logger.warn("Foreign keys not available from INFORMATION_SCHEMA, they are not imported: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Groups the foreign key rows by table and constraint, ordering the columns of each constraint by KEY_SEQ.
+     */
+    private Map<TableKey, List<DataStoreApiForeignKey>> readForeignKeyRows(ResultSet foreignKeys) throws SQLException {
+        Map<TableKey, Map<String, PendingForeignKey>> pendingForeignKeys = new HashMap<>();
+        while (foreignKeys.next()) {
+            metrics.rowRead();
+            TableKey tableKey = new TableKey(foreignKeys.getString("FKTABLE_CAT"), foreignKeys.getString("FKTABLE_SCHEM"), foreignKeys.getString("FKTABLE_NAME"));
+            TableKey referencedTableKey = new TableKey(foreignKeys.getString("PKTABLE_CAT"), foreignKeys.getString("PKTABLE_SCHEM"), foreignKeys.getString("PKTABLE_NAME"));
+            String foreignKeyName = foreignKeys.getString("FK_NAME");
+            PendingForeignKey foreignKey = pendingForeignKeys.computeIfAbsent(tableKey, table -> new LinkedHashMap<>())
+                    .computeIfAbsent(foreignKeyName != null ? foreignKeyName : referencedTableKey.toString(),
+                            name -> new PendingForeignKey(foreignKeyName, referencedTableKey));
+            foreignKey.columns.put(foreignKeys.getInt("KEY_SEQ"), new String[]{foreignKeys.getString("FKCOLUMN_NAME"), foreignKeys.getString("PKCOLUMN_NAME")});
+        }
+        Map<TableKey, List<DataStoreApiForeignKey>> tableForeignKeys = new HashMap<>();
+        pendingForeignKeys.forEach((tableKey, foreignKeysByName) -> tableForeignKeys.put(tableKey,
+                foreignKeysByName.values().stream().map(PendingForeignKey::toForeignKey).collect(Collectors.toList())));
+        return tableForeignKeys;
+    }
+
+    private static void attachForeignKeys(Map<TableKey, PendingTable> tables, Map<TableKey, List<DataStoreApiForeignKey>> foreignKeys) {
+        for (Map.Entry<TableKey, PendingTable> table : tables.entrySet()) {
+            List<DataStoreApiForeignKey> tableForeignKeys = foreignKeys.get(table.getKey());
+            if (tableForeignKeys != null) {
+                table.getValue().entity.getDefinition().setForeignKeys(tableForeignKeys);
+            }
+        }
+    }
+
+    private static Map<String, KeyColumn> keyColumns(Map<TableKey, Map<String, KeyColumn>> keys, TableKey tableKey) {
+        return keys != null ? keys.getOrDefault(tableKey, Map.of()) : null;
+    }
+
+    /**
+     * Lists the tables. In an incremental import, the tables whose LAST_ALTERED did not change are collected
+     * with their previous entry in {@code unalteredTables} instead of {@code tables}.
+     */
+    private void readTableRows(ResultSet tablesResultSet, Map<TableKey, PendingTable> tables, Map<TableKey, PendingTable> unalteredTables) throws SQLException {
+        boolean hasLastAltered = watermarks != null && hasColumn(tablesResultSet, "LAST_ALTERED");
+        boolean hasTableType = hasColumn(tablesResultSet, "TABLE_TYPE");
+        while (tablesResultSet.next()) {
+            metrics.rowRead();
+            TableKey tableKey = new TableKey(
+                    intern(tablesResultSet.getString("TABLE_CAT")),
+                    intern(tablesResultSet.getString("TABLE_SCHEM")),
+                    tablesResultSet.getString("TABLE_NAME")
+            );
+            int position = tables.size() + unalteredTables.size();
+            String tableType = hasTableType ? intern(tablesResultSet.getString("TABLE_TYPE")) : null;
+            DataStoreApiSchemaEntity entity = createEntity(tableNameQualifier.qualify(tableKey), tablesResultSet.getString("REMARKS"));
+            DataStoreApiSchemaEntity previousEntity = hasLastAltered ? watermarks.reuseIfUnaltered(entity, tablesResultSet.getString("LAST_ALTERED")) : null;
+            if (previousEntity != null) {
+                unalteredTables.put(tableKey, new PendingTable(position, tableType, previousEntity));
+            } else {
+                tables.put(tableKey, new PendingTable(position, tableType, entity));
+            }
+            logger.debug("Table: {} - {}.{}", tableKey.catalog, tableKey.schema, tableKey.name);
+        }
+    }
+
+    /**
+     * Attaches the row count and size of the tables, read with the statistics query of the dialect or, when there is
+     * none, with the approximate table statistic of {@link DatabaseMetaData#getIndexInfo}, one call per base table.
+     * The drivers that report no such statistic leave the tables without statistics, and a table whose lookup fails
+     * is only left without statistics.
+     */
+    private void readTableStatistics(Connection connection, MetadataQuery query, Map<TableKey, PendingTable> tables) throws SQLException {
+        if (dialect != null) {
+            try (PreparedStatement statement = dialect.prepareTableStatisticsQuery(connection, query)) {
+                if (statement != null) {
+                    try (ResultSet statistics = executeQuery(limits.configure(statement))) {
+                        while (statistics.next()) {
+                            metrics.rowRead();
+                            PendingTable table = tables.get(new TableKey(statistics.getString("TABLE_CAT"), statistics.getString("TABLE_SCHEM"), statistics.getString("TABLE_NAME")));
+                            if (table != null) {
+                                table.entity.getDefinition().setStatistics(toStatistics(
+                                        getLong(statistics, "ROW_COUNT"), "YES".equalsIgnoreCase(statistics.getString("ROW_COUNT_ESTIMATED")),
+                                        getLong(statistics, "SIZE_BYTES"), "YES".equalsIgnoreCase(statistics.getString("SIZE_BYTES_ESTIMATED"))));
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (Map.Entry<TableKey, PendingTable> table : tables.entrySet()) {
+            // Views have no statistics; the tables listed without a type are looked up anyway
+            if (table.getValue().tableType != null && !isBaseTable(table.getValue().tableType)) {
+                continue;
+            }
+            limits.checkDeadline();
+            TableKey tableKey = table.getKey();
+            // Only the unique indexes, so that fewer rows come back: the table statistic is not an index row
+            try (ResultSet indexInfo = metadataCall(metaData.getIndexInfo(tableKey.catalog, tableKey.schema, tableKey.name, true, true))) {
+                while (indexInfo.next()) {
+                    metrics.rowRead();
+                    if (indexInfo.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                        // PAGES is in pages of a size the driver does not report: only the row count is usable
+                        table.getValue().entity.getDefinition().setStatistics(toStatistics(getLong(indexInfo, "CARDINALITY"), true, null, null));
+                        break;
+                    }
+                }
+            } catch (SQLTimeoutException e) {
+                throw e;
+            } catch (SQLException e) {
+                logger.warn("Unable to read the statistics of {}.{}.{}: {}", tableKey.catalog, tableKey.schema, tableKey.name, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isBaseTable(String tableType) {
+        return "TABLE".equalsIgnoreCase(tableType) || "BASE TABLE".equalsIgnoreCase(tableType);
+    }
+
+    private static DataStoreApiTableStatistics toStatistics(Long rowCount, boolean rowCountEstimated, Long sizeInBytes, Boolean sizeInBytesEstimated) {
+        if (rowCount == null && sizeInBytes == null) {
+            return null;
+        }
+        DataStoreApiTableStatistics statistics = new DataStoreApiTableStatistics();
+        if (rowCount != null) {
+            statistics.setRowCount(rowCount);
+            statistics.setRowCountEstimated(rowCountEstimated);
+        }
+        if (sizeInBytes != null) {
+            statistics.setSizeInBytes(sizeInBytes);
+            statistics.setSizeInBytesEstimated(sizeInBytesEstimated);
+        }
+        return statistics;
+    }
+
+    private static Long getLong(ResultSet resultSet, String columnLabel) throws SQLException {
+        long value = resultSet.getLong(columnLabel);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static boolean hasColumn(ResultSet resultSet, String columnLabel) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (columnLabel.equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs a lookup for every table, then hands the table to the sink in enumeration order.
+     * With a parallelism greater than one the tables are spread over a bounded executor,
+     * each task working on its own pooled connection.
+     */
+    private void forEachTable(Map<TableKey, PendingTable> tables, TableLookup lookup, TableSink sink) throws SQLException {
+        if (parallelism <= 1) {
+            Connection connection = connectionPool.borrow();
+            try {
+                DatabaseMetaData metaData = connection.getMetaData();
+                for (Map.Entry<TableKey, PendingTable> table : tables.entrySet()) {
+                    limits.checkDeadline();
+                    lookup.apply(metaData, table.getKey(), table.getValue().entity);
+                    sink.accept(table.getValue().position, table.getValue().entity);
+                }
+            } finally {
+                connectionPool.release(connection);
+            }
+            return;
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 4),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        Deque<Future<PendingTable>> pending = new ArrayDeque<>();
+        try {
+            for (Map.Entry<TableKey, PendingTable> table : tables.entrySet()) {
+                limits.checkDeadline();
+                pending.add(executor.submit(() -> {
+                    limits.checkDeadline();
+                    Connection connection = connectionPool.borrow();
+                    try {
+                        lookup.apply(connection.getMetaData(), table.getKey(), table.getValue().entity);
+                    } finally {
+                        connectionPool.release(connection);
+                    }
+                    return table.getValue();
+                }));
+                // Hand over the tables completed so far, keeping the enumeration order
+                while (!pending.isEmpty() && pending.peek().isDone()) {
+                    PendingTable completed = pending.poll().get();
+                    sink.accept(completed.position, completed.entity);
+                }
+            }
+            while (!pending.isEmpty()) {
+                PendingTable completed = pending.poll().get();
+                sink.accept(completed.position, completed.entity);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading table metadata", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Issues one getColumns call per table.
+     *
+     * @param keyColumns the key columns of the table, or null if the keys could not be read
+     */
+    private void readColumnsOfTable(DatabaseMetaData metaData, TableKey tableKey, DataStoreApiSchemaEntity entity,
+                                    Map<String, KeyColumn> keyColumns) throws SQLException {
+        try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.COLUMN_FETCH);
+             ResultSet columns = metadataCall(metaData.getColumns(tableKey.catalog, tableKey.schema, tableKey.name, null))) {
+            long modelBuildNanos = 0;
+            while (columns.next()) {
+                metrics.rowRead();
+                // The table name is a pattern for the driver: '_' and '%' may match sibling tables
+                if (!tableKey.name.equals(columns.getString("TABLE_NAME"))) {
+                    continue;
+                }
+                modelBuildNanos += addColumn(entity, keyColumns, columns);
+            }
+            metrics.recordNested(ImportMetrics.Phase.MODEL_BUILD, modelBuildNanos);
+        }
+    }
+
+    /**
+     * Groups the rows of a schema-wide column query by table. The rows must be ordered by table,
+     * as mandated for {@link DatabaseMetaData#getColumns}: each table is handed to the sink as soon as
+     * the rows of the next one start, and the tables without columns are handed over at the end.
+     * Columns belonging to tables excluded by the table type filter are discarded.
+     *
+     * @param keys the key columns of each table, or null if the keys could not be read
+     */
+    private void readColumnRowsInBulk(ResultSet columns, Map<TableKey, PendingTable> tables, Map<TableKey, Map<String, KeyColumn>> keys,
+                                      TableSink sink) throws SQLException {
+        Set<TableKey> completedTables = new HashSet<>();
+        TableKey currentKey = null;
+        PendingTable currentTable = null;
+        Map<String, KeyColumn> currentKeyColumns = null;
+        int discardedColumns = 0;
+        long modelBuildNanos = 0;
+        while (columns.next()) {
+            metrics.rowRead();
+            TableKey tableKey = new TableKey(
+                    columns.getString("TABLE_CAT"),
+                    columns.getString("TABLE_SCHEM"),
+                    columns.getString("TABLE_NAME")
+            );
+            if (!tableKey.equals(currentKey)) {
+                limits.checkDeadline();
+                if (currentTable != null) {
+                    metrics.recordNested(ImportMetrics.Phase.MODEL_BUILD, modelBuildNanos);
+                    modelBuildNanos = 0;
+                    sink.accept(currentTable.position, currentTable.entity);
+                    completedTables.add(currentKey);
+                }
+                if (completedTables.contains(tableKey)) {
+                    throw new SQLException("The columns of table " + tableKey + " are not contiguous in the metadata result set");
+                }
+                currentKey = tableKey;
+                currentTable = tables.remove(tableKey);
+                currentKeyColumns = keyColumns(keys, tableKey);
+            }
+            if (currentTable == null) {
+                discardedColumns++;
+                continue;
+            }
+            modelBuildNanos += addColumn(currentTable.entity, currentKeyColumns, columns);
+        }
+        if (currentTable != null) {
+            metrics.recordNested(ImportMetrics.Phase.MODEL_BUILD, modelBuildNanos);
+            sink.accept(currentTable.position, currentTable.entity);
+        }
+        for (PendingTable tableWithoutColumns : tables.values()) {
+            sink.accept(tableWithoutColumns.position, tableWithoutColumns.entity);
+        }
+        tables.clear();
+        logger.debug("Discarded {} columns of tables not matching the table type filter", discardedColumns);
+    }
+
+    private ResultSet executeQuery(PreparedStatement statement) throws SQLException {
+        metrics.metadataCall();
+        return statement.executeQuery();
+    }
+
+    private ResultSet metadataCall(ResultSet resultSet) {
+        metrics.metadataCall();
+        return limits.hint(resultSet);
+    }
+
+    private DataStoreApiSchemaEntity createEntity(String tableName, String remarks) {
+        metrics.tableRead();
+        try (ImportMetrics.Timer timer = metrics.time(ImportMetrics.Phase.MODEL_BUILD)) {
+            return buildEntity(tableName, remarks);
+        }
+    }
+
+    private DataStoreApiSchemaEntity buildEntity(String tableName, String remarks) {
+        DataStoreApiSchemaEntity entity = new DataStoreApiSchemaEntity();
+        entity.setSpecification("json-schema");
+        entity.setSpecificationVersion("1");
+        DataStoreAPISchemaEntityDefinition entityJsonSchema = new DataStoreAPISchemaEntityDefinition();
+        entity.setDefinition(entityJsonSchema);
+
+        entityJsonSchema.setTitle(tableName);
+        entityJsonSchema.setDescription(remarks);
+        entityJsonSchema.setName(tableName);
+        entityJsonSchema.setProperties(new HashMap<>());
+        return entity;
+    }
+
+    /**
+     * @return the time spent building the column, for the caller to record once per table
+     * @see ImportMetrics#recordNested
+     */
+    private long addColumn(DataStoreApiSchemaEntity entity, Map<String, KeyColumn> keyColumns, ResultSet columns) throws SQLException {
+        metrics.columnRead();
+        long startNanos = System.nanoTime();
+        buildColumn(entity, keyColumns, columns);
+        return System.nanoTime() - startNanos;
+    }
+
+    private void buildColumn(DataStoreApiSchemaEntity entity, Map<String, KeyColumn> keyColumns, ResultSet columns) throws SQLException {
+        DataStoreApiSchemaColumn columnMetadata = new DataStoreApiSchemaColumn();
+        columnMetadata.setName(columns.getString("COLUMN_NAME"));
+        String typeName = intern(columns.getString("TYPE_NAME"));
+        int sqlType = dialect != null ? dialect.toJdbcType(typeName) : columns.getInt("DATA_TYPE");
+        typeMappings.map(sqlType, typeName).applyTo(columnMetadata, columns);
+        columnMetadata.setPhysicalType(typeName);
+        columnMetadata.setDescription(columns.getString("REMARKS"));
+        String isNullableISOString = columns.getString("IS_NULLABLE");
+        Boolean isNullable = "YES".equalsIgnoreCase(isNullableISOString) ? Boolean.TRUE
+                : "NO".equalsIgnoreCase(isNullableISOString) ? Boolean.FALSE
+                : null;
+        columnMetadata.setNullable(isNullable);
+        columnMetadata.setOrdinalPosition(intern(columns.getString("ORDINAL_POSITION")));
+        if (keyColumns != null) {
+            KeyColumn keyColumn = keyColumns.get(columnMetadata.getName());
+            columnMetadata.setUnique(keyColumn != null && keyColumn.unique);
+            if (keyColumn != null && keyColumn.clusterKeyPosition != null) {
+                columnMetadata.setClusterStatus(true);
+                columnMetadata.setClusterKeyPosition(keyColumn.clusterKeyPosition);
+            }
+        }
+        entity.getDefinition().getProperties().put(columnMetadata.getName(), columnMetadata);
+        progress.columnRead(entity.getDefinition().getName(), columnMetadata.getName());
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String interned = internedStrings.putIfAbsent(value, value);
+        return interned != null ? interned : value;
+    }
+
+    /**
+     * Receives each table once all of its metadata has been read.
+     */
+    @FunctionalInterface
+    interface TableSink {
+        /**
+         * @param position the position of the table in the enumeration order
+         * @param entity   the table
+         */
+        void accept(int position, DataStoreApiSchemaEntity entity);
+    }
+
+    /**
+     * A metadata lookup executed for a single table.
+     */
+    @FunctionalInterface
+    interface TableLookup {
+        void apply(DatabaseMetaData metaData, TableKey tableKey, DataStoreApiSchemaEntity entity) throws SQLException;
+    }
+
+    /**
+     * Strategy used to retrieve the columns of the selected tables.
+     */
+    enum ColumnFetchMode {
+        /**
+         * One getColumns round-trip for each table.
+         */
+        PER_TABLE,
+        /**
+         * A single getColumns round-trip for the whole schema.
+         */
+        BULK;
+
+        static ColumnFetchMode fromParameter(String value) {
+            if (value == null || value.equalsIgnoreCase("per-table")) {
+                return PER_TABLE;
+            }
+            if (value.equalsIgnoreCase("bulk")) {
+                return BULK;
+            }
+            throw new RuntimeException("Unsupported column fetch mode: " + value + ". Allowed values are: per-table, bulk");
+        }
+    }
+
+    /**
+     * How the name of an imported table is built from its catalog, schema and name.
+     */
+    enum TableNameQualifier {
+        /**
+         * The table name alone, when a single schema is imported.
+         */
+        NONE,
+        /**
+         * {@code schema.table}, when several schemas of the same catalog are imported.
+         */
+        SCHEMA,
+        /**
+         * {@code catalog.schema.table}, when schemas of several catalogs are imported.
+         */
+        CATALOG_AND_SCHEMA;
+
+        String qualify(TableKey tableKey) {
+            switch (this) {
+                case SCHEMA:
+                    return tableKey.schema + "." + tableKey.name;
+                case CATALOG_AND_SCHEMA:
+                    return tableKey.catalog + "." + tableKey.schema + "." + tableKey.name;
+                default:
+                    return tableKey.name;
+            }
+        }
+    }
+
+    /**
+     * The key attributes of a column.
+     */
+    private static final class KeyColumn {
+        boolean unique;
+        Integer clusterKeyPosition;
+    }
+
+    /**
+     * A foreign key whose columns are being read, keyed by their KEY_SEQ: drivers order them by table only.
+     */
+    private static final class PendingForeignKey {
+        final String name;
+        final TableKey referencedTableKey;
+        final SortedMap<Integer, String[]> columns = new TreeMap<>();
+
+        PendingForeignKey(String name, TableKey referencedTableKey) {
+            this.name = name;
+            this.referencedTableKey = referencedTableKey;
+        }
+
+        DataStoreApiForeignKey toForeignKey() {
+            DataStoreApiForeignKey foreignKey = new DataStoreApiForeignKey();
+            foreignKey.setName(name);
+            foreignKey.setColumns(columns.values().stream().map(column -> column[0]).collect(Collectors.toList()));
+            foreignKey.setReferencedCatalog(referencedTableKey.catalog);
+            foreignKey.setReferencedSchema(referencedTableKey.schema);
+            foreignKey.setReferencedTable(referencedTableKey.name);
+            foreignKey.setReferencedColumns(columns.values().stream().map(column -> column[1]).collect(Collectors.toList()));
+            return foreignKey;
+        }
+    }
+
+    private static final class PendingTable {
+        final int position;
+        /**
+         * The TABLE_TYPE of the table, or null when the dialect does not list it.
+         */
+        final String tableType;
+        final DataStoreApiSchemaEntity entity;
+
+        PendingTable(int position, String tableType, DataStoreApiSchemaEntity entity) {
+            this.position = position;
+            this.tableType = tableType;
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * Identifies a table by (TABLE_CAT, TABLE_SCHEM, TABLE_NAME).
+     */
+    static final class TableKey {
+        final String catalog;
+        final String schema;
+        final String name;
+
+        TableKey(String catalog, String schema, String name) {
+            this.catalog = catalog;
+            this.schema = schema;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TableKey)) return false;
+            TableKey tableKey = (TableKey) o;
+            return Objects.equals(catalog, tableKey.catalog)
+                    && Objects.equals(schema, tableKey.schema)
+                    && Objects.equals(name, tableKey.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(catalog, schema, name);
+        }
+
+        @Override
+        public String toString() {
+            return catalog + "." + schema + "." + name;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The fetch size, query timeout and deadline applied to the metadata queries of an import.
+ * <p>
+ * The fetch size and the query timeout are set on the statements of the metadata dialects, the timeout being
+ * shortened to the time left before the deadline. The fetch size is also passed as a hint to the result sets of
+ * {@link DatabaseMetaData}. Since some drivers, such as PostgreSQL's, only fetch rows in batches inside a
+ * transaction, the metadata connections leave auto-commit mode when a fetch size is set, until they are released:
+ * {@link JdbcConnectionPool#release} then rolls the transaction back and restores auto-commit.
+ * <p>
+ * When the deadline is reached, the running statements are cancelled with {@link Statement#cancel()} and the
+ * readers stop before their next lookup. The {@link DatabaseMetaData} calls cannot be cancelled: if the import
+ * is still running after a grace period, the connections of the pool are aborted.
+ */
+class MetadataQueryLimits implements AutoCloseable {
+
+    /**
+     * No fetch size, no timeout and no deadline: the driver defaults apply.
+     */
+    static final MetadataQueryLimits UNLIMITED = new MetadataQueryLimits(null, null, null, null);
+
+    private static final Duration ABORT_GRACE_PERIOD = Duration.ofSeconds(5);
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Integer fetchSize;
+    private final Duration queryTimeout;
+    private final Duration deadline;
+    private final Instant deadlineInstant;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService watchdog;
+    private volatile boolean deadlineReached;
+
+    /**
+     * @param fetchSize      the number of rows fetched per round-trip, or null for the driver default
+     * @param queryTimeout   the maximum duration of a single metadata query, or null for no timeout
+     * @param deadline       the maximum duration of the whole metadata read, or null for no deadline
+     * @param connectionPool the pool whose connections are aborted when the deadline is overrun, or null to only cancel the queries
+     */
+    MetadataQueryLimits(Integer fetchSize, Duration queryTimeout, Duration deadline, JdbcConnectionPool connectionPool) {
+        this.fetchSize = fetchSize;
+        this.queryTimeout = queryTimeout;
+        this.deadline = deadline;
+        this.deadlineInstant = deadline != null ? Instant.now().plus(deadline) : null;
+        if (deadline == null) {
+            this.watchdog = null;
+            return;
+        }
+        if (deadline.isZero() || deadline.isNegative()) {
+            this.deadlineReached = true;
+        }
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metadata-deadline-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.schedule(this::cancelStatements, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        if (connectionPool == null) {
+            return;
+        }
+        watchdog.schedule(() -> {
+            logger.warn("The metadata queries did not stop {} after the deadline: aborting the connections", ABORT_GRACE_PERIOD);
+            connectionPool.abort();
+        }, deadline.plus(ABORT_GRACE_PERIOD).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies the fetch size and the query timeout to a dialect statement and registers it for cancellation.
+     */
+    <T extends Statement> T configure(T statement) throws SQLException {
+        checkDeadline();
+        if (fetchSize != null) {
+            Connection connection = statement.getConnection();
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+            statement.setFetchSize(fetchSize);
+        }
+        Duration timeout = queryTimeout;
+        if (deadlineInstant != null) {
+            Duration timeLeft = Duration.between(Instant.now(), deadlineInstant);
+            timeout = timeout == null || timeLeft.compareTo(timeout) < 0 ? timeLeft : timeout;
+        }
+        if (timeout != null) {
+            // Rounded up: a zero timeout would mean no timeout at all
+            statement.setQueryTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        }
+        statements.add(statement);
+        statements.removeIf(this::isClosed);
+        return statement;
+    }
+
+    /**
+     * Passes the fetch size as a hint to a {@link DatabaseMetaData} result set.
+     */
+    ResultSet hint(ResultSet resultSet) {
+        if (fetchSize != null) {
+            try {
+                resultSet.setFetchSize(fetchSize);
+            } catch (SQLException e) {
+                logger.debug("The driver ignores the fetch size of metadata result sets: {}", e.getMessage());
+            }
+        }
+        return resultSet;
+    }
+
+    /**
+     * @throws SQLTimeoutException if the deadline has been reached
+     */
+    void checkDeadline() throws SQLTimeoutException {
+        if (deadlineReached) {
+            throw new SQLTimeoutException("The metadata deadline of " + deadline + " has been reached");
+        }
+    }
+
+    boolean isDeadlineReached() {
+        return deadlineReached;
+    }
+
+    Duration getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public void close() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    private void cancelStatements() {
+        deadlineReached = true;
+        logger.warn("The metadata deadline of {} has been reached: cancelling the running queries", deadline);
+        for (Statement statement : statements) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                logger.debug("Unable to cancel a metadata query: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean isClosed(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A local cache of the tables read from a database, so that importing the same schema into several ports
+ * walks the database metadata once.
+ * <p>
+ * Each snapshot is a Smile file named after a hash of the endpoint and of the metadata query. It holds the
+ * tables of the DataStore API schema in the order they were handed to the sink, each with its position:
+ * {@code {"tables": [{"position": 0, "table": {...}}, ...]}}. Snapshots are read through a memory mapping
+ * and streamed table by table. They expire after the TTL, and the least recently written ones are evicted
+ * when the cache directory grows beyond its maximum size.
+ */
+class MetadataSnapshotCache {
+
+    private static final String SNAPSHOT_EXTENSION = ".smile";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ObjectMapper smileMapper;
+    private final Path directory;
+    private final Duration ttl;
+    private final long maxSizeBytes;
+
+    MetadataSnapshotCache(Path directory, Duration ttl, long maxSizeBytes) {
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * @param typeMappings    the name of the type mapping profile the columns are mapped with
+     * @param tableStatistics whether the tables hold their statistics
+     * @return the cache key of the tables selected by the query on the given endpoint
+     */
+    static String key(String endpoint, MetadataQuery query, String typeMappings, boolean tableStatistics) {
+        String identity = String.join("\u0000", String.valueOf(endpoint), String.valueOf(query.getCatalogName()),
+                String.valueOf(query.getSchemaPattern()), String.valueOf(query.getTablePattern()), String.valueOf(query.getTableTypes()),
+                typeMappings, String.valueOf(tableStatistics));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Hands the tables of a snapshot to the sink.
+     *
+     * @return false if there is no snapshot for the key or if it expired; the sink has not been called then
+     */
+    boolean replay(String key, JdbcMetadataReader.TableSink sink) throws IOException {
+        Path snapshot = snapshotFile(key);
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        if (isExpired(snapshot)) {
+            logger.info("Metadata snapshot {} expired", snapshot);
+            Files.deleteIfExists(snapshot);
+            return false;
+        }
+        int tableCount = 0;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+             InputStream input = channel.size() <= Integer.MAX_VALUE
+                     ? new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))
+                     : Files.newInputStream(snapshot);
+             JsonParser parser = smileMapper.getFactory().createParser(input)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, snapshot);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (!parser.getCurrentName().equals("tables")) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                    continue;
+                }
+                expect(parser.nextToken(), JsonToken.START_ARRAY, snapshot);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    SnapshotTable snapshotTable = parser.readValueAs(SnapshotTable.class);
+                    sink.accept(snapshotTable.position, snapshotTable.table);
+                    tableCount++;
+                }
+            }
+        }
+        logger.info("Loaded {} tables from metadata snapshot {}", tableCount, snapshot);
+        return true;
+    }
+
+    /**
+     * Opens a snapshot to be filled while the tables are read; it replaces the current one on {@link Writer#commit()}.
+     */
+    Writer openWriter(String key) throws IOException {
+        Files.createDirectories(directory);
+        return new Writer(snapshotFile(key));
+    }
+
+    /**
+     * Deletes the expired snapshots, then the oldest ones until the cache fits its maximum size.
+     */
+    void evict() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SNAPSHOT_EXTENSION)) {
+            files.forEach(snapshots::add);
+        }
+        snapshots.sort(Comparator.comparing(MetadataSnapshotCache::lastModified).reversed());
+        long totalSize = 0;
+        for (Path snapshot : snapshots) {
+            long size = Files.size(snapshot);
+            if (isExpired(snapshot) || totalSize + size > maxSizeBytes) {
+                logger.info("Evicting metadata snapshot {}", snapshot);
+                Files.deleteIfExists(snapshot);
+            } else {
+                totalSize += size;
+            }
+        }
+    }
+
+    private Path snapshotFile(String key) {
+        return directory.resolve(key + SNAPSHOT_EXTENSION);
+    }
+
+    private boolean isExpired(Path snapshot) {
+        return lastModified(snapshot).plus(ttl).isBefore(Instant.now());
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void expect(JsonToken token, JsonToken expected, Path snapshot) throws IOException {
+        if (token != expected) {
+            throw new IOException("Invalid metadata snapshot " + snapshot + ": expected " + expected + ", found " + token);
+        }
+    }
+
+    /**
+     * Writes the tables of a snapshot as they are read, to a temporary file.
+     */
+    class Writer implements Closeable {
+
+        private final Path snapshot;
+        private final Path temporaryFile;
+        private final JsonGenerator generator;
+        private boolean committed;
+
+        private Writer(Path snapshot) throws IOException {
+            this.snapshot = snapshot;
+            this.temporaryFile = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            this.generator = smileMapper.getFactory().createGenerator(Files.newOutputStream(temporaryFile), JsonEncoding.UTF8);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("tables");
+        }
+
+        void writeTable(int position, DataStoreApiSchemaEntity table) {
+            try {
+                generator.writeObject(new SnapshotTable(position, table));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Completes the snapshot, moves it in place of the current one and evicts the cache.
+         */
+        void commit() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+            Files.move(temporaryFile, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+            logger.info("Saved metadata snapshot {}", snapshot);
+            evict();
+        }
+
+        /**
+         * Releases the generator; the partial snapshot is discarded unless {@link #commit()} succeeded.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                generator.close();
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    static final class SnapshotTable {
+        public int position;
+        public DataStoreApiSchemaEntity table;
+
+        public SnapshotTable() {
+        }
+
+        SnapshotTable(int position, DataStoreApiSchemaEntity table) {
+            this.position = position;
+            this.table = table;
+        }
+    }
+}
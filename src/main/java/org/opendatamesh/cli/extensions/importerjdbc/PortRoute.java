@@ -0,0 +1,51 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Routes the tables of a fan-out import to a port: the tables whose name matches the regular expression are
+ * merged into the port. A table matching several routes is added to each of their ports.
+ *
+ * @see ImportSession#importPorts(JdbcImportRequest, java.util.List, java.util.Map)
+ */
+public final class PortRoute {
+
+    private final String portName;
+    private final Pattern tablesRegex;
+
+    /**
+     * @param portName    the name of the target port
+     * @param tablesRegex the regular expression the whole table name must match, qualified as {@code schema.table}
+     *                    when several schemas are imported, e.g. {@code ORDER.*} or {@code (?i)sales_.*}
+     * @throws RuntimeException if the regular expression is invalid
+     */
+    public PortRoute(String portName, String tablesRegex) {
+        if (portName == null) {
+            throw new RuntimeException("Missing port name in port route");
+        }
+        this.portName = portName;
+        try {
+            this.tablesRegex = Pattern.compile(tablesRegex != null ? tablesRegex : ".*");
+        } catch (PatternSyntaxException e) {
+            throw new RuntimeException("Invalid tables regex for port " + portName + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getPortName() {
+        return portName;
+    }
+
+    public String getTablesRegex() {
+        return tablesRegex.pattern();
+    }
+
+    boolean matches(String tableName) {
+        return tableName != null && tablesRegex.matcher(tableName).matches();
+    }
+
+    @Override
+    public String toString() {
+        return portName + " <- " + tablesRegex.pattern();
+    }
+}
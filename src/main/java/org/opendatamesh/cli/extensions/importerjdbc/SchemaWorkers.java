@@ -0,0 +1,270 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+import org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports several schemas in one run: the catalog and schema lists or patterns are resolved to concrete schemas,
+ * then each schema is read by its own worker, all of them borrowing from the same connection pool.
+ * <p>
+ * The tables are handed to the sink in schema order, then in the order of each schema: the tables of the
+ * schema at the head of the order are handed over as they are read, those of the following schemas are
+ * buffered until the schemas before them are complete.
+ */
+class SchemaWorkers {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final int workers;
+
+    /**
+     * @param workers the maximum number of schemas read concurrently
+     */
+    SchemaWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Resolves the catalogs and schemas to import. A single catalog and schema without {@code %} wildcard are
+     * used as they are, as with a single schema import, without querying the database; otherwise each
+     * schema matching a pattern in a matching catalog gets its own query, in the order of the patterns.
+     *
+     * @param catalogPatterns the catalog names or LIKE patterns, containing a null element to match every catalog
+     * @param schemaPatterns  the schema names or LIKE patterns
+     * @param metrics         the metrics counting the metadata calls and rows read
+     */
+    static List<MetadataQuery> resolveQueries(JdbcConnectionPool connectionPool, List<String> catalogPatterns, List<String> schemaPatterns,
+                                              String tablePattern, String[] tableTypes, ImportMetrics metrics) throws SQLException {
+        if (catalogPatterns.size() == 1 && schemaPatterns.size() == 1 && !isPattern(catalogPatterns.get(0)) && !isPattern(schemaPatterns.get(0))) {
+            return List.of(new MetadataQuery(catalogPatterns.get(0), schemaPatterns.get(0), tablePattern, tableTypes));
+        }
+        Connection connection = connectionPool.borrow();
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<String> catalogs = resolveCatalogs(metaData, catalogPatterns, metrics);
+            Set<List<String>> schemas = new LinkedHashSet<>();
+            for (String schemaPattern : schemaPatterns) {
+                for (String catalog : catalogs) {
+                    metrics.metadataCall();
+                    try (ResultSet resultSet = metaData.getSchemas(catalog, schemaPattern)) {
+                        while (resultSet.next()) {
+                            metrics.rowRead();
+                            String schemaCatalog = resultSet.getString("TABLE_CATALOG");
+                            schemas.add(Arrays.asList(schemaCatalog != null ? schemaCatalog : catalog, resultSet.getString("TABLE_SCHEM")));
+                        }
+                    }
+                }
+            }
+            if (schemas.isEmpty()) {
+                throw new RuntimeException("No schema found matching catalogs " + catalogPatterns + " and schemas " + schemaPatterns);
+            }
+            // The resolved names are used as patterns by the metadata queries: their wildcards must not match sibling schemas
+            String escape = metaData.getSearchStringEscape();
+            return schemas.stream()
+                    .map(schema -> new MetadataQuery(schema.get(0), escapeLikePattern(schema.get(1), escape), tablePattern, tableTypes))
+                    .collect(Collectors.toList());
+        } finally {
+            connectionPool.release(connection);
+        }
+    }
+
+    /**
+     * @return how the table names must be qualified so that the tables of the given schemas do not collide
+     */
+    static JdbcMetadataReader.TableNameQualifier tableNameQualifier(List<MetadataQuery> queries) {
+        if (queries.size() == 1) {
+            return JdbcMetadataReader.TableNameQualifier.NONE;
+        }
+        long catalogCount = queries.stream().map(MetadataQuery::getCatalogName).distinct().count();
+        return catalogCount > 1 ? JdbcMetadataReader.TableNameQualifier.CATALOG_AND_SCHEMA : JdbcMetadataReader.TableNameQualifier.SCHEMA;
+    }
+
+    /**
+     * Reads every schema with the given reader, on up to {@code workers} threads, and hands their tables to the
+     * sink in schema order. The sink is never called concurrently. The positions handed to the sink run across
+     * the schemas, following this order.
+     */
+    void readSchemas(List<MetadataQuery> queries, SchemaReader reader, JdbcMetadataReader.TableSink sink) throws SQLException {
+        OrderedSink orderedSink = new OrderedSink(queries.size(), sink);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, queries.size()));
+        List<Future<?>> schemaReads = new ArrayList<>();
+        try {
+            for (int i = 0; i < queries.size(); i++) {
+                int schemaIndex = i;
+                MetadataQuery query = queries.get(i);
+                schemaReads.add(executor.submit(() -> {
+                    logger.info("Schema worker started: {}", query);
+                    reader.read(query, (position, entity) -> orderedSink.accept(schemaIndex, position, entity));
+                    orderedSink.complete(schemaIndex);
+                    logger.info("Schema worker completed: {}", query);
+                    return null;
+                }));
+            }
+            for (Future<?> schemaRead : schemaReads) {
+                schemaRead.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading schema metadata", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            schemaReads.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> resolveCatalogs(DatabaseMetaData metaData, List<String> catalogPatterns, ImportMetrics metrics) throws SQLException {
+        Set<String> catalogs = new LinkedHashSet<>();
+        for (String catalogPattern : catalogPatterns) {
+            if (!isPattern(catalogPattern)) {
+                catalogs.add(catalogPattern);
+                continue;
+            }
+            Pattern catalogRegex = likeToRegex(catalogPattern);
+            metrics.metadataCall();
+            try (ResultSet resultSet = metaData.getCatalogs()) {
+                while (resultSet.next()) {
+                    metrics.rowRead();
+                    String catalog = resultSet.getString("TABLE_CAT");
+                    if (catalog != null && catalogRegex.matcher(catalog).matches()) {
+                        catalogs.add(catalog);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(catalogs);
+    }
+
+    private static boolean isPattern(String name) {
+        return name != null && name.contains("%");
+    }
+
+    private static Pattern likeToRegex(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : likePattern.toCharArray()) {
+            if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String escapeLikePattern(String name, String escape) {
+        if (name == null || escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape)
+                .replace("%", escape + "%")
+                .replace("_", escape + "_");
+    }
+
+    /**
+     * Reverts {@link #escapeLikePattern}: the escaped name of a resolved schema, or a name without escapes, is
+     * returned as the plain name.
+     */
+    static String unescapeLikePattern(String pattern, String escape) {
+        if (pattern == null || escape == null || escape.isEmpty()) {
+            return pattern;
+        }
+        StringBuilder name = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.startsWith(escape, i) && i + escape.length() < pattern.length()) {
+                i += escape.length();
+            }
+            name.append(pattern.charAt(i));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Reads the tables of a single schema.
+     */
+    @FunctionalInterface
+    interface SchemaReader {
+        void read(MetadataQuery query, JdbcMetadataReader.TableSink sink) throws SQLException;
+    }
+
+    /**
+     * Hands the tables of the schema at the head of the order to the sink, and buffers the tables of the others
+     * until it is their turn.
+     */
+    private static final class OrderedSink {
+        private final JdbcMetadataReader.TableSink sink;
+        private final List<List<BufferedTable>> bufferedTables = new ArrayList<>();
+        private final int[] tableCounts;
+        private final boolean[] completed;
+        private int head;
+        private int headOffset;
+
+        OrderedSink(int schemaCount, JdbcMetadataReader.TableSink sink) {
+            this.sink = sink;
+            this.tableCounts = new int[schemaCount];
+            this.completed = new boolean[schemaCount];
+            for (int i = 0; i < schemaCount; i++) {
+                bufferedTables.add(new ArrayList<>());
+            }
+        }
+
+        synchronized void accept(int schemaIndex, int position, DataStoreApiSchemaEntity entity) {
+            tableCounts[schemaIndex]++;
+            if (schemaIndex == head) {
+                sink.accept(headOffset + position, entity);
+            } else {
+                bufferedTables.get(schemaIndex).add(new BufferedTable(position, entity));
+            }
+        }
+
+        synchronized void complete(int schemaIndex) {
+            completed[schemaIndex] = true;
+            while (head < completed.length && completed[head]) {
+                headOffset += tableCounts[head];
+                head++;
+                if (head < completed.length) {
+                    for (BufferedTable bufferedTable : bufferedTables.get(head)) {
+                        sink.accept(headOffset + bufferedTable.position, bufferedTable.entity);
+                    }
+                    bufferedTables.get(head).clear();
+                }
+            }
+        }
+    }
+
+    private static final class BufferedTable {
+        final int position;
+        final DataStoreApiSchemaEntity entity;
+
+        BufferedTable(int position, DataStoreApiSchemaEntity entity) {
+            this.position = position;
+            this.entity = entity;
+        }
+    }
+}
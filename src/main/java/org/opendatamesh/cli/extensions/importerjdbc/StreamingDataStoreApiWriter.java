@@ -0,0 +1,160 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a DataStore API definition table by table with a {@link JsonGenerator}, so that memory stays
+ * bounded by the largest table instead of the whole schema.
+ * <p>
+ * When an existing definition is given, every written table is merged with its existing counterpart
+ * following the rules of {@link DataStoreApiMerger}; existing tables that are never written are dropped.
+ * The output goes to a temporary file that replaces the target file on {@link #commit()}.
+ */
+class StreamingDataStoreApiWriter implements Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final Path targetFile;
+    private final Path temporaryFile;
+    private final JsonGenerator generator;
+    private final Map<String, JsonNode> existingTables;
+    private final Set<String> writtenTableNames = new HashSet<>();
+    private boolean committed;
+
+    /**
+     * @param targetFile         the file the definition is written to
+     * @param newDefinition      the imported definition, whose schema holds no table
+     * @param existingDefinition the definition to merge the tables into, or null
+     */
+    StreamingDataStoreApiWriter(ObjectMapper objectMapper, Path targetFile, DataStoreApiDefinition newDefinition, ObjectNode existingDefinition) throws IOException {
+        this.objectMapper = objectMapper;
+        this.targetFile = targetFile.toAbsolutePath();
+        Files.createDirectories(this.targetFile.getParent());
+        this.temporaryFile = Files.createTempFile(this.targetFile.getParent(), this.targetFile.getFileName().toString(), ".tmp");
+        this.generator = objectMapper.getFactory().createGenerator(Files.newOutputStream(temporaryFile), JsonEncoding.UTF8);
+        this.generator.useDefaultPrettyPrinter();
+
+        ObjectNode header = existingDefinition != null && existingDefinition.has("schema")
+                ? existingDefinition
+                : objectMapper.valueToTree(newDefinition);
+        this.existingTables = existingDefinition != null
+                ? DataStoreApiMerger.indexTablesByName(existingDefinition)
+                : new HashMap<>();
+        try {
+            writeHeader(header);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a table, merged with its existing counterpart if any.
+     *
+     * @throws RuntimeException if a table with the same name has already been written
+     */
+    void writeTable(DataStoreApiSchemaEntity table) {
+        String tableName = table.getDefinition().getName();
+        if (!writtenTableNames.add(tableName)) {
+            throw new RuntimeException("Duplicated table name found: please specify the correct catalog.");
+        }
+        JsonNode newTable = objectMapper.valueToTree(table);
+        JsonNode existingTable = existingTables.remove(DataStoreApiMerger.normalizeName(tableName));
+        try {
+            generator.writeTree(DataStoreApiMerger.mergeTable(existingTable, newTable));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the existing tables that have not been written as they are, when the import is partial and
+     * their absence does not mean they were dropped.
+     *
+     * @return the number of existing tables written
+     */
+    int writeUnwrittenExistingTables() {
+        int keptTableCount = 0;
+        for (JsonNode existingTable : existingTables.values()) {
+            if (writtenTableNames.add(existingTable.path("definition").path("name").asText())) {
+                try {
+                    generator.writeTree(existingTable);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                keptTableCount++;
+            }
+        }
+        existingTables.clear();
+        return keptTableCount;
+    }
+
+    int getTableCount() {
+        return writtenTableNames.size();
+    }
+
+    /**
+     * Completes the document and moves it to the target file.
+     */
+    void commit() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+        Files.move(temporaryFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    /**
+     * Releases the generator; the partial output is discarded unless {@link #commit()} succeeded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            generator.close();
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Writes every field of the definition and of its schema, except the tables, then opens the tables array.
+     */
+    private void writeHeader(ObjectNode definition) throws IOException {
+        generator.writeStartObject();
+        Iterator<Map.Entry<String, JsonNode>> fields = definition.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getKey().equals("schema")) {
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+        }
+        generator.writeObjectFieldStart("schema");
+        Iterator<Map.Entry<String, JsonNode>> schemaFields = definition.path("schema").fields();
+        while (schemaFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = schemaFields.next();
+            if (!field.getKey().equals("tables")) {
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+        }
+        generator.writeArrayFieldStart("tables");
+    }
+}
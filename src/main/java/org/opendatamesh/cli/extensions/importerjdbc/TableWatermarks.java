@@ -0,0 +1,132 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiForeignKey;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change detection for incremental imports.
+ * <p>
+ * Each imported table records a watermark in its definition: the LAST_ALTERED value returned by the metadata
+ * dialect when the database exposes one, otherwise a hash of its column metadata. A table whose watermark
+ * matches the one recorded by the previous import is unchanged, and its previous entry is reused as is.
+ * With a LAST_ALTERED value the columns of unchanged tables are not read at all; with a hash they are read,
+ * but the previous entry is still reused.
+ * <p>
+ * Both watermarks also record the type mapping profile the columns were mapped with, so that the tables mapped
+ * with another profile, e.g. before {@code --typeMappingFile} changed, are read again.
+ * <p>
+ * The watermarks may be shared by the workers reading several schemas concurrently.
+ */
+class TableWatermarks {
+
+    static final String WATERMARK_PROPERTY = "x-jdbc-watermark";
+
+    private static final String LAST_ALTERED_PREFIX = "last-altered:";
+    private static final String COLUMNS_HASH_PREFIX = "columns-hash:";
+    private static final String TYPE_MAPPINGS_PREFIX = ";type-mappings:";
+
+    private final Map<String, DataStoreApiSchemaEntity> previousTables = new HashMap<>();
+    private final AtomicInteger reusedTableCount = new AtomicInteger();
+    private final String typeMappings;
+
+    /**
+     * @param previousTables the tables of the previous import, empty on the first incremental import
+     * @param typeMappings   the name of the type mapping profile the columns are mapped with
+     */
+    TableWatermarks(Collection<DataStoreApiSchemaEntity> previousTables, String typeMappings) {
+        this.typeMappings = typeMappings;
+        for (DataStoreApiSchemaEntity previousTable : previousTables) {
+            if (previousTable.getDefinition() != null && previousTable.getDefinition().getName() != null) {
+                this.previousTables.putIfAbsent(DataStoreApiMerger.normalizeName(previousTable.getDefinition().getName()), previousTable);
+            }
+        }
+    }
+
+    /**
+     * Records the LAST_ALTERED watermark of a table that has just been listed.
+     *
+     * @return the previous entry of the table if it did not change, otherwise null
+     */
+    DataStoreApiSchemaEntity reuseIfUnaltered(DataStoreApiSchemaEntity table, String lastAltered) {
+        return recordWatermark(table, LAST_ALTERED_PREFIX + lastAltered);
+    }
+
+    /**
+     * Records the column hash watermark of a table whose columns have been read, unless it already has a watermark.
+     *
+     * @return the previous entry of the table if its columns did not change, otherwise the table itself
+     */
+    DataStoreApiSchemaEntity reuseIfSameColumns(DataStoreApiSchemaEntity table) {
+        if (table.getDefinition().getAdditionalProperties().containsKey(WATERMARK_PROPERTY)) {
+            return table;
+        }
+        DataStoreApiSchemaEntity previousTable = recordWatermark(table, COLUMNS_HASH_PREFIX + hashColumns(table));
+        return previousTable != null ? previousTable : table;
+    }
+
+    int getReusedTableCount() {
+        return reusedTableCount.get();
+    }
+
+    private DataStoreApiSchemaEntity recordWatermark(DataStoreApiSchemaEntity table, String tableWatermark) {
+        String watermark = tableWatermark + TYPE_MAPPINGS_PREFIX + typeMappings;
+        table.getDefinition().setAdditionalProperty(WATERMARK_PROPERTY, watermark);
+        DataStoreApiSchemaEntity previousTable = previousTables.get(DataStoreApiMerger.normalizeName(table.getDefinition().getName()));
+        if (previousTable != null && watermark.equals(previousTable.getDefinition().getAdditionalProperties().get(WATERMARK_PROPERTY))) {
+            reusedTableCount.incrementAndGet();
+            return previousTable;
+        }
+        return null;
+    }
+
+    private static String hashColumns(DataStoreApiSchemaEntity table) {
+        List<DataStoreApiSchemaColumn> columns = new ArrayList<>(table.getDefinition().getProperties().values());
+        columns.sort(Comparator.comparing(DataStoreApiSchemaColumn::getName));
+        StringBuilder metadata = new StringBuilder(String.valueOf(table.getDefinition().getDescription()));
+        if (table.getDefinition().getForeignKeys() != null) {
+            for (DataStoreApiForeignKey foreignKey : table.getDefinition().getForeignKeys()) {
+                metadata.append('\u0000').append(foreignKey.getName())
+                        .append('\u0000').append(foreignKey.getColumns())
+                        .append('\u0000').append(foreignKey.getReferencedSchema())
+                        .append('\u0000').append(foreignKey.getReferencedTable())
+                        .append('\u0000').append(foreignKey.getReferencedColumns());
+            }
+        }
+        for (DataStoreApiSchemaColumn column : columns) {
+            metadata.append('\u0000').append(column.getName())
+                    .append('\u0000').append(column.getType())
+                    .append('\u0000').append(column.getPhysicalType())
+                    .append('\u0000').append(column.getFormat())
+                    .append('\u0000').append(column.getMaxLength())
+                    .append('\u0000').append(column.getPrecision())
+                    .append('\u0000').append(column.getScale())
+                    .append('\u0000').append(column.isNullable())
+                    .append('\u0000').append(column.getDescription())
+                    .append('\u0000').append(column.getOrdinalPosition())
+                    .append('\u0000').append(column.isUnique())
+                    .append('\u0000').append(column.getClusterKeyPosition());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(metadata.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
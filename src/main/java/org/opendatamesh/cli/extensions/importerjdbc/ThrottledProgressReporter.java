@@ -0,0 +1,49 @@
+package org.opendatamesh.cli.extensions.importerjdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * The default progress listener: logs a progress line at most once per interval, and every table and column
+ * at DEBUG level only.
+ */
+class ThrottledProgressReporter implements ImportProgressListener {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final long intervalNanos;
+    private long lastReportNanos = System.nanoTime();
+
+    /**
+     * @param interval the minimum time between two progress lines
+     */
+    ThrottledProgressReporter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    @Override
+    public void tablesDiscovered(int tableCount) {
+        logger.info("Found {} tables to import", tableCount);
+    }
+
+    @Override
+    public void tableCompleted(String tableName, ImportProgress progress) {
+        logger.debug("Table: {}", tableName);
+        long now = System.nanoTime();
+        if (now - lastReportNanos < intervalNanos) {
+            return;
+        }
+        lastReportNanos = now;
+        Duration estimatedRemaining = progress.getEstimatedRemaining();
+        logger.info("Imported {} of {} tables, {} columns, in {}s{}", progress.getCompletedTables(), progress.getDiscoveredTables(),
+                progress.getColumnsRead(), progress.getElapsed().getSeconds(),
+                estimatedRemaining != null ? ", about " + estimatedRemaining.getSeconds() + "s left" : "");
+    }
+
+    @Override
+    public void columnRead(String tableName, String columnName) {
+        logger.debug("--> Column: {}", columnName);
+    }
+}
@@ -1,11 +1,18 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+@JsonIgnoreProperties(value = "$schema", allowGetters = true)
 public class DataStoreAPISchemaEntityDefinition {
 
     private String title;
@@ -26,8 +33,12 @@ public class DataStoreAPISchemaEntityDefinition {
     private String physicalType;
     private String externalDocs;
     private Map<String, DataStoreApiSchemaColumn> properties = new HashMap<>();
+    private List<DataStoreApiForeignKey> foreignKeys;
+    private DataStoreApiTableStatistics statistics;
     @JsonProperty("s-context")
     private Map<String, Object> sContext;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
 
     public Map<String, DataStoreApiSchemaColumn> getProperties() {
         return properties;
@@ -37,6 +48,22 @@ public class DataStoreAPISchemaEntityDefinition {
         this.properties = properties;
     }
 
+    public List<DataStoreApiForeignKey> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public void setForeignKeys(List<DataStoreApiForeignKey> foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public DataStoreApiTableStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(DataStoreApiTableStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     public String getName() {
         return name;
     }
@@ -184,4 +211,20 @@ public class DataStoreAPISchemaEntityDefinition {
     public void setTitle(String title) {
         this.title = title;
     }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
 }
@@ -1,9 +1,19 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class DataStoreApiDefinition {
     private String datastoreapi;
     private DataStoreApiInfo info;
     private DataStoreApiSchema schema;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
 
     public String getDatastoreapi() {
         return datastoreapi;
@@ -28,4 +38,20 @@ public class DataStoreApiDefinition {
     public void setSchema(DataStoreApiSchema schema) {
         this.schema = schema;
     }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
 }
@@ -0,0 +1,89 @@
+package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A foreign key of a table: its columns reference, in the same order, the columns of a primary key
+ * or unique constraint of the referenced table.
+ */
+public class DataStoreApiForeignKey {
+    private String name;
+    private List<String> columns;
+    private String referencedCatalog;
+    private String referencedSchema;
+    private String referencedTable;
+    private List<String> referencedColumns;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public String getReferencedCatalog() {
+        return referencedCatalog;
+    }
+
+    public void setReferencedCatalog(String referencedCatalog) {
+        this.referencedCatalog = referencedCatalog;
+    }
+
+    public String getReferencedSchema() {
+        return referencedSchema;
+    }
+
+    public void setReferencedSchema(String referencedSchema) {
+        this.referencedSchema = referencedSchema;
+    }
+
+    public String getReferencedTable() {
+        return referencedTable;
+    }
+
+    public void setReferencedTable(String referencedTable) {
+        this.referencedTable = referencedTable;
+    }
+
+    public List<String> getReferencedColumns() {
+        return referencedColumns;
+    }
+
+    public void setReferencedColumns(List<String> referencedColumns) {
+        this.referencedColumns = referencedColumns;
+    }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
+}
@@ -1,5 +1,13 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 class DataStoreApiInfo {
     private String databaseName;
     private String nameSpace;
@@ -7,6 +15,8 @@ class DataStoreApiInfo {
     private String summary;
     private String version;
     private String datastoreName;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
 
     public String getDatabaseName() {
         return databaseName;
@@ -55,4 +65,20 @@ class DataStoreApiInfo {
     public void setDatastoreName(String datastoreName) {
         this.datastoreName = datastoreName;
     }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
 }
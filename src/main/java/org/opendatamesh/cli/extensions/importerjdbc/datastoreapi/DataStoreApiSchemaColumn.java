@@ -1,53 +1,87 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * A column of a table.
+ * <p>
+ * The attributes read from the database for every column are fields; the optional attributes, null in most columns,
+ * are kept in a packed array of (attribute, value) pairs, so that a catalog of millions of columns does not pay
+ * for one empty field per optional attribute.
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({
+        "type", "description", "name", "kind", "required", "displayName", "summary", "comments", "examples",
+        "status", "tags", "externalDocs", "classificationLevel", "pattern", "format", "minLength", "maxLength",
+        "contentEncoding", "contentMediaType", "precision", "scale", "minimum", "exclusiveMinimum", "maximum",
+        "exclusiveMaximum", "readOnly", "writeOnly", "physicalType", "partitionStatus", "partitionKeyPosition",
+        "clusterStatus", "clusterKeyPosition", "defaultValue", "enumValues", "ordinalPosition", "classified", "unique",
+        "nullable"
+})
 public class DataStoreApiSchemaColumn {
 
+    private static final Object[] NO_ATTRIBUTES = new Object[0];
+
     private String type;
     private String description;
     private String name;
-    private String kind;
-    private Boolean required;
-    private String displayName;
-    private String summary;
-    private String comments;
-    private List<String> examples;
-    private String status;
-    private List<String> tags;
-    private String externalDocs;
-    private String defaultValue;
-    private Boolean isClassified;
-    private String classificationLevel;
     private Boolean isUnique;
     private Boolean isNullable;
-    private String pattern;
     private String format;
-    private List<String> enumValues;
-    private Integer minLength;
     private Integer maxLength;
-    private String contentEncoding;
-    private String contentMediaType;
     private Integer precision;
     private Integer scale;
-    private Integer minimum;
-    private Boolean exclusiveMinimum;
-    private Integer maximum;
-    private Boolean exclusiveMaximum;
-    private Boolean readOnly;
-    private Boolean writeOnly;
     private String physicalType;
-    private Boolean partitionStatus;
-    private Integer partitionKeyPosition;
-    private Boolean clusterStatus;
-    private Integer clusterKeyPosition;
     private String ordinalPosition;
+    @JsonIgnore
+    private Object[] optionalAttributes = NO_ATTRIBUTES;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
+
+    /**
+     * The optional attributes of a column.
+     */
+    private enum Attribute {
+        KIND,
+        REQUIRED,
+        DISPLAY_NAME,
+        SUMMARY,
+        COMMENTS,
+        EXAMPLES,
+        STATUS,
+        TAGS,
+        EXTERNAL_DOCS,
+        DEFAULT_VALUE,
+        CLASSIFIED,
+        CLASSIFICATION_LEVEL,
+        PATTERN,
+        ENUM_VALUES,
+        MIN_LENGTH,
+        CONTENT_ENCODING,
+        CONTENT_MEDIA_TYPE,
+        MINIMUM,
+        EXCLUSIVE_MINIMUM,
+        MAXIMUM,
+        EXCLUSIVE_MAXIMUM,
+        READ_ONLY,
+        WRITE_ONLY,
+        PARTITION_STATUS,
+        PARTITION_KEY_POSITION,
+        CLUSTER_STATUS,
+        CLUSTER_KEY_POSITION
+    }
 
     public DataStoreApiSchemaColumn() {
 
@@ -95,72 +129,72 @@ public class DataStoreApiSchemaColumn {
         this.type = type;
         this.description = description;
         this.name = name;
-        this.kind = kind;
-        this.required = required;
-        this.displayName = displayName;
-        this.summary = summary;
-        this.comments = comments;
-        this.examples = examples;
-        this.status = status;
-        this.tags = tags;
-        this.externalDocs = externalDocs;
-        this.defaultValue = defaultValue;
-        this.isClassified = isClassified;
-        this.classificationLevel = classificationLevel;
+        set(Attribute.KIND, kind);
+        set(Attribute.REQUIRED, required);
+        set(Attribute.DISPLAY_NAME, displayName);
+        set(Attribute.SUMMARY, summary);
+        set(Attribute.COMMENTS, comments);
+        set(Attribute.EXAMPLES, examples);
+        set(Attribute.STATUS, status);
+        set(Attribute.TAGS, tags);
+        set(Attribute.EXTERNAL_DOCS, externalDocs);
+        set(Attribute.DEFAULT_VALUE, defaultValue);
+        set(Attribute.CLASSIFIED, isClassified);
+        set(Attribute.CLASSIFICATION_LEVEL, classificationLevel);
         this.isUnique = isUnique;
         this.isNullable = isNullable;
-        this.pattern = pattern;
+        set(Attribute.PATTERN, pattern);
         this.format = format;
-        this.enumValues = enumValues;
-        this.minLength = minLength;
+        set(Attribute.ENUM_VALUES, enumValues);
+        set(Attribute.MIN_LENGTH, minLength);
         this.maxLength = maxLength;
-        this.contentEncoding = contentEncoding;
-        this.contentMediaType = contentMediaType;
+        set(Attribute.CONTENT_ENCODING, contentEncoding);
+        set(Attribute.CONTENT_MEDIA_TYPE, contentMediaType);
         this.precision = precision;
         this.scale = scale;
-        this.minimum = minimum;
-        this.exclusiveMinimum = exclusiveMinimum;
-        this.maximum = maximum;
-        this.exclusiveMaximum = exclusiveMaximum;
-        this.readOnly = readOnly;
-        this.writeOnly = writeOnly;
+        set(Attribute.MINIMUM, minimum);
+        set(Attribute.EXCLUSIVE_MINIMUM, exclusiveMinimum);
+        set(Attribute.MAXIMUM, maximum);
+        set(Attribute.EXCLUSIVE_MAXIMUM, exclusiveMaximum);
+        set(Attribute.READ_ONLY, readOnly);
+        set(Attribute.WRITE_ONLY, writeOnly);
         this.physicalType = physicalType;
-        this.partitionStatus = partitionStatus;
-        this.partitionKeyPosition = partitionKeyPosition;
-        this.clusterStatus = clusterStatus;
-        this.clusterKeyPosition = clusterKeyPosition;
+        set(Attribute.PARTITION_STATUS, partitionStatus);
+        set(Attribute.PARTITION_KEY_POSITION, partitionKeyPosition);
+        set(Attribute.CLUSTER_STATUS, clusterStatus);
+        set(Attribute.CLUSTER_KEY_POSITION, clusterKeyPosition);
     }
 
     public Integer getClusterKeyPosition() {
-        return clusterKeyPosition;
+        return get(Attribute.CLUSTER_KEY_POSITION);
     }
 
     public void setClusterKeyPosition(Integer clusterKeyPosition) {
-        this.clusterKeyPosition = clusterKeyPosition;
+        set(Attribute.CLUSTER_KEY_POSITION, clusterKeyPosition);
     }
 
     public Boolean isClusterStatus() {
-        return clusterStatus;
+        return get(Attribute.CLUSTER_STATUS);
     }
 
     public void setClusterStatus(Boolean clusterStatus) {
-        this.clusterStatus = clusterStatus;
+        set(Attribute.CLUSTER_STATUS, clusterStatus);
     }
 
     public Integer getPartitionKeyPosition() {
-        return partitionKeyPosition;
+        return get(Attribute.PARTITION_KEY_POSITION);
     }
 
     public void setPartitionKeyPosition(Integer partitionKeyPosition) {
-        this.partitionKeyPosition = partitionKeyPosition;
+        set(Attribute.PARTITION_KEY_POSITION, partitionKeyPosition);
     }
 
     public Boolean isPartitionStatus() {
-        return partitionStatus;
+        return get(Attribute.PARTITION_STATUS);
     }
 
     public void setPartitionStatus(Boolean partitionStatus) {
-        this.partitionStatus = partitionStatus;
+        set(Attribute.PARTITION_STATUS, partitionStatus);
     }
 
     public String getPhysicalType() {
@@ -172,51 +206,51 @@ public class DataStoreApiSchemaColumn {
     }
 
     public Boolean isWriteOnly() {
-        return writeOnly;
+        return get(Attribute.WRITE_ONLY);
     }
 
     public void setWriteOnly(Boolean writeOnly) {
-        this.writeOnly = writeOnly;
+        set(Attribute.WRITE_ONLY, writeOnly);
     }
 
     public Boolean isReadOnly() {
-        return readOnly;
+        return get(Attribute.READ_ONLY);
     }
 
     public void setReadOnly(Boolean readOnly) {
-        this.readOnly = readOnly;
+        set(Attribute.READ_ONLY, readOnly);
     }
 
     public Boolean isExclusiveMaximum() {
-        return exclusiveMaximum;
+        return get(Attribute.EXCLUSIVE_MAXIMUM);
     }
 
     public void setExclusiveMaximum(Boolean exclusiveMaximum) {
-        this.exclusiveMaximum = exclusiveMaximum;
+        set(Attribute.EXCLUSIVE_MAXIMUM, exclusiveMaximum);
     }
 
     public Integer getMaximum() {
-        return maximum;
+        return get(Attribute.MAXIMUM);
     }
 
     public void setMaximum(Integer maximum) {
-        this.maximum = maximum;
+        set(Attribute.MAXIMUM, maximum);
     }
 
     public Boolean isExclusiveMinimum() {
-        return exclusiveMinimum;
+        return get(Attribute.EXCLUSIVE_MINIMUM);
     }
 
     public void setExclusiveMinimum(Boolean exclusiveMinimum) {
-        this.exclusiveMinimum = exclusiveMinimum;
+        set(Attribute.EXCLUSIVE_MINIMUM, exclusiveMinimum);
     }
 
     public Integer getMinimum() {
-        return minimum;
+        return get(Attribute.MINIMUM);
     }
 
     public void setMinimum(Integer minimum) {
-        this.minimum = minimum;
+        set(Attribute.MINIMUM, minimum);
     }
 
     public Integer getScale() {
@@ -236,19 +270,19 @@ public class DataStoreApiSchemaColumn {
     }
 
     public String getContentMediaType() {
-        return contentMediaType;
+        return get(Attribute.CONTENT_MEDIA_TYPE);
     }
 
     public void setContentMediaType(String contentMediaType) {
-        this.contentMediaType = contentMediaType;
+        set(Attribute.CONTENT_MEDIA_TYPE, contentMediaType);
     }
 
     public String getContentEncoding() {
-        return contentEncoding;
+        return get(Attribute.CONTENT_ENCODING);
     }
 
     public void setContentEncoding(String contentEncoding) {
-        this.contentEncoding = contentEncoding;
+        set(Attribute.CONTENT_ENCODING, contentEncoding);
     }
 
     public Integer getMaxLength() {
@@ -260,19 +294,19 @@ public class DataStoreApiSchemaColumn {
     }
 
     public Integer getMinLength() {
-        return minLength;
+        return get(Attribute.MIN_LENGTH);
     }
 
     public void setMinLength(Integer minLength) {
-        this.minLength = minLength;
+        set(Attribute.MIN_LENGTH, minLength);
     }
 
     public List<String> getEnumValues() {
-        return enumValues;
+        return get(Attribute.ENUM_VALUES);
     }
 
     public void setEnumValues(List<String> enumValues) {
-        this.enumValues = enumValues;
+        set(Attribute.ENUM_VALUES, enumValues);
     }
 
     public String getFormat() {
@@ -284,11 +318,11 @@ public class DataStoreApiSchemaColumn {
     }
 
     public String getPattern() {
-        return pattern;
+        return get(Attribute.PATTERN);
     }
 
     public void setPattern(String pattern) {
-        this.pattern = pattern;
+        set(Attribute.PATTERN, pattern);
     }
 
     public Boolean isNullable() {
@@ -308,99 +342,99 @@ public class DataStoreApiSchemaColumn {
     }
 
     public String getClassificationLevel() {
-        return classificationLevel;
+        return get(Attribute.CLASSIFICATION_LEVEL);
     }
 
     public void setClassificationLevel(String classificationLevel) {
-        this.classificationLevel = classificationLevel;
+        set(Attribute.CLASSIFICATION_LEVEL, classificationLevel);
     }
 
     public Boolean isClassified() {
-        return isClassified;
+        return get(Attribute.CLASSIFIED);
     }
 
     public void setClassified(Boolean classified) {
-        isClassified = classified;
+        set(Attribute.CLASSIFIED, classified);
     }
 
     public String getDefaultValue() {
-        return defaultValue;
+        return get(Attribute.DEFAULT_VALUE);
     }
 
     public void setDefaultValue(String defaultValue) {
-        this.defaultValue = defaultValue;
+        set(Attribute.DEFAULT_VALUE, defaultValue);
     }
 
     public String getExternalDocs() {
-        return externalDocs;
+        return get(Attribute.EXTERNAL_DOCS);
     }
 
     public void setExternalDocs(String externalDocs) {
-        this.externalDocs = externalDocs;
+        set(Attribute.EXTERNAL_DOCS, externalDocs);
     }
 
     public List<String> getTags() {
-        return tags;
+        return get(Attribute.TAGS);
     }
 
     public void setTags(List<String> tags) {
-        this.tags = tags;
+        set(Attribute.TAGS, tags);
     }
 
     public String getStatus() {
-        return status;
+        return get(Attribute.STATUS);
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        set(Attribute.STATUS, status);
     }
 
     public List<String> getExamples() {
-        return examples;
+        return get(Attribute.EXAMPLES);
     }
 
     public void setExamples(List<String> examples) {
-        this.examples = examples;
+        set(Attribute.EXAMPLES, examples);
     }
 
     public String getComments() {
-        return comments;
+        return get(Attribute.COMMENTS);
     }
 
     public void setComments(String comments) {
-        this.comments = comments;
+        set(Attribute.COMMENTS, comments);
     }
 
     public String getSummary() {
-        return summary;
+        return get(Attribute.SUMMARY);
     }
 
     public void setSummary(String summary) {
-        this.summary = summary;
+        set(Attribute.SUMMARY, summary);
     }
 
     public String getDisplayName() {
-        return displayName;
+        return get(Attribute.DISPLAY_NAME);
     }
 
     public void setDisplayName(String displayName) {
-        this.displayName = displayName;
+        set(Attribute.DISPLAY_NAME, displayName);
     }
 
     public Boolean isRequired() {
-        return required;
+        return get(Attribute.REQUIRED);
     }
 
     public void setRequired(Boolean required) {
-        this.required = required;
+        set(Attribute.REQUIRED, required);
     }
 
     public String getKind() {
-        return kind;
+        return get(Attribute.KIND);
     }
 
     public void setKind(String kind) {
-        this.kind = kind;
+        set(Attribute.KIND, kind);
     }
 
     public String getName() {
@@ -434,4 +468,53 @@ public class DataStoreApiSchemaColumn {
     public String getOrdinalPosition() {
         return ordinalPosition;
     }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Attribute attribute) {
+        for (int i = 0; i < optionalAttributes.length; i += 2) {
+            if (optionalAttributes[i] == attribute) {
+                return (T) optionalAttributes[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets an optional attribute, removing it when the value is null.
+     */
+    private void set(Attribute attribute, Object value) {
+        for (int i = 0; i < optionalAttributes.length; i += 2) {
+            if (optionalAttributes[i] == attribute) {
+                if (value != null) {
+                    optionalAttributes[i + 1] = value;
+                } else {
+                    Object[] remainingAttributes = Arrays.copyOf(optionalAttributes, optionalAttributes.length - 2);
+                    System.arraycopy(optionalAttributes, i + 2, remainingAttributes, i, optionalAttributes.length - i - 2);
+                    optionalAttributes = remainingAttributes.length > 0 ? remainingAttributes : NO_ATTRIBUTES;
+                }
+                return;
+            }
+        }
+        if (value != null) {
+            optionalAttributes = Arrays.copyOf(optionalAttributes, optionalAttributes.length + 2);
+            optionalAttributes[optionalAttributes.length - 2] = attribute;
+            optionalAttributes[optionalAttributes.length - 1] = value;
+        }
+    }
 }
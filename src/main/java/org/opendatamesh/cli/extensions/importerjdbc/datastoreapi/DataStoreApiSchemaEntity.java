@@ -1,13 +1,22 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @JsonDeserialize(as = DataStoreApiSchemaEntity.class)
 public class DataStoreApiSchemaEntity extends DataStoreApiSchema {
 
     private String specification;
     private String specificationVersion;
     private DataStoreAPISchemaEntityDefinition definition;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
 
 
     public String getSpecification() {
@@ -33,6 +42,20 @@ public class DataStoreApiSchemaEntity extends DataStoreApiSchema {
     public void setDefinition(DataStoreAPISchemaEntityDefinition definition) {
         this.definition = definition;
     }
-}
 
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
 
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
+}
@@ -1,8 +1,14 @@
 package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @JsonDeserialize(as = DataStoreApiSchemaResource.class)
 public class DataStoreApiSchemaResource extends DataStoreApiSchema {
@@ -13,6 +19,8 @@ public class DataStoreApiSchemaResource extends DataStoreApiSchema {
     private String databaseSchemaName;
     private String databaseName;
     private List<DataStoreApiSchemaEntity> tables;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
 
 
     public String getDatabaseSchemaName() {
@@ -71,7 +79,19 @@ public class DataStoreApiSchemaResource extends DataStoreApiSchema {
         this.mediaType = mediaType;
     }
 
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
 
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
 }
-
-
@@ -0,0 +1,71 @@
+package org.opendatamesh.cli.extensions.importerjdbc.datastoreapi;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The size of a table, read from the catalog statistics of the database rather than by scanning it.
+ * Each number is flagged as estimated when it comes from optimizer statistics, which may be stale,
+ * or as exact when the database keeps it up to date.
+ */
+public class DataStoreApiTableStatistics {
+    private Long rowCount;
+    private Boolean rowCountEstimated;
+    private Long sizeInBytes;
+    private Boolean sizeInBytesEstimated;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties;
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public Boolean getRowCountEstimated() {
+        return rowCountEstimated;
+    }
+
+    public void setRowCountEstimated(Boolean rowCountEstimated) {
+        this.rowCountEstimated = rowCountEstimated;
+    }
+
+    public Long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public void setSizeInBytes(Long sizeInBytes) {
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    public Boolean getSizeInBytesEstimated() {
+        return sizeInBytesEstimated;
+    }
+
+    public void setSizeInBytesEstimated(Boolean sizeInBytesEstimated) {
+        this.sizeInBytesEstimated = sizeInBytesEstimated;
+    }
+
+    /**
+     * Properties not modelled by this class, such as user-added extensions, kept as they are.
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new LinkedHashMap<>();
+        }
+        additionalProperties.put(name, value);
+    }
+}
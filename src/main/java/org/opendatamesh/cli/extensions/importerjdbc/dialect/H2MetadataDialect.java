@@ -0,0 +1,184 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMapping;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * H2 (2.x) dialect reading tables and columns from {@code INFORMATION_SCHEMA}.
+ */
+public class H2MetadataDialect implements MetadataDialect {
+
+    private static final String TABLES_QUERY = "SELECT t.TABLE_CATALOG AS TABLE_CAT, t.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "t.TABLE_NAME, t.REMARKS " +
+            "FROM INFORMATION_SCHEMA.TABLES t";
+
+    /**
+     * H2 keeps no DDL timestamp, and LAST_MODIFICATION also changes with the data: LAST_ALTERED is a fingerprint
+     * of the table comment, of the name, type, size, nullability and comment of each column, and of its indexes and key constraints.
+     */
+    private static final String TABLES_WITH_LAST_ALTERED_QUERY = "SELECT t.TABLE_CATALOG AS TABLE_CAT, t.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "t.TABLE_NAME, t.REMARKS, " +
+            "RAWTOHEX(HASH('SHA-256', COALESCE(t.REMARKS, '') || '|' || COALESCE(LISTAGG(c.COLUMN_NAME || ':' || c.DATA_TYPE || ':' || " +
+            "COALESCE(c.DECLARED_DATA_TYPE, '') || ':' || COALESCE(c.INTERVAL_TYPE, '') || ':' || " +
+            "COALESCE(CAST(c.CHARACTER_MAXIMUM_LENGTH AS VARCHAR), '') || ':' || COALESCE(CAST(c.NUMERIC_PRECISION AS VARCHAR), '') || ':' || " +
+            "COALESCE(CAST(c.NUMERIC_SCALE AS VARCHAR), '') || ':' || c.IS_NULLABLE || ':' || " +
+            "COALESCE(c.REMARKS, ''), '|') WITHIN GROUP (ORDER BY c.ORDINAL_POSITION), '') || '|' || " +
+            "COALESCE((SELECT LISTAGG(i.INDEX_NAME || ':' || i.COLUMN_NAME || ':' || i.IS_UNIQUE, '|') " +
+            "WITHIN GROUP (ORDER BY i.INDEX_NAME, i.ORDINAL_POSITION) FROM INFORMATION_SCHEMA.INDEX_COLUMNS i " +
+            "WHERE i.TABLE_CATALOG = t.TABLE_CATALOG AND i.TABLE_SCHEMA = t.TABLE_SCHEMA AND i.TABLE_NAME = t.TABLE_NAME), '') || '|' || " +
+            "COALESCE((SELECT LISTAGG(k.CONSTRAINT_NAME || ':' || k.COLUMN_NAME || ':' || k.ORDINAL_POSITION, '|') " +
+            "WITHIN GROUP (ORDER BY k.CONSTRAINT_NAME, k.ORDINAL_POSITION) FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+            "WHERE k.TABLE_CATALOG = t.TABLE_CATALOG AND k.TABLE_SCHEMA = t.TABLE_SCHEMA AND k.TABLE_NAME = t.TABLE_NAME), ''))) AS LAST_ALTERED " +
+            "FROM INFORMATION_SCHEMA.TABLES t " +
+            "LEFT JOIN INFORMATION_SCHEMA.COLUMNS c ON c.TABLE_CATALOG = t.TABLE_CATALOG " +
+            "AND c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME";
+
+    private static final String COLUMNS_QUERY = "SELECT c.TABLE_CATALOG AS TABLE_CAT, c.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "c.TABLE_NAME, c.COLUMN_NAME, " +
+            "CASE WHEN c.DATA_TYPE = 'INTERVAL' THEN 'INTERVAL ' || c.INTERVAL_TYPE " +
+            "WHEN c.DATA_TYPE = 'ARRAY' THEN e.DATA_TYPE || ' ARRAY' " +
+            "ELSE COALESCE(c.DECLARED_DATA_TYPE, c.DATA_TYPE) END AS TYPE_NAME, " +
+            "COALESCE(c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION) AS COLUMN_SIZE, c.NUMERIC_SCALE AS DECIMAL_DIGITS, " +
+            "c.REMARKS, c.IS_NULLABLE, c.ORDINAL_POSITION " +
+            "FROM INFORMATION_SCHEMA.COLUMNS c " +
+            "JOIN INFORMATION_SCHEMA.TABLES t ON t.TABLE_CATALOG = c.TABLE_CATALOG " +
+            "AND t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME " +
+            "LEFT JOIN INFORMATION_SCHEMA.ELEMENT_TYPES e ON e.OBJECT_CATALOG = c.TABLE_CATALOG " +
+            "AND e.OBJECT_SCHEMA = c.TABLE_SCHEMA AND e.OBJECT_NAME = c.TABLE_NAME " +
+            "AND e.OBJECT_TYPE = 'TABLE' AND e.COLLECTION_TYPE_IDENTIFIER = c.DTD_IDENTIFIER";
+
+    /**
+     * H2 creates a unique index for each primary key and unique constraint. Its tables are not clustered on an index.
+     */
+    private static final String KEYS_QUERY = "SELECT i.TABLE_CATALOG AS TABLE_CAT, i.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "i.TABLE_NAME, i.INDEX_NAME AS KEY_NAME, i.COLUMN_NAME, i.ORDINAL_POSITION AS KEY_SEQ, " +
+            "'YES' AS IS_UNIQUE, 'NO' AS IS_CLUSTERED " +
+            "FROM INFORMATION_SCHEMA.INDEX_COLUMNS i " +
+            "JOIN INFORMATION_SCHEMA.TABLES t ON t.TABLE_CATALOG = i.TABLE_CATALOG " +
+            "AND t.TABLE_SCHEMA = i.TABLE_SCHEMA AND t.TABLE_NAME = i.TABLE_NAME";
+
+    /**
+     * ROW_COUNT_ESTIMATE is kept by the storage engine, DISK_SPACE_USED adds up the pages of the table and its indexes.
+     */
+    private static final String TABLE_STATISTICS_QUERY = "SELECT t.TABLE_CATALOG AS TABLE_CAT, t.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "t.TABLE_NAME, t.ROW_COUNT_ESTIMATE AS ROW_COUNT, 'YES' AS ROW_COUNT_ESTIMATED, " +
+            "DISK_SPACE_USED(QUOTE_IDENT(t.TABLE_SCHEMA) || '.' || QUOTE_IDENT(t.TABLE_NAME)) AS SIZE_BYTES, 'NO' AS SIZE_BYTES_ESTIMATED " +
+            "FROM INFORMATION_SCHEMA.TABLES t";
+
+    private static final Map<String, Integer> JDBC_TYPES = new HashMap<>();
+
+    /**
+     * ENUM and DECFLOAT are mapped by name, since the driver and the dialect report different JDBC types for them.
+     */
+    private static final TypeMappingProfile TYPE_MAPPINGS = new TypeMappingProfile.Builder("h2", TypeMappingProfiles.GENERIC)
+            .typeName("UUID", TypeMapping.of("string", "uuid"))
+            .typeName("JSON", TypeMapping.of("object"))
+            .typeName("ENUM", TypeMapping.of("string"))
+            .typeName("DECFLOAT", TypeMapping.of("number"))
+            .build();
+
+    static {
+        JDBC_TYPES.put("CHARACTER", Types.CHAR);
+        JDBC_TYPES.put("CHARACTER VARYING", Types.VARCHAR);
+        JDBC_TYPES.put("VARCHAR_IGNORECASE", Types.VARCHAR);
+        JDBC_TYPES.put("ENUM", Types.VARCHAR);
+        JDBC_TYPES.put("CHARACTER LARGE OBJECT", Types.CLOB);
+        JDBC_TYPES.put("BINARY", Types.BINARY);
+        JDBC_TYPES.put("BINARY VARYING", Types.VARBINARY);
+        JDBC_TYPES.put("BINARY LARGE OBJECT", Types.BLOB);
+        JDBC_TYPES.put("UUID", Types.BINARY);
+        JDBC_TYPES.put("BOOLEAN", Types.BOOLEAN);
+        JDBC_TYPES.put("TINYINT", Types.TINYINT);
+        JDBC_TYPES.put("SMALLINT", Types.SMALLINT);
+        JDBC_TYPES.put("INTEGER", Types.INTEGER);
+        JDBC_TYPES.put("BIGINT", Types.BIGINT);
+        JDBC_TYPES.put("NUMERIC", Types.NUMERIC);
+        JDBC_TYPES.put("DECIMAL", Types.DECIMAL);
+        JDBC_TYPES.put("DECFLOAT", Types.NUMERIC);
+        JDBC_TYPES.put("REAL", Types.REAL);
+        JDBC_TYPES.put("FLOAT", Types.FLOAT);
+        JDBC_TYPES.put("DOUBLE PRECISION", Types.DOUBLE);
+        JDBC_TYPES.put("DATE", Types.DATE);
+        JDBC_TYPES.put("TIME", Types.TIME);
+        JDBC_TYPES.put("TIME WITH TIME ZONE", Types.TIME_WITH_TIMEZONE);
+        JDBC_TYPES.put("TIMESTAMP", Types.TIMESTAMP);
+        JDBC_TYPES.put("TIMESTAMP WITH TIME ZONE", Types.TIMESTAMP_WITH_TIMEZONE);
+        JDBC_TYPES.put("JAVA_OBJECT", Types.JAVA_OBJECT);
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return "h2";
+    }
+
+    @Override
+    public PreparedStatement prepareTablesQuery(Connection connection, MetadataQuery query) throws SQLException {
+        if (query.isLastAlteredRequested()) {
+            return filterTables(query).prepare(connection, TABLES_WITH_LAST_ALTERED_QUERY,
+                    "GROUP BY t.TABLE_TYPE, t.TABLE_CATALOG, t.TABLE_SCHEMA, t.TABLE_NAME, t.REMARKS " +
+                            "ORDER BY t.TABLE_TYPE, t.TABLE_CATALOG, t.TABLE_SCHEMA, t.TABLE_NAME");
+        }
+        return filterTables(query)
+                .prepare(connection, TABLES_QUERY, "ORDER BY t.TABLE_TYPE, t.TABLE_CATALOG, t.TABLE_SCHEMA, t.TABLE_NAME");
+    }
+
+    @Override
+    public PreparedStatement prepareColumnsQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterTables(query)
+                .prepare(connection, COLUMNS_QUERY, "ORDER BY c.TABLE_CATALOG, c.TABLE_SCHEMA, c.TABLE_NAME, c.ORDINAL_POSITION");
+    }
+
+    @Override
+    public PreparedStatement prepareKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterTables(query)
+                .condition("i.IS_UNIQUE")
+                .prepare(connection, KEYS_QUERY, "ORDER BY i.TABLE_CATALOG, i.TABLE_SCHEMA, i.TABLE_NAME, i.INDEX_NAME, i.ORDINAL_POSITION");
+    }
+
+    @Override
+    public PreparedStatement prepareTableStatisticsQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterTables(query)
+                .condition("t.TABLE_TYPE = 'BASE TABLE'")
+                .prepare(connection, TABLE_STATISTICS_QUERY, "ORDER BY t.TABLE_CATALOG, t.TABLE_SCHEMA, t.TABLE_NAME");
+    }
+
+    @Override
+    public int toJdbcType(String typeName) {
+        if (typeName == null) {
+            return Types.OTHER;
+        }
+        String normalizedTypeName = typeName.toUpperCase(Locale.ROOT);
+        if (normalizedTypeName.endsWith(" ARRAY")) {
+            return Types.ARRAY;
+        }
+        return JDBC_TYPES.getOrDefault(normalizedTypeName, Types.OTHER);
+    }
+
+    @Override
+    public TypeMappingProfile getTypeMappingProfile() {
+        return TYPE_MAPPINGS;
+    }
+
+    private SqlFilter filterTables(MetadataQuery query) {
+        List<String> tableTypes = query.getTableTypes() == null ? null : query.getTableTypes().stream()
+                .map(tableType -> tableType.trim().equalsIgnoreCase("TABLE") ? "BASE TABLE" : tableType.trim())
+                .collect(Collectors.toList());
+        return new SqlFilter()
+                .equalTo("t.TABLE_CATALOG", query.getCatalogName())
+                .like("t.TABLE_SCHEMA", query.getSchemaPattern())
+                .like("t.TABLE_NAME", query.getTablePattern())
+                .in("t.TABLE_NAME", query.getTableNames())
+                .in("t.TABLE_TYPE", tableTypes);
+    }
+}
@@ -0,0 +1,60 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Metadata queries against the standard {@code INFORMATION_SCHEMA} views, used by default by the dialects
+ * and, when the database exposes these views, by the generic path.
+ */
+public final class InformationSchemaQueries {
+
+    private static final String KEYS_QUERY = "SELECT kcu.TABLE_CATALOG AS TABLE_CAT, kcu.TABLE_SCHEMA AS TABLE_SCHEM, " +
+            "kcu.TABLE_NAME, tc.CONSTRAINT_NAME AS KEY_NAME, kcu.COLUMN_NAME, kcu.ORDINAL_POSITION AS KEY_SEQ, " +
+            "'YES' AS IS_UNIQUE, 'NO' AS IS_CLUSTERED " +
+            "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+            "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_CATALOG = tc.CONSTRAINT_CATALOG " +
+            "AND kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+            "AND kcu.TABLE_NAME = tc.TABLE_NAME";
+
+    private static final String FOREIGN_KEYS_QUERY = "SELECT pk.TABLE_CATALOG AS PKTABLE_CAT, pk.TABLE_SCHEMA AS PKTABLE_SCHEM, " +
+            "pk.TABLE_NAME AS PKTABLE_NAME, pk.COLUMN_NAME AS PKCOLUMN_NAME, " +
+            "fk.TABLE_CATALOG AS FKTABLE_CAT, fk.TABLE_SCHEMA AS FKTABLE_SCHEM, fk.TABLE_NAME AS FKTABLE_NAME, " +
+            "fk.COLUMN_NAME AS FKCOLUMN_NAME, fk.ORDINAL_POSITION AS KEY_SEQ, rc.CONSTRAINT_NAME AS FK_NAME " +
+            "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+            "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk ON fk.CONSTRAINT_CATALOG = rc.CONSTRAINT_CATALOG " +
+            "AND fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA AND fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+            "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk ON pk.CONSTRAINT_CATALOG = rc.UNIQUE_CONSTRAINT_CATALOG " +
+            "AND pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA AND pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME " +
+            "AND pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT";
+
+    private InformationSchemaQueries() {
+    }
+
+    /**
+     * Prepares the keys query described by {@link MetadataDialect#prepareKeysQuery(Connection, MetadataQuery)},
+     * reporting the primary keys and the unique constraints; unique indexes and clustering are not part of the standard views.
+     */
+    public static PreparedStatement prepareKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return new SqlFilter()
+                .condition("tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'UNIQUE')")
+                .equalTo("tc.TABLE_CATALOG", query.getCatalogName())
+                .like("tc.TABLE_SCHEMA", query.getSchemaPattern())
+                .like("tc.TABLE_NAME", query.getTablePattern())
+                .in("tc.TABLE_NAME", query.getTableNames())
+                .prepare(connection, KEYS_QUERY, "ORDER BY kcu.TABLE_CATALOG, kcu.TABLE_SCHEMA, kcu.TABLE_NAME, tc.CONSTRAINT_NAME, kcu.ORDINAL_POSITION");
+    }
+
+    /**
+     * Prepares the foreign keys query described by {@link MetadataDialect#prepareForeignKeysQuery(Connection, MetadataQuery)}.
+     */
+    public static PreparedStatement prepareForeignKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return new SqlFilter()
+                .equalTo("fk.TABLE_CATALOG", query.getCatalogName())
+                .like("fk.TABLE_SCHEMA", query.getSchemaPattern())
+                .like("fk.TABLE_NAME", query.getTablePattern())
+                .in("fk.TABLE_NAME", query.getTableNames())
+                .prepare(connection, FOREIGN_KEYS_QUERY, "ORDER BY fk.TABLE_CATALOG, fk.TABLE_SCHEMA, fk.TABLE_NAME, rc.CONSTRAINT_NAME, fk.ORDINAL_POSITION");
+    }
+}
@@ -0,0 +1,97 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Service provider interface for database specific metadata fast paths.
+ * <p>
+ * A dialect replaces the generic {@link java.sql.DatabaseMetaData} walk with set-based queries
+ * against {@code information_schema} or the system catalogs. The statements it prepares must
+ * return the same column labels as the corresponding {@link java.sql.DatabaseMetaData} methods,
+ * except for {@code DATA_TYPE}, which is derived from {@code TYPE_NAME} through {@link #toJdbcType(String)}.
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader} and must be listed in
+ * {@code META-INF/services/org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialect}.
+ */
+public interface MetadataDialect extends ProfilingQueries {
+
+    /**
+     * @return the database type handled by this dialect, as it appears in the JDBC URL
+     * ({@code jdbc:<type>:...}) and in the platform prefix ({@code <type>:<platformName>})
+     */
+    String getDatabaseType();
+
+    /**
+     * Prepares the statement listing the tables, returning TABLE_CAT, TABLE_SCHEM, TABLE_NAME and REMARKS.
+     * <p>
+     * When {@link MetadataQuery#isLastAlteredRequested()} is set, the statement may also return LAST_ALTERED:
+     * a value that changes whenever the columns or the comments of the table change, such as a DDL timestamp,
+     * a catalog row version or a fingerprint computed by the database. Incremental imports skip reading the
+     * columns of the tables whose LAST_ALTERED did not change since the previous import.
+     */
+    PreparedStatement prepareTablesQuery(Connection connection, MetadataQuery query) throws SQLException;
+
+    /**
+     * Prepares the statement listing the columns of all the selected tables, restricted to
+     * {@link MetadataQuery#getTableNames()} when set, returning TABLE_CAT, TABLE_SCHEM,
+     * TABLE_NAME, COLUMN_NAME, TYPE_NAME, COLUMN_SIZE, DECIMAL_DIGITS, REMARKS, IS_NULLABLE and ORDINAL_POSITION.
+     * COLUMN_SIZE holds the maximum length of the character types and the precision of the exact numeric types,
+     * DECIMAL_DIGITS their scale; both may be null for the other types.
+     */
+    PreparedStatement prepareColumnsQuery(Connection connection, MetadataQuery query) throws SQLException;
+
+    /**
+     * Prepares the statement listing the columns of the keys of the selected tables: their primary keys, unique
+     * constraints and unique indexes, and the index each table is clustered on. It returns TABLE_CAT, TABLE_SCHEM,
+     * TABLE_NAME, KEY_NAME, COLUMN_NAME, KEY_SEQ (the 1-based position of the column in the key), and IS_UNIQUE
+     * and IS_CLUSTERED ({@code YES} or {@code NO}).
+     * <p>
+     * The default implementation reads the standard {@code INFORMATION_SCHEMA} views, which only report primary keys
+     * and unique constraints.
+     */
+    default PreparedStatement prepareKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return InformationSchemaQueries.prepareKeysQuery(connection, query);
+    }
+
+    /**
+     * Prepares the statement listing the foreign keys of the selected tables, returning the same column labels as
+     * {@link java.sql.DatabaseMetaData#getImportedKeys}: PKTABLE_CAT, PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME,
+     * FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME, FKCOLUMN_NAME, KEY_SEQ and FK_NAME.
+     * <p>
+     * The default implementation reads the standard {@code INFORMATION_SCHEMA} views.
+     */
+    default PreparedStatement prepareForeignKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return InformationSchemaQueries.prepareForeignKeysQuery(connection, query);
+    }
+
+    /**
+     * Prepares the statement reading the size of the selected tables from the catalog statistics, without scanning
+     * them, returning TABLE_CAT, TABLE_SCHEM, TABLE_NAME, ROW_COUNT and SIZE_BYTES, either null when unknown, and
+     * ROW_COUNT_ESTIMATED and SIZE_BYTES_ESTIMATED ({@code YES} when the number comes from optimizer statistics,
+     * {@code NO} when it is exact).
+     * <p>
+     * The default implementation returns null: the tables are then looked up one by one through the approximate
+     * table statistic of {@link java.sql.DatabaseMetaData#getIndexInfo}, as on the generic path.
+     */
+    default PreparedStatement prepareTableStatisticsQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Maps a TYPE_NAME returned by the columns query to a {@link java.sql.Types} constant.
+     */
+    int toJdbcType(String typeName);
+
+    /**
+     * Returns the type mappings of the database, used on both the dialect and the generic path. The default
+     * implementation returns {@link TypeMappingProfiles#GENERIC}.
+     */
+    default TypeMappingProfile getTypeMappingProfile() {
+        return TypeMappingProfiles.GENERIC;
+    }
+}
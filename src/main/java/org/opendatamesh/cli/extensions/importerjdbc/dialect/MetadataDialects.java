@@ -0,0 +1,62 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Resolves the {@link MetadataDialect} to use for an import.
+ */
+public final class MetadataDialects {
+
+    public static final String AUTO = "auto";
+    public static final String GENERIC = "generic";
+
+    private MetadataDialects() {
+    }
+
+    /**
+     * Selects a dialect.
+     *
+     * @param dialectName {@value #GENERIC} to force the generic DatabaseMetaData path, {@value #AUTO} (or null)
+     *                    to detect the database type from the platform prefix or the JDBC URL,
+     *                    or the database type of a specific dialect
+     * @param platform    the platform, formatted as {@code <type>:<platformName>}
+     * @param jdbcUrl     the JDBC URL, formatted as {@code jdbc:<type>:...}
+     * @return the dialect, or empty when the generic path must be used
+     */
+    public static Optional<MetadataDialect> resolve(String dialectName, String platform, String jdbcUrl) {
+        if (GENERIC.equalsIgnoreCase(dialectName)) {
+            return Optional.empty();
+        }
+        if (dialectName != null && !AUTO.equalsIgnoreCase(dialectName)) {
+            return Optional.of(findByDatabaseType(dialectName)
+                    .orElseThrow(() -> new RuntimeException("Metadata dialect not found: " + dialectName)));
+        }
+        Optional<MetadataDialect> dialect = findByDatabaseType(prefixOf(platform));
+        if (dialect.isEmpty() && jdbcUrl != null && jdbcUrl.regionMatches(true, 0, "jdbc:", 0, 5)) {
+            dialect = findByDatabaseType(prefixOf(jdbcUrl.substring(5)));
+        }
+        return dialect;
+    }
+
+    private static Optional<MetadataDialect> findByDatabaseType(String databaseType) {
+        if (databaseType == null || databaseType.isBlank()) {
+            return Optional.empty();
+        }
+        for (MetadataDialect dialect : ServiceLoader.load(MetadataDialect.class, MetadataDialect.class.getClassLoader())) {
+            if (dialect.getDatabaseType().equalsIgnoreCase(databaseType)) {
+                return Optional.of(dialect);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String prefixOf(String value) {
+        if (value == null) {
+            return null;
+        }
+        int separator = value.indexOf(':');
+        return separator > 0 ? value.substring(0, separator).toLowerCase(Locale.ROOT) : null;
+    }
+}
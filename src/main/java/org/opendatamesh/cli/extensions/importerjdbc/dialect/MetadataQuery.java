@@ -0,0 +1,89 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The filters selecting the tables to import, with the same semantics as
+ * {@link java.sql.DatabaseMetaData#getTables(String, String, String, String[])}:
+ * schema and table names are LIKE patterns, a null filter matches everything.
+ */
+public final class MetadataQuery {
+
+    private final String catalogName;
+    private final String schemaPattern;
+    private final String tablePattern;
+    private final List<String> tableTypes;
+    private final List<String> tableNames;
+    private final boolean lastAlteredRequested;
+
+    public MetadataQuery(String catalogName, String schemaPattern, String tablePattern, String[] tableTypes) {
+        this(catalogName, schemaPattern, tablePattern, tableTypes != null ? List.of(tableTypes) : null, null, false);
+    }
+
+    private MetadataQuery(String catalogName, String schemaPattern, String tablePattern, List<String> tableTypes,
+                          List<String> tableNames, boolean lastAlteredRequested) {
+        this.catalogName = catalogName;
+        this.schemaPattern = schemaPattern;
+        this.tablePattern = tablePattern;
+        this.tableTypes = tableTypes;
+        this.tableNames = tableNames;
+        this.lastAlteredRequested = lastAlteredRequested;
+    }
+
+    /**
+     * @return a copy of this query further restricted to the tables with the given exact names
+     */
+    public MetadataQuery withTableNames(Collection<String> tableNames) {
+        return new MetadataQuery(catalogName, schemaPattern, tablePattern, tableTypes, List.copyOf(tableNames), lastAlteredRequested);
+    }
+
+    /**
+     * @return a copy of this query asking the tables query to return LAST_ALTERED, see {@link MetadataDialect}
+     */
+    public MetadataQuery withLastAltered() {
+        return new MetadataQuery(catalogName, schemaPattern, tablePattern, tableTypes, tableNames, true);
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaPattern() {
+        return schemaPattern;
+    }
+
+    public String getTablePattern() {
+        return tablePattern;
+    }
+
+    /**
+     * @return the JDBC table types (e.g. TABLE, VIEW), or null to select every type
+     */
+    public List<String> getTableTypes() {
+        return tableTypes;
+    }
+
+    /**
+     * @return the exact names the tables are restricted to, or null when only the patterns apply
+     */
+    public List<String> getTableNames() {
+        return tableNames;
+    }
+
+    public boolean isLastAlteredRequested() {
+        return lastAlteredRequested;
+    }
+
+    public String[] getTableTypesArray() {
+        return tableTypes != null ? tableTypes.toArray(new String[0]) : null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("catalog=%s, schema=%s, tables=%s, types=%s",
+                catalogName, schemaPattern, tablePattern,
+                tableTypes != null ? tableTypes : Collections.emptyList());
+    }
+}
@@ -0,0 +1,234 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMapping;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfile;
+import org.opendatamesh.cli.extensions.importerjdbc.typemapping.TypeMappingProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PostgreSQL dialect reading tables and columns straight from the {@code pg_catalog} system catalogs,
+ * which avoids the per-call overhead of the {@code information_schema} views used by the driver.
+ */
+public class PostgreSQLMetadataDialect implements MetadataDialect {
+
+    private static final String TABLES_QUERY = "SELECT current_database() AS TABLE_CAT, n.nspname AS TABLE_SCHEM, " +
+            "c.relname AS TABLE_NAME, obj_description(c.oid, 'pg_class') AS REMARKS " +
+            "FROM pg_catalog.pg_class c " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace";
+
+    /**
+     * PostgreSQL keeps no DDL timestamp: LAST_ALTERED combines the row versions (xmin) of the catalog rows
+     * describing the relation, its columns, their comments, its indexes and its constraints, which change with every
+     * DDL statement on them.
+     */
+    private static final String TABLES_WITH_LAST_ALTERED_QUERY = "SELECT current_database() AS TABLE_CAT, n.nspname AS TABLE_SCHEM, " +
+            "c.relname AS TABLE_NAME, obj_description(c.oid, 'pg_class') AS REMARKS, " +
+            "concat_ws(':', c.xmin::text, " +
+            "(SELECT max(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a WHERE a.attrelid = c.oid), " +
+            "(SELECT max(d.xmin::text::bigint) FROM pg_catalog.pg_description d WHERE d.objoid = c.oid " +
+            "AND d.classoid = 'pg_catalog.pg_class'::regclass), " +
+            "(SELECT count(*) || '/' || coalesce(max(i.xmin::text::bigint), 0) FROM pg_catalog.pg_index i WHERE i.indrelid = c.oid), " +
+            "(SELECT count(*) || '/' || coalesce(max(k.xmin::text::bigint), 0) FROM pg_catalog.pg_constraint k WHERE k.conrelid = c.oid)) AS LAST_ALTERED " +
+            "FROM pg_catalog.pg_class c " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace";
+
+    private static final String COLUMNS_QUERY = "SELECT current_database() AS TABLE_CAT, n.nspname AS TABLE_SCHEM, " +
+            "c.relname AS TABLE_NAME, a.attname AS COLUMN_NAME, t.typname AS TYPE_NAME, " +
+            // The type modifier holds the declared length of the character types and the precision and scale of numeric
+            "CASE WHEN a.atttypmod > 4 AND t.typname IN ('varchar', 'bpchar') THEN a.atttypmod - 4 " +
+            "WHEN a.atttypmod > 4 AND t.typname = 'numeric' THEN ((a.atttypmod - 4) >> 16) & 65535 END AS COLUMN_SIZE, " +
+            "CASE WHEN a.atttypmod > 4 AND t.typname = 'numeric' THEN (a.atttypmod - 4) & 65535 END AS DECIMAL_DIGITS, " +
+            "col_description(c.oid, a.attnum) AS REMARKS, " +
+            "CASE WHEN a.attnotnull THEN 'NO' ELSE 'YES' END AS IS_NULLABLE, a.attnum AS ORDINAL_POSITION " +
+            "FROM pg_catalog.pg_attribute a " +
+            "JOIN pg_catalog.pg_class c ON c.oid = a.attrelid " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "JOIN pg_catalog.pg_type t ON t.oid = a.atttypid";
+
+    /**
+     * The key columns of the indexes: expression and partial indexes are left out, since they do not make their
+     * columns unique, as well as the non-key INCLUDE columns.
+     */
+    private static final String KEYS_QUERY = "SELECT current_database() AS TABLE_CAT, n.nspname AS TABLE_SCHEM, " +
+            "c.relname AS TABLE_NAME, ic.relname AS KEY_NAME, a.attname AS COLUMN_NAME, k.ord AS KEY_SEQ, " +
+            "CASE WHEN i.indisunique THEN 'YES' ELSE 'NO' END AS IS_UNIQUE, " +
+            "CASE WHEN i.indisclustered THEN 'YES' ELSE 'NO' END AS IS_CLUSTERED " +
+            "FROM pg_catalog.pg_index i " +
+            "JOIN pg_catalog.pg_class c ON c.oid = i.indrelid " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "JOIN pg_catalog.pg_class ic ON ic.oid = i.indexrelid " +
+            "CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord) " +
+            "JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = k.attnum";
+
+    /**
+     * Reads pg_constraint directly: the information_schema views only show the constraints of the tables owned by the current user.
+     */
+    private static final String FOREIGN_KEYS_QUERY = "SELECT current_database() AS PKTABLE_CAT, pn.nspname AS PKTABLE_SCHEM, " +
+            "pc.relname AS PKTABLE_NAME, pa.attname AS PKCOLUMN_NAME, " +
+            "current_database() AS FKTABLE_CAT, n.nspname AS FKTABLE_SCHEM, c.relname AS FKTABLE_NAME, " +
+            "a.attname AS FKCOLUMN_NAME, k.ord AS KEY_SEQ, con.conname AS FK_NAME " +
+            "FROM pg_catalog.pg_constraint con " +
+            "JOIN pg_catalog.pg_class c ON c.oid = con.conrelid " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "JOIN pg_catalog.pg_class pc ON pc.oid = con.confrelid " +
+            "JOIN pg_catalog.pg_namespace pn ON pn.oid = pc.relnamespace " +
+            "CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(attnum, refattnum, ord) " +
+            "JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = k.attnum " +
+            "JOIN pg_catalog.pg_attribute pa ON pa.attrelid = pc.oid AND pa.attnum = k.refattnum";
+
+    /**
+     * reltuples is the row count estimated by the last VACUUM or ANALYZE, -1 when the table was never analyzed.
+     * A partitioned table adds up its leaf partitions. The size covers the indexes and the TOAST data too.
+     */
+    private static final String TABLE_STATISTICS_QUERY = "SELECT current_database() AS TABLE_CAT, n.nspname AS TABLE_SCHEM, " +
+            "c.relname AS TABLE_NAME, CASE WHEN s.min_tuples >= 0 THEN s.tuples::bigint END AS ROW_COUNT, 'YES' AS ROW_COUNT_ESTIMATED, " +
+            "s.size_bytes AS SIZE_BYTES, 'NO' AS SIZE_BYTES_ESTIMATED " +
+            "FROM pg_catalog.pg_class c " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "CROSS JOIN LATERAL (SELECT sum(l.reltuples) AS tuples, min(l.reltuples) AS min_tuples, " +
+            "sum(pg_total_relation_size(l.oid))::bigint AS size_bytes FROM pg_catalog.pg_class l " +
+            "WHERE (c.relkind <> 'p' AND l.oid = c.oid) " +
+            "OR (c.relkind = 'p' AND l.oid IN (SELECT t.relid FROM pg_partition_tree(c.oid) t WHERE t.isleaf))) s";
+
+    private static final Map<String, String> RELATION_KINDS = new HashMap<>();
+    private static final Map<String, Integer> JDBC_TYPES = new HashMap<>();
+
+    /**
+     * The driver reports {@code uuid}, {@code json} and {@code jsonb} as {@code OTHER}: they are told apart by name.
+     * Unbounded {@code text} has no maximum length.
+     */
+    private static final TypeMappingProfile TYPE_MAPPINGS = new TypeMappingProfile.Builder("postgresql", TypeMappingProfiles.GENERIC)
+            .typeName("uuid", TypeMapping.of("string", "uuid"))
+            .typeName("json", TypeMapping.of("object"))
+            .typeName("jsonb", TypeMapping.of("object"))
+            .typeName("timestamptz", TypeMapping.of("string", "date-time"))
+            .typeName("timetz", TypeMapping.of("string", "time"))
+            .typeName("text", TypeMapping.of("string"))
+            .typeName("money", TypeMapping.of("number"))
+            .build();
+
+    static {
+        RELATION_KINDS.put("TABLE", "r");
+        RELATION_KINDS.put("PARTITIONED TABLE", "p");
+        RELATION_KINDS.put("VIEW", "v");
+        RELATION_KINDS.put("MATERIALIZED VIEW", "m");
+        RELATION_KINDS.put("FOREIGN TABLE", "f");
+
+        JDBC_TYPES.put("int2", Types.SMALLINT);
+        JDBC_TYPES.put("int4", Types.INTEGER);
+        JDBC_TYPES.put("oid", Types.BIGINT);
+        JDBC_TYPES.put("int8", Types.BIGINT);
+        JDBC_TYPES.put("money", Types.DOUBLE);
+        JDBC_TYPES.put("numeric", Types.NUMERIC);
+        JDBC_TYPES.put("float4", Types.REAL);
+        JDBC_TYPES.put("float8", Types.DOUBLE);
+        JDBC_TYPES.put("char", Types.CHAR);
+        JDBC_TYPES.put("bpchar", Types.CHAR);
+        JDBC_TYPES.put("varchar", Types.VARCHAR);
+        JDBC_TYPES.put("text", Types.VARCHAR);
+        JDBC_TYPES.put("name", Types.VARCHAR);
+        JDBC_TYPES.put("bytea", Types.BINARY);
+        JDBC_TYPES.put("bool", Types.BIT);
+        JDBC_TYPES.put("bit", Types.BIT);
+        JDBC_TYPES.put("date", Types.DATE);
+        JDBC_TYPES.put("time", Types.TIME);
+        JDBC_TYPES.put("timetz", Types.TIME);
+        JDBC_TYPES.put("timestamp", Types.TIMESTAMP);
+        JDBC_TYPES.put("timestamptz", Types.TIMESTAMP);
+        JDBC_TYPES.put("refcursor", Types.REF_CURSOR);
+        JDBC_TYPES.put("json", Types.OTHER);
+        JDBC_TYPES.put("jsonb", Types.OTHER);
+        JDBC_TYPES.put("uuid", Types.OTHER);
+        JDBC_TYPES.put("xml", Types.SQLXML);
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return "postgresql";
+    }
+
+    @Override
+    public PreparedStatement prepareTablesQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterRelations(query)
+                .prepare(connection, query.isLastAlteredRequested() ? TABLES_WITH_LAST_ALTERED_QUERY : TABLES_QUERY,
+                        "ORDER BY c.relkind, n.nspname, c.relname");
+    }
+
+    @Override
+    public PreparedStatement prepareColumnsQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterRelations(query)
+                .condition("a.attnum > 0")
+                .condition("NOT a.attisdropped")
+                .prepare(connection, COLUMNS_QUERY, "ORDER BY n.nspname, c.relname, a.attnum");
+    }
+
+    @Override
+    public PreparedStatement prepareKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterRelations(query)
+                .condition("(i.indisunique OR i.indisclustered)")
+                .condition("i.indpred IS NULL")
+                .condition("i.indexprs IS NULL")
+                .condition("k.ord <= i.indnkeyatts")
+                .prepare(connection, KEYS_QUERY, "ORDER BY n.nspname, c.relname, ic.relname, k.ord");
+    }
+
+    @Override
+    public PreparedStatement prepareForeignKeysQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterRelations(query)
+                .condition("con.contype = 'f'")
+                .prepare(connection, FOREIGN_KEYS_QUERY, "ORDER BY n.nspname, c.relname, con.conname, k.ord");
+    }
+
+    @Override
+    public PreparedStatement prepareTableStatisticsQuery(Connection connection, MetadataQuery query) throws SQLException {
+        return filterRelations(query)
+                .condition("c.relkind IN ('r', 'p', 'm')")
+                .prepare(connection, TABLE_STATISTICS_QUERY, "ORDER BY n.nspname, c.relname");
+    }
+
+    @Override
+    public int toJdbcType(String typeName) {
+        if (typeName == null) {
+            return Types.OTHER;
+        }
+        // Array types are named after their element type with a leading underscore
+        if (typeName.startsWith("_")) {
+            return Types.ARRAY;
+        }
+        return JDBC_TYPES.getOrDefault(typeName.toLowerCase(Locale.ROOT), Types.OTHER);
+    }
+
+    @Override
+    public TypeMappingProfile getTypeMappingProfile() {
+        return TYPE_MAPPINGS;
+    }
+
+    private SqlFilter filterRelations(MetadataQuery query) {
+        Set<String> relationKinds = new LinkedHashSet<>();
+        if (query.getTableTypes() != null) {
+            for (String tableType : query.getTableTypes()) {
+                String relationKind = RELATION_KINDS.get(tableType.trim().toUpperCase(Locale.ROOT));
+                if (relationKind != null) {
+                    relationKinds.add(relationKind);
+                }
+            }
+        } else {
+            relationKinds.addAll(RELATION_KINDS.values());
+        }
+        return new SqlFilter()
+                .equalTo("current_database()", query.getCatalogName())
+                .like("n.nspname", query.getSchemaPattern())
+                .like("c.relname", query.getTablePattern())
+                .in("c.relname", query.getTableNames())
+                .in("CAST(c.relkind AS text)", relationKinds);
+    }
+}
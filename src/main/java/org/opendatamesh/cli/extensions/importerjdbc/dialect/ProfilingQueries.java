@@ -0,0 +1,38 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+/**
+ * Builds the queries of the column profiling. Every {@link MetadataDialect} is one; {@link #STANDARD} keeps the
+ * standard SQL defaults for the databases without a dialect.
+ */
+public interface ProfilingQueries {
+
+    /**
+     * The standard SQL queries, used when no dialect is selected.
+     */
+    ProfilingQueries STANDARD = new ProfilingQueries() {
+    };
+
+    /**
+     * Builds the query selecting a sample of at most {@code rows} rows of a table, used by the column profiling.
+     * Dialects may override it with a sampling clause such as {@code TABLESAMPLE}. The default implementation
+     * keeps the first rows with the standard {@code FETCH FIRST} clause.
+     *
+     * @param selectList the comma separated, quoted columns to select
+     * @param table      the quoted, qualified name of the table
+     */
+    default String sampleQuery(String selectList, String table, int rows) {
+        return "SELECT " + selectList + " FROM " + table + " FETCH FIRST " + rows + " ROWS ONLY";
+    }
+
+    /**
+     * Builds the query selecting at most {@code limit} distinct non-null values of a column, used by the enum
+     * detection. Unlike {@link #sampleQuery}, it must read the whole table, so that a column returning fewer values
+     * than the limit is known to hold no other value.
+     *
+     * @param column the quoted column
+     * @param table  the quoted, qualified name of the table
+     */
+    default String distinctValuesQuery(String column, String table, int limit) {
+        return "SELECT DISTINCT " + column + " FROM " + table + " WHERE " + column + " IS NOT NULL FETCH FIRST " + limit + " ROWS ONLY";
+    }
+}
@@ -0,0 +1,67 @@
+package org.opendatamesh.cli.extensions.importerjdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Builds the WHERE clause of a dialect query, skipping the filters whose value is null.
+ */
+class SqlFilter {
+
+    private final StringJoiner conditions = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+    private final List<Object> parameters = new ArrayList<>();
+
+    SqlFilter condition(String condition) {
+        conditions.add(condition);
+        return this;
+    }
+
+    SqlFilter equalTo(String column, String value) {
+        if (value != null) {
+            conditions.add(column + " = ?");
+            parameters.add(value);
+        }
+        return this;
+    }
+
+    SqlFilter like(String column, String pattern) {
+        if (pattern != null) {
+            conditions.add(column + " LIKE ?");
+            parameters.add(pattern);
+        }
+        return this;
+    }
+
+    SqlFilter in(String column, Collection<String> values) {
+        if (values != null) {
+            StringJoiner placeholders = new StringJoiner(", ", column + " IN (", ")");
+            values.forEach(value -> {
+                placeholders.add("?");
+                parameters.add(value);
+            });
+            conditions.add(values.isEmpty() ? "1 = 0" : placeholders.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Prepares {@code select + where clause + suffix} and binds the filter values.
+     */
+    PreparedStatement prepare(Connection connection, String select, String suffix) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(select + conditions + " " + suffix);
+        try {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,147 @@
+package org.opendatamesh.cli.extensions.importerjdbc.typemapping;
+
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The JSON schema type of a SQL type: its {@code type}, its {@code format}, and which size facets are filled
+ * from the column metadata.
+ */
+public final class TypeMapping {
+
+    /**
+     * The size facets of a column filled from COLUMN_SIZE and DECIMAL_DIGITS.
+     */
+    public enum Facets {
+        /**
+         * No size facet.
+         */
+        NONE,
+        /**
+         * {@code maxLength} from COLUMN_SIZE, for character types.
+         */
+        LENGTH,
+        /**
+         * {@code precision} from COLUMN_SIZE and {@code scale} from DECIMAL_DIGITS, for exact numeric types.
+         */
+        PRECISION_SCALE;
+
+        /**
+         * @param value {@code none}, {@code length} or {@code precision-scale}
+         */
+        public static Facets fromParameter(String value) {
+            if (value == null || value.equalsIgnoreCase("none")) {
+                return NONE;
+            }
+            if (value.equalsIgnoreCase("length")) {
+                return LENGTH;
+            }
+            if (value.equalsIgnoreCase("precision-scale")) {
+                return PRECISION_SCALE;
+            }
+            throw new RuntimeException("Unsupported type mapping facets: " + value + ". Allowed values are: none, length, precision-scale");
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final String type;
+    private final String format;
+    private final Facets facets;
+
+    /**
+     * @param type   the JSON schema type, such as {@code string} or {@code integer}
+     * @param format the JSON schema format, such as {@code date-time} or {@code uuid}, or null
+     * @param facets the size facets filled from the column metadata
+     */
+    public TypeMapping(String type, String format, Facets facets) {
+        if (type == null) {
+            throw new RuntimeException("Missing JSON schema type in type mapping");
+        }
+        this.type = type;
+        this.format = format;
+        this.facets = facets != null ? facets : Facets.NONE;
+    }
+
+    public static TypeMapping of(String type) {
+        return new TypeMapping(type, null, Facets.NONE);
+    }
+
+    public static TypeMapping of(String type, String format) {
+        return new TypeMapping(type, format, Facets.NONE);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Facets getFacets() {
+        return facets;
+    }
+
+    /**
+     * Sets the type, the format and the size facets of a column. COLUMN_SIZE and DECIMAL_DIGITS are only read
+     * when the facets need them, as {@code long} so that no value is boxed before it is set on the column.
+     *
+     * @param columns the current row of a columns query, with the labels of {@link java.sql.DatabaseMetaData#getColumns}
+     */
+    public void applyTo(DataStoreApiSchemaColumn column, ResultSet columns) throws SQLException {
+        column.setType(type);
+        if (format != null) {
+            column.setFormat(format);
+        }
+        switch (facets) {
+            case LENGTH:
+                long maxLength = columns.getLong("COLUMN_SIZE");
+                if (!columns.wasNull() && maxLength > 0 && maxLength <= Integer.MAX_VALUE) {
+                    column.setMaxLength((int) maxLength);
+                }
+                break;
+            case PRECISION_SCALE:
+                long precision = columns.getLong("COLUMN_SIZE");
+                if (!columns.wasNull() && precision > 0 && precision <= Integer.MAX_VALUE) {
+                    column.setPrecision((int) precision);
+                    long scale = columns.getLong("DECIMAL_DIGITS");
+                    if (!columns.wasNull() && scale >= 0 && scale <= precision) {
+                        column.setScale((int) scale);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TypeMapping)) {
+            return false;
+        }
+        TypeMapping that = (TypeMapping) o;
+        return type.equals(that.type) && Objects.equals(format, that.format) && facets == that.facets;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, format, facets);
+    }
+
+    @Override
+    public String toString() {
+        return type + (format != null ? "/" + format : "") + (facets != Facets.NONE ? " (" + facets + ")" : "");
+    }
+}
@@ -0,0 +1,180 @@
+package org.opendatamesh.cli.extensions.importerjdbc.typemapping;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A set of type mappings compiled into lookup tables: one keyed by the {@link java.sql.Types} constant of a
+ * column (DATA_TYPE), one keyed by its database type name (TYPE_NAME) ignoring case. A type name mapping takes
+ * precedence over the mapping of its JDBC type, so that types sharing a JDBC type, such as PostgreSQL
+ * {@code uuid} and {@code jsonb}, can be told apart.
+ * <p>
+ * Both tables use open addressing over arrays: a lookup neither boxes the JDBC type nor allocates a lower-cased
+ * copy of the type name. Profiles are immutable and shared by all imports.
+ */
+public final class TypeMappingProfile {
+
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+
+    private final String name;
+    private final TypeMapping defaultMapping;
+    private final int[] jdbcTypeKeys;
+    private final TypeMapping[] jdbcTypeMappings;
+    private final String[] typeNameKeys;
+    private final TypeMapping[] typeNameMappings;
+    private final Map<Integer, TypeMapping> jdbcTypes;
+    private final Map<String, TypeMapping> typeNames;
+
+    private TypeMappingProfile(Builder builder) {
+        this.name = builder.name;
+        this.defaultMapping = builder.defaultMapping;
+        this.jdbcTypes = new LinkedHashMap<>(builder.jdbcTypes);
+        this.typeNames = new LinkedHashMap<>(builder.typeNames);
+
+        int jdbcTypeCapacity = capacity(jdbcTypes.size());
+        this.jdbcTypeKeys = new int[jdbcTypeCapacity];
+        this.jdbcTypeMappings = new TypeMapping[jdbcTypeCapacity];
+        Arrays.fill(jdbcTypeKeys, EMPTY_KEY);
+        jdbcTypes.forEach((jdbcType, mapping) -> {
+            int slot = jdbcTypeSlot(jdbcType);
+            while (jdbcTypeKeys[slot] != EMPTY_KEY) {
+                slot = (slot + 1) & (jdbcTypeCapacity - 1);
+            }
+            jdbcTypeKeys[slot] = jdbcType;
+            jdbcTypeMappings[slot] = mapping;
+        });
+
+        int typeNameCapacity = capacity(typeNames.size());
+        this.typeNameKeys = new String[typeNameCapacity];
+        this.typeNameMappings = new TypeMapping[typeNameCapacity];
+        typeNames.forEach((typeName, mapping) -> {
+            int slot = typeNameSlot(typeName);
+            while (typeNameKeys[slot] != null) {
+                slot = (slot + 1) & (typeNameCapacity - 1);
+            }
+            typeNameKeys[slot] = typeName.intern();
+            typeNameMappings[slot] = mapping;
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param jdbcType the {@link java.sql.Types} constant of the column
+     * @param typeName the database type name of the column, or null
+     * @return the mapping of the type name if any, otherwise the mapping of the JDBC type, otherwise the default mapping
+     */
+    public TypeMapping map(int jdbcType, String typeName) {
+        if (typeName != null) {
+            int mask = typeNameKeys.length - 1;
+            for (int slot = typeNameSlot(typeName); typeNameKeys[slot] != null; slot = (slot + 1) & mask) {
+                String key = typeNameKeys[slot];
+                // Drivers often return the interned constants of their type names
+                if (key == typeName || key.equalsIgnoreCase(typeName)) {
+                    return typeNameMappings[slot];
+                }
+            }
+        }
+        int mask = jdbcTypeKeys.length - 1;
+        for (int slot = jdbcTypeSlot(jdbcType); jdbcTypeKeys[slot] != EMPTY_KEY; slot = (slot + 1) & mask) {
+            if (jdbcTypeKeys[slot] == jdbcType) {
+                return jdbcTypeMappings[slot];
+            }
+        }
+        return defaultMapping;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private int jdbcTypeSlot(int jdbcType) {
+        int hash = jdbcType * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (jdbcTypeKeys.length - 1);
+    }
+
+    /**
+     * Hashes the type name as its upper case would be hashed by {@link String#hashCode()}, without building it.
+     */
+    private int typeNameSlot(String typeName) {
+        int hash = 0;
+        for (int i = 0; i < typeName.length(); i++) {
+            hash = 31 * hash + Character.toUpperCase(typeName.charAt(i));
+        }
+        return (hash ^ (hash >>> 16)) & (typeNameKeys.length - 1);
+    }
+
+    /**
+     * @return a power of two at least twice the number of entries, so that probe sequences stay short
+     */
+    private static int capacity(int size) {
+        int capacity = 4;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Builds a {@link TypeMappingProfile}, empty or starting from the mappings of another profile.
+     */
+    public static class Builder {
+        private final String name;
+        private TypeMapping defaultMapping = TypeMapping.of("string");
+        private final Map<Integer, TypeMapping> jdbcTypes = new LinkedHashMap<>();
+        private final Map<String, TypeMapping> typeNames = new LinkedHashMap<>();
+
+        public Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Starts from the mappings of a profile, to override or extend them.
+         */
+        public Builder(String name, TypeMappingProfile base) {
+            this.name = name;
+            this.defaultMapping = base.defaultMapping;
+            this.jdbcTypes.putAll(base.jdbcTypes);
+            base.typeNames.forEach(this::typeName);
+        }
+
+        /**
+         * @param jdbcType a {@link java.sql.Types} constant
+         */
+        public Builder jdbcType(int jdbcType, TypeMapping mapping) {
+            if (jdbcType == EMPTY_KEY) {
+                throw new RuntimeException("Invalid JDBC type: " + jdbcType);
+            }
+            jdbcTypes.put(jdbcType, mapping);
+            return this;
+        }
+
+        /**
+         * @param typeName a database type name, matched ignoring case
+         */
+        public Builder typeName(String typeName, TypeMapping mapping) {
+            typeNames.keySet().removeIf(existingTypeName -> existingTypeName.equalsIgnoreCase(typeName));
+            typeNames.put(typeName, mapping);
+            return this;
+        }
+
+        /**
+         * @param defaultMapping the mapping of the types mapped neither by type name nor by JDBC type
+         */
+        public Builder defaultMapping(TypeMapping defaultMapping) {
+            this.defaultMapping = defaultMapping;
+            return this;
+        }
+
+        public TypeMappingProfile build() {
+            if (name == null) {
+                throw new RuntimeException("Missing type mapping profile name");
+            }
+            return new TypeMappingProfile(this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.opendatamesh.cli.extensions.importerjdbc.typemapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The built-in generic profile, and the user overrides layered over a profile.
+ * <p>
+ * The profiles of specific databases are provided by their {@link org.opendatamesh.cli.extensions.importerjdbc.dialect.MetadataDialect}.
+ */
+public final class TypeMappingProfiles {
+
+    /**
+     * Maps the {@link Types} constants of the JDBC specification, whatever the database.
+     */
+    public static final TypeMappingProfile GENERIC = new TypeMappingProfile.Builder("generic")
+            .jdbcType(Types.VARCHAR, new TypeMapping("string", null, TypeMapping.Facets.LENGTH))
+            .jdbcType(Types.CHAR, new TypeMapping("string", null, TypeMapping.Facets.LENGTH))
+            .jdbcType(Types.LONGVARCHAR, TypeMapping.of("string"))
+            .jdbcType(Types.NVARCHAR, new TypeMapping("string", null, TypeMapping.Facets.LENGTH))
+            .jdbcType(Types.NCHAR, new TypeMapping("string", null, TypeMapping.Facets.LENGTH))
+            .jdbcType(Types.LONGNVARCHAR, TypeMapping.of("string"))
+
+            .jdbcType(Types.INTEGER, TypeMapping.of("integer"))
+            .jdbcType(Types.SMALLINT, TypeMapping.of("integer"))
+            .jdbcType(Types.TINYINT, TypeMapping.of("integer"))
+            .jdbcType(Types.BIGINT, TypeMapping.of("integer"))
+
+            .jdbcType(Types.FLOAT, TypeMapping.of("number"))
+            .jdbcType(Types.REAL, TypeMapping.of("number"))
+            .jdbcType(Types.DOUBLE, TypeMapping.of("number"))
+            .jdbcType(Types.NUMERIC, new TypeMapping("number", null, TypeMapping.Facets.PRECISION_SCALE))
+            .jdbcType(Types.DECIMAL, new TypeMapping("number", null, TypeMapping.Facets.PRECISION_SCALE))
+
+            .jdbcType(Types.BOOLEAN, TypeMapping.of("boolean"))
+            .jdbcType(Types.BIT, TypeMapping.of("boolean"))
+
+            .jdbcType(Types.DATE, TypeMapping.of("string", "date"))
+            .jdbcType(Types.TIME, TypeMapping.of("string", "time"))
+            .jdbcType(Types.TIME_WITH_TIMEZONE, TypeMapping.of("string", "time"))
+            .jdbcType(Types.TIMESTAMP, TypeMapping.of("string", "date-time"))
+            .jdbcType(Types.TIMESTAMP_WITH_TIMEZONE, TypeMapping.of("string", "date-time"))
+
+            .jdbcType(Types.BLOB, TypeMapping.of("string"))
+            .jdbcType(Types.CLOB, TypeMapping.of("string"))
+            .jdbcType(Types.NCLOB, TypeMapping.of("string"))
+            .jdbcType(Types.BINARY, TypeMapping.of("string"))
+            .jdbcType(Types.VARBINARY, TypeMapping.of("string"))
+            .jdbcType(Types.LONGVARBINARY, TypeMapping.of("string"))
+            .jdbcType(Types.SQLXML, TypeMapping.of("string"))
+
+            .jdbcType(Types.ARRAY, TypeMapping.of("array"))
+            .jdbcType(Types.OTHER, TypeMapping.of("string"))
+            .defaultMapping(TypeMapping.of("string"))
+            .build();
+
+    private TypeMappingProfiles() {
+    }
+
+    /**
+     * Layers the mappings of a JSON file over a profile:
+     * <pre>
+     * {
+     *   "typeNames": {"citext": {"type": "string", "facets": "length"}, "geometry": {"type": "object"}},
+     *   "jdbcTypes": {"OTHER": {"type": "string"}, "TIMESTAMP": {"type": "string", "format": "date-time"}}
+     * }
+     * </pre>
+     * The JDBC types are named as the {@link JDBCType} constants. The facets are {@code none} (default),
+     * {@code length} or {@code precision-scale}.
+     *
+     * @return a new profile, named after the base profile and the content of the file
+     * @throws RuntimeException if the file cannot be read or holds an invalid mapping
+     */
+    public static TypeMappingProfile withOverrides(TypeMappingProfile base, Path overridesFile) {
+        byte[] content;
+        JsonNode overrides;
+        try {
+            content = Files.readAllBytes(overridesFile);
+            overrides = new ObjectMapper().readTree(content);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading the type mappings " + overridesFile, e);
+        }
+        TypeMappingProfile.Builder builder = new TypeMappingProfile.Builder(
+                base.getName() + "+" + Integer.toHexString(Arrays.hashCode(content)), base);
+        for (Iterator<Map.Entry<String, JsonNode>> typeNames = overrides.path("typeNames").fields(); typeNames.hasNext(); ) {
+            Map.Entry<String, JsonNode> typeName = typeNames.next();
+            builder.typeName(typeName.getKey(), toTypeMapping(typeName.getKey(), typeName.getValue()));
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> jdbcTypes = overrides.path("jdbcTypes").fields(); jdbcTypes.hasNext(); ) {
+            Map.Entry<String, JsonNode> jdbcType = jdbcTypes.next();
+            int vendorTypeNumber;
+            try {
+                vendorTypeNumber = JDBCType.valueOf(jdbcType.getKey().toUpperCase(Locale.ROOT)).getVendorTypeNumber();
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown JDBC type in the type mappings: " + jdbcType.getKey(), e);
+            }
+            builder.jdbcType(vendorTypeNumber, toTypeMapping(jdbcType.getKey(), jdbcType.getValue()));
+        }
+        return builder.build();
+    }
+
+    private static TypeMapping toTypeMapping(String key, JsonNode mapping) {
+        if (!mapping.path("type").isTextual()) {
+            throw new RuntimeException("Missing JSON schema type in the type mapping of " + key);
+        }
+        return new TypeMapping(mapping.path("type").asText(),
+                mapping.path("format").isTextual() ? mapping.path("format").asText() : null,
+                TypeMapping.Facets.fromParameter(mapping.path("facets").isTextual() ? mapping.path("facets").asText() : null));
+    }
+}
@@ -1,5 +1,6 @@
 package org.opendatamesh.cli.extensions.importerjdbc;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,16 +9,38 @@ import org.h2.tools.RunScript;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.opendatamesh.cli.extensions.OdmCliBaseConfiguration;
 import org.opendatamesh.cli.extensions.importer.ImporterArguments;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiDefinition;
+import org.opendatamesh.cli.extensions.importerjdbc.datastoreapi.DataStoreApiSchemaColumn;
 import org.opendatamesh.dpds.model.core.ComponentBase;
 import org.opendatamesh.dpds.model.interfaces.Port;
 
 import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,7 +62,18 @@ class ImporterJDBCExtensionTest {
                             "    id INT PRIMARY KEY,\n" +
                             "    name VARCHAR(255) NOT NULL,\n" +
                             "    created_at TIMESTAMP\n" +
-                            ");"
+                            ");\n" +
+                            "CREATE SCHEMA IF NOT EXISTS bulk_schema;\n" +
+                            "CREATE TABLE bulk_schema.orders (id INT PRIMARY KEY, customer_id INT, total DECIMAL(10,2));\n" +
+                            "CREATE TABLE bulk_schema.order_lines (id INT PRIMARY KEY, order_id INT, sku VARCHAR(64));\n" +
+                            "CREATE TABLE bulk_schema.orderXlines (id INT PRIMARY KEY, note VARCHAR(64));\n" +
+                            "CREATE VIEW bulk_schema.orders_view AS SELECT id, total FROM bulk_schema.orders;\n" +
+                            "CREATE SCHEMA IF NOT EXISTS types_schema;\n" +
+                            "CREATE TABLE types_schema.all_types (id BIGINT PRIMARY KEY, code CHAR(3), label VARCHAR(20) NOT NULL, " +
+                            "amount DECIMAL(10,2), ratio DOUBLE PRECISION, flag BOOLEAN, created DATE, updated TIMESTAMP WITH TIME ZONE, " +
+                            "payload BLOB, notes CLOB, tags INTEGER ARRAY, uid UUID, doc JSON, period INTERVAL DAY);\n" +
+                            "COMMENT ON TABLE types_schema.all_types IS 'All the supported types';\n" +
+                            "COMMENT ON COLUMN types_schema.all_types.label IS 'The label';"
             ));
         }
     }
@@ -121,6 +155,950 @@ class ImporterJDBCExtensionTest {
 
     }
 
+    @Test
+    void testTypedMergeMatchesJsonMerge() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        ComponentBase existingDefinition = loadPortFromTestResources().getPromises().getApi().getDefinition();
+        ComponentBase importedDefinition = importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition();
+        ObjectNode existingJson = objectMapper.valueToTree(existingDefinition);
+
+        DataStoreApiDefinition typedMerge = DataStoreApiMerger.mergeDataStoreApi(
+                objectMapper.convertValue(existingDefinition, DataStoreApiDefinition.class),
+                objectMapper.convertValue(importedDefinition, DataStoreApiDefinition.class));
+        JsonNode jsonMerge = DataStoreApiMerger.mergeDataStoreApi(existingJson, objectMapper.valueToTree(importedDefinition));
+
+        assertEquals(jsonMerge, objectMapper.valueToTree(typedMerge));
+        assertEquals(existingJson, objectMapper.valueToTree(existingDefinition), "The existing definition should not be modified");
+    }
+
+    @Test
+    void testColumnOptionalAttributesRoundTrip() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        DataStoreApiSchemaColumn imported = new DataStoreApiSchemaColumn();
+        imported.setType("string");
+        imported.setDescription("The label");
+        imported.setName("LABEL");
+        imported.setKind("column");
+        imported.setTags(List.of("pii"));
+        imported.setFormat("text");
+        imported.setMaxLength(20);
+        imported.setPhysicalType("CHARACTER VARYING");
+        imported.setClusterKeyPosition(1);
+        imported.setDefaultValue("none");
+        imported.setEnumValues(List.of("A", "B"));
+        imported.setOrdinalPosition("3");
+        imported.setClassified(false);
+        imported.setUnique(true);
+        imported.setNullable(false);
+        imported.setAdditionalProperty("x-note", "kept");
+        // The column as serialized before the optional attributes were packed: existing port files must not be reordered
+        assertEquals("{\"type\":\"string\",\"description\":\"The label\",\"name\":\"LABEL\",\"kind\":\"column\",\"tags\":[\"pii\"]," +
+                        "\"format\":\"text\",\"maxLength\":20,\"physicalType\":\"CHARACTER VARYING\",\"clusterKeyPosition\":1," +
+                        "\"defaultValue\":\"none\",\"enumValues\":[\"A\",\"B\"],\"ordinalPosition\":\"3\",\"classified\":false," +
+                        "\"unique\":true,\"nullable\":false,\"x-note\":\"kept\"}",
+                objectMapper.writeValueAsString(imported));
+
+        ObjectNode existingJson = objectMapper.valueToTree(loadPortFromTestResources().getPromises().getApi().getDefinition());
+        assertEquals(existingJson, objectMapper.valueToTree(objectMapper.convertValue(existingJson, DataStoreApiDefinition.class)),
+                "Packing the optional attributes should not change the definition");
+
+        DataStoreApiSchemaColumn column = new DataStoreApiSchemaColumn();
+        column.setName("STATUS");
+        column.setClusterKeyPosition(2);
+        column.setEnumValues(List.of("OPEN", "CLOSED"));
+        column.setKind("column");
+        column.setClusterKeyPosition(1);
+        assertEquals(1, column.getClusterKeyPosition());
+        assertEquals(List.of("OPEN", "CLOSED"), column.getEnumValues());
+        column.setEnumValues(null);
+        assertNull(column.getEnumValues());
+        assertEquals("column", column.getKind());
+        assertEquals(Set.of("name", "kind", "clusterKeyPosition"), fieldNames(objectMapper.valueToTree(column)));
+    }
+
+    @Test
+    void testMergeMatchesNamesIgnoringCase() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        ObjectNode importedJson = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+
+        // An existing definition written when identifiers were reported in lower case
+        ObjectNode existingJson = importedJson.deepCopy();
+        ObjectNode existingTable = (ObjectNode) existingJson.path("schema").path("tables").get(0).path("definition");
+        existingTable.put("name", "test_table").put("x-owner-note", "preserved-table-property");
+        ObjectNode existingColumns = existingTable.objectNode();
+        existingTable.path("properties").fields().forEachRemaining(column -> existingColumns.set(column.getKey().toLowerCase(Locale.ROOT), column.getValue()));
+        ((ObjectNode) existingColumns.path("id")).put("x-column-note", "preserved-column-property");
+        existingTable.set("properties", existingColumns);
+
+        JsonNode jsonMerge = DataStoreApiMerger.mergeDataStoreApi(existingJson, importedJson);
+        JsonNode typedMerge = objectMapper.valueToTree(DataStoreApiMerger.mergeDataStoreApi(
+                objectMapper.convertValue(existingJson, DataStoreApiDefinition.class),
+                objectMapper.convertValue(importedJson, DataStoreApiDefinition.class)));
+
+        for (JsonNode merge : List.of(jsonMerge, typedMerge)) {
+            JsonNode tables = merge.path("schema").path("tables");
+            assertEquals(1, tables.size(), "Tables differing only by case should be merged");
+            JsonNode table = tables.get(0).path("definition");
+            assertEquals("TEST_TABLE", table.path("name").asText());
+            assertEquals("preserved-table-property", table.path("x-owner-note").asText());
+            assertEquals(Set.of("ID", "NAME", "CREATED_AT"), fieldNames(table.path("properties")));
+            assertEquals("preserved-column-property", table.path("properties").path("ID").path("x-column-note").asText());
+        }
+    }
+
+    @Test
+    void testImportElementWithBulkColumnFetch() throws JsonProcessingException {
+        setOption("--schemaName", "BULK_SCHEMA");
+        setOption("--tableTypes", "TABLE");
+        setOption("--metadataDialect", "generic");
+        setOption("--columnFetchMode", "bulk");
+        Port bulkPort = importerJDBC.importElement(null, importerArguments);
+
+        setOption("--columnFetchMode", "per-table");
+        Port perTablePort = importerJDBC.importElement(null, importerArguments);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode bulkDefinition = objectMapper.valueToTree(bulkPort.getPromises().getApi().getDefinition());
+        JsonNode perTableDefinition = objectMapper.valueToTree(perTablePort.getPromises().getApi().getDefinition());
+        assertEquals(perTableDefinition, bulkDefinition);
+
+        JsonNode tables = bulkDefinition.path("schema").path("tables");
+        assertEquals(3, tables.size(), "The view should be excluded by the table type filter");
+        for (JsonNode table : tables) {
+            JsonNode columns = table.path("definition").path("properties");
+            switch (table.path("definition").path("name").asText()) {
+                case "ORDERS":
+                    assertEquals(Set.of("ID", "CUSTOMER_ID", "TOTAL"), fieldNames(columns));
+                    break;
+                case "ORDER_LINES":
+                    assertEquals(Set.of("ID", "ORDER_ID", "SKU"), fieldNames(columns));
+                    break;
+                case "ORDERXLINES":
+                    assertEquals(Set.of("ID", "NOTE"), fieldNames(columns));
+                    break;
+                default:
+                    fail("Unexpected table " + table.path("definition").path("name").asText());
+            }
+        }
+    }
+
+    @Test
+    void testImportElementWithParallelism() throws JsonProcessingException {
+        setOption("--schemaName", "BULK_SCHEMA");
+        setOption("--metadataDialect", "generic");
+        Port serialPort = importerJDBC.importElement(null, importerArguments);
+
+        setOption("--parallelism", "3");
+        Port parallelPort = importerJDBC.importElement(null, importerArguments);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(
+                objectMapper.writeValueAsString(serialPort.getPromises().getApi().getDefinition()),
+                objectMapper.writeValueAsString(parallelPort.getPromises().getApi().getDefinition())
+        );
+    }
+
+    @Test
+    void testImportElementWithMetadataDialect() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String schema : List.of("TEST_SCHEMA", "BULK_SCHEMA", "TYPES_SCHEMA")) {
+            setOption("--schemaName", schema);
+            setOption("--tableTypes", "TABLE,VIEW");
+
+            setOption("--metadataDialect", "generic");
+            JsonNode genericDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+
+            setOption("--metadataDialect", "auto");
+            JsonNode dialectDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+
+            assertEquals(genericDefinition, dialectDefinition, "Dialect and generic metadata differ for schema " + schema);
+        }
+    }
+
+    @Test
+    void testImportElementWithTypeMappings(@TempDir Path tempDir) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        setOption("--schemaName", "TYPES_SCHEMA");
+        JsonNode columns = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()))
+                .get("ALL_TYPES").path("definition").path("properties");
+
+        assertEquals("integer", columns.path("ID").path("type").asText());
+        assertFalse(columns.path("ID").has("precision"), "Integers should not get a precision");
+        assertEquals(3, columns.path("CODE").path("maxLength").asInt());
+        assertEquals(20, columns.path("LABEL").path("maxLength").asInt());
+        assertEquals(10, columns.path("AMOUNT").path("precision").asInt());
+        assertEquals(2, columns.path("AMOUNT").path("scale").asInt());
+        assertEquals("date", columns.path("CREATED").path("format").asText());
+        assertEquals("date-time", columns.path("UPDATED").path("format").asText());
+        assertEquals("uuid", columns.path("UID").path("format").asText(), "UUID should be told apart from the other binary types");
+        assertEquals("object", columns.path("DOC").path("type").asText());
+        assertEquals("array", columns.path("TAGS").path("type").asText());
+        assertFalse(columns.path("NOTES").has("maxLength"), "Large objects should not get a maximum length");
+        assertEquals("integer", SQLToJsonSchemaMapper.mapSqlTypeToJsonSchema(Types.BIGINT));
+
+        Path typeMappingFile = tempDir.resolve("type-mappings.json");
+        Files.writeString(typeMappingFile, "{\"typeNames\": {\"uuid\": {\"type\": \"string\", \"format\": \"uuid-v4\"}}, " +
+                "\"jdbcTypes\": {\"DOUBLE\": {\"type\": \"number\", \"format\": \"double\"}}}");
+        setOption("--typeMappingFile", typeMappingFile.toString());
+        for (String metadataDialect : List.of("auto", "generic")) {
+            setOption("--metadataDialect", metadataDialect);
+            JsonNode overriddenColumns = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()))
+                    .get("ALL_TYPES").path("definition").path("properties");
+            assertEquals("uuid-v4", overriddenColumns.path("UID").path("format").asText(), "Type names should be overridden ignoring case");
+            assertEquals("double", overriddenColumns.path("RATIO").path("format").asText());
+            assertEquals(3, overriddenColumns.path("CODE").path("maxLength").asInt(), "The other mappings should be kept");
+        }
+
+        Files.writeString(typeMappingFile, "{\"jdbcTypes\": {\"NOT_A_TYPE\": {\"type\": \"string\"}}}");
+        assertThrows(RuntimeException.class, () -> importerJDBC.importElement(null, importerArguments));
+    }
+
+    @Test
+    void testImportElementWithColumnProfiling(@TempDir Path tempDir) throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA profile_a;\n" +
+                            "CREATE TABLE profile_a.readings (id BIGINT PRIMARY KEY, station VARCHAR(16), note CLOB, " +
+                            "reading DECIMAL(6,2), taken DATE, flag BOOLEAN);\n" +
+                            "INSERT INTO profile_a.readings VALUES (1, 'north', 'a', 9.25, DATE '2024-03-01', TRUE), " +
+                            "(2, 'south-east', 'b', 1.50, DATE '2024-01-15', FALSE), (3, 'west', NULL, NULL, DATE '2024-02-01', NULL), " +
+                            "(4, 'north', 'c', 4.00, DATE '2024-01-20', TRUE), (5, 'east', 'd', 2.75, DATE '2024-02-10', FALSE);\n" +
+                            "CREATE SCHEMA profile_b;\n" +
+                            "CREATE TABLE profile_b.readings (id INT PRIMARY KEY, label VARCHAR(8));\n" +
+                            "INSERT INTO profile_b.readings VALUES (100, 'x'), (101, 'yy'), (102, 'zzz');\n" +
+                            "CREATE TABLE profile_b.empty_readings (id INT PRIMARY KEY, label VARCHAR(8));"
+            ));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        setOption("--schemaName", "PROFILE\\_%");
+        Map<String, JsonNode> unprofiledTables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        assertFalse(unprofiledTables.get("PROFILE_A.READINGS").path("definition").path("properties").path("ID").has("minimum"),
+                "Columns should not be profiled by default");
+
+        setOption("--profileColumns", "true");
+        setOption("--parallelism", "2");
+        Map<String, JsonNode> tables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        JsonNode columns = tables.get("PROFILE_A.READINGS").path("definition").path("properties");
+        assertEquals(1, columns.path("ID").path("minimum").asInt());
+        assertEquals(5, columns.path("ID").path("maximum").asInt());
+        assertEquals(4, columns.path("STATION").path("minLength").asInt());
+        assertEquals(16, columns.path("STATION").path("maxLength").asInt(), "The declared length should be kept");
+        assertEquals(List.of("east", "west"), objectMapper.convertValue(columns.path("STATION").path("examples"), List.class));
+        assertEquals(List.of("1.50", "9.25"), objectMapper.convertValue(columns.path("READING").path("examples"), List.class));
+        assertEquals(List.of("2024-01-15", "2024-03-01"), objectMapper.convertValue(columns.path("TAKEN").path("examples"), List.class));
+        assertFalse(columns.path("NOTE").has("examples"), "Large objects should not be profiled");
+        assertFalse(columns.path("FLAG").has("examples"), "Booleans should not be profiled");
+        assertEquals(100, tables.get("PROFILE_B.READINGS").path("definition").path("properties").path("ID").path("minimum").asInt(),
+                "Each table should be profiled in its own schema");
+        assertFalse(tables.get("PROFILE_B.EMPTY_READINGS").path("definition").path("properties").path("ID").has("minimum"));
+
+        // A row budget of a single sample leaves the other tables unprofiled
+        setOption("--parallelism", "1");
+        setOption("--profileSampleRows", "3");
+        setOption("--profileRowBudget", "3");
+        Map<String, JsonNode> budgetedTables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        long profiledTableCount = budgetedTables.values().stream()
+                .filter(table -> table.path("definition").path("properties").path("ID").has("maximum"))
+                .count();
+        assertEquals(1, profiledTableCount, "The row budget should stop the profiling");
+
+        setOption("--profileRowBudget", null);
+        setOption("--schemaName", "PROFILE_A");
+        Path definitionFile = tempDir.resolve("definition.json");
+        setOption("--definitionFile", definitionFile.toString());
+        importerJDBC.importElement(null, importerArguments);
+        JsonNode streamedColumns = tablesByName(objectMapper.readTree(definitionFile.toFile())).get("READINGS").path("definition").path("properties");
+        assertEquals(3, streamedColumns.path("ID").path("maximum").asInt(), "Streamed tables should be profiled from a sample of the rows");
+    }
+
+    @Test
+    void testImportElementWithEnumDetection() throws Exception {
+        StringBuilder script = new StringBuilder("CREATE SCHEMA enum_schema;\n" +
+                "CREATE TABLE enum_schema.tickets (id INT PRIMARY KEY, status VARCHAR(16), code VARCHAR(16), " +
+                "note VARCHAR(200), closed_reason VARCHAR(8));\n");
+        for (int i = 0; i < 20; i++) {
+            script.append(String.format("INSERT INTO enum_schema.tickets VALUES (%d, '%s', 'T-%d', 'ok', NULL);%n",
+                    i, List.of("OPEN", "CLOSED", "PENDING").get(i % 3), i));
+        }
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(script.toString()));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        setOption("--schemaName", "ENUM_SCHEMA");
+        setOption("--detectEnums", "true");
+        setOption("--enumMaxValues", "5");
+        for (String profileColumns : List.of("false", "true")) {
+            setOption("--profileColumns", profileColumns);
+            JsonNode columns = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()))
+                    .get("TICKETS").path("definition").path("properties");
+            assertEquals(List.of("CLOSED", "OPEN", "PENDING"), objectMapper.convertValue(columns.path("STATUS").path("enumValues"), List.class),
+                    "Small domains should be detected, with or without a profile");
+            assertFalse(columns.path("CODE").has("enumValues"), "Columns with more distinct values than the maximum should not be enums");
+            assertFalse(columns.path("NOTE").has("enumValues"), "Columns longer than the maximum length should not be probed");
+            assertFalse(columns.path("CLOSED_REASON").has("enumValues"), "Columns without values should not be enums");
+            assertFalse(columns.path("ID").has("enumValues"));
+        }
+
+        setOption("--enumMaxValues", "2");
+        JsonNode columns = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()))
+                .get("TICKETS").path("definition").path("properties");
+        assertFalse(columns.path("STATUS").has("enumValues"));
+    }
+
+    @Test
+    void testImportElementWithTableStatistics() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA stats_schema;\n" +
+                            "CREATE TABLE stats_schema.events (id INT PRIMARY KEY, kind VARCHAR(16));\n" +
+                            "INSERT INTO stats_schema.events VALUES (1, 'a'), (2, 'b'), (3, 'c');\n" +
+                            "CREATE VIEW stats_schema.event_kinds AS SELECT DISTINCT kind FROM stats_schema.events;"
+            ));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        setOption("--schemaName", "STATS_SCHEMA");
+        Map<String, JsonNode> tables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        assertFalse(tables.get("EVENTS").path("definition").has("statistics"), "Statistics should only be read on request");
+
+        setOption("--tableStatistics", "true");
+        setOption("--incremental", "true");
+        Port port = importerJDBC.importElement(null, importerArguments);
+        tables = tablesByName(objectMapper.valueToTree(port.getPromises().getApi().getDefinition()));
+        JsonNode statistics = tables.get("EVENTS").path("definition").path("statistics");
+        assertEquals(3, statistics.path("rowCount").asLong());
+        assertTrue(statistics.path("rowCountEstimated").asBoolean());
+        assertTrue(statistics.path("sizeInBytes").isNumber());
+        assertFalse(statistics.path("sizeInBytesEstimated").asBoolean());
+        assertFalse(tables.get("EVENT_KINDS").path("definition").has("statistics"), "Views have no statistics");
+
+        // The unchanged table is reused, with its current statistics
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader("INSERT INTO stats_schema.events VALUES (4, 'd'), (5, 'e');"));
+        }
+        tables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(port, importerArguments).getPromises().getApi().getDefinition()));
+        assertEquals(5, tables.get("EVENTS").path("definition").path("statistics").path("rowCount").asLong());
+
+        // The H2 driver reports no table statistic through getIndexInfo
+        setOption("--incremental", "false");
+        setOption("--metadataDialect", "generic");
+        tables = tablesByName(objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        assertFalse(tables.get("EVENTS").path("definition").has("statistics"));
+    }
+
+    @Test
+    void testImportElementWithIndexInfoTableStatistics() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA index_stats_schema;\n" +
+                            "CREATE TABLE index_stats_schema.events (id INT PRIMARY KEY);\n" +
+                            "CREATE TABLE index_stats_schema.broken (id INT PRIMARY KEY);\n" +
+                            "CREATE VIEW index_stats_schema.event_ids AS SELECT id FROM index_stats_schema.events;"
+            ));
+        }
+        IndexStatisticsDriver driver = new IndexStatisticsDriver();
+        DriverManager.registerDriver(driver);
+        try {
+            OdmCliBaseConfiguration.SystemConfig systemConfig = new OdmCliBaseConfiguration.SystemConfig();
+            systemConfig.setName("testConnection");
+            systemConfig.setEndpoint(IndexStatisticsDriver.PREFIX + JDBC_URL.substring("jdbc:".length()));
+            systemConfig.setUser(JDBC_USER);
+            systemConfig.setPassword(JDBC_PASSWORD);
+            OdmCliBaseConfiguration config = new OdmCliBaseConfiguration();
+            config.setSystems(List.of(systemConfig));
+            importerArguments.setOdmCliConfig(config);
+            setOption("--schemaName", "INDEX_STATS_SCHEMA");
+            setOption("--metadataDialect", "generic");
+            setOption("--tableStatistics", "true");
+
+            Map<String, JsonNode> tables = tablesByName(new ObjectMapper().valueToTree(importerJDBC.importElement(null, importerArguments)
+                    .getPromises().getApi().getDefinition()));
+            JsonNode statistics = tables.get("EVENTS").path("definition").path("statistics");
+            assertEquals(42, statistics.path("rowCount").asLong());
+            assertTrue(statistics.path("rowCountEstimated").asBoolean());
+            assertFalse(statistics.has("sizeInBytes"), "The pages of the table statistic have no known size");
+            assertTrue(tables.containsKey("BROKEN"), "A failed statistics lookup should not fail the import");
+            assertFalse(tables.get("BROKEN").path("definition").has("statistics"));
+            assertFalse(tables.get("EVENT_IDS").path("definition").has("statistics"));
+            assertEquals(Set.of("BROKEN unique=true", "EVENTS unique=true"), new HashSet<>(driver.lookups),
+                    "Only the base tables should be looked up, for their unique indexes");
+        } finally {
+            DriverManager.deregisterDriver(driver);
+        }
+    }
+
+    @Test
+    void testImportElementWithPatchFile(@TempDir Path tempDir) throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA patch_schema;\n" +
+                            "CREATE TABLE patch_schema.accounts (id INT PRIMARY KEY, note VARCHAR(20));\n" +
+                            "CREATE TABLE patch_schema.users (id INT PRIMARY KEY);"
+            ));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path patchFile = tempDir.resolve("patches/port.patch.json");
+        setOption("--schemaName", "PATCH_SCHEMA");
+        setOption("--patchFile", patchFile.toString());
+
+        Port port = importerJDBC.importElement(null, importerArguments);
+        JsonNode patch = objectMapper.readTree(patchFile.toFile());
+        assertEquals(1, patch.size());
+        assertEquals("add", patch.path(0).path("op").asText());
+        assertEquals("", patch.path(0).path("path").asText());
+        assertEquals(objectMapper.valueToTree(port.getPromises().getApi().getDefinition()), patch.path(0).path("value"));
+
+        port = importerJDBC.importElement(port, importerArguments);
+        assertEquals(0, objectMapper.readTree(patchFile.toFile()).size(), "An unchanged import should produce an empty patch");
+
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "ALTER TABLE patch_schema.accounts DROP COLUMN note;\n" +
+                            "CREATE TABLE patch_schema.orders (id INT PRIMARY KEY);"
+            ));
+        }
+        ObjectNode definition = objectMapper.valueToTree(port.getPromises().getApi().getDefinition());
+        int accountsIndex = tableNames(definition).indexOf("ACCOUNTS");
+        importerJDBC.importElement(port, importerArguments);
+        patch = objectMapper.readTree(patchFile.toFile());
+        Set<String> operations = new HashSet<>();
+        patch.forEach(operation -> operations.add(operation.path("op").asText() + " " + operation.path("path").asText()));
+        assertEquals(Set.of("remove /schema/tables/" + accountsIndex + "/definition/properties/NOTE", "add /schema/tables/2"), operations);
+        assertEquals("ORDERS", patch.path(1).path("value").path("definition").path("name").asText());
+
+        setOption("--definitionFile", tempDir.resolve("definition.json").toString());
+        assertThrows(RuntimeException.class, () -> importerJDBC.importElement(null, importerArguments));
+    }
+
+    @Test
+    void testImportElementWithStreamedDefinition(@TempDir Path tempDir) throws Exception {
+        setOption("--schemaName", "BULK_SCHEMA");
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode inMemoryDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+
+        Path definitionFile = tempDir.resolve("definition.json");
+        setOption("--definitionFile", definitionFile.toString());
+        Port port = importerJDBC.importElement(null, importerArguments);
+
+        JsonNode reference = objectMapper.valueToTree(port.getPromises().getApi().getDefinition());
+        assertEquals(definitionFile.toString(), reference.path("$ref").asText());
+        JsonNode streamedDefinition = objectMapper.readTree(definitionFile.toFile());
+        assertEquals(inMemoryDefinition.path("datastoreapi"), streamedDefinition.path("datastoreapi"));
+        assertEquals(inMemoryDefinition.path("schema").path("databaseSchemaName"), streamedDefinition.path("schema").path("databaseSchemaName"));
+        assertEquals(tablesByName(inMemoryDefinition), tablesByName(streamedDefinition));
+    }
+
+    @Test
+    void testImportElementWithStreamedDefinitionAndPatch(@TempDir Path tempDir) throws Exception {
+        Path definitionFile = tempDir.resolve("definition.json");
+        setOption("--definitionFile", definitionFile.toString());
+        Port port = importerJDBC.importElement(loadPortFromTestResources(), importerArguments);
+
+        String jsonDefinition = Files.readString(definitionFile);
+        assertTrue(jsonDefinition.contains("TEST_TABLE"), "Extracted metadata should contain 'TEST_TABLE'");
+        assertTrue(jsonDefinition.contains("CREATED_AT"), "Extracted metadata should contain column 'CREATED_AT'");
+        assertFalse(jsonDefinition.contains("to_be_removed"), "Extracted metadata should not contain text 'to_be_removed'");
+        assertFalse(jsonDefinition.contains("should-be-updated"), "Extracted metadata should not contain text 'should-be-updated'");
+        assertTrue(jsonDefinition.contains("preserved-table-property"), "Extracted metadata should contain text 'preserved-table-property'");
+        assertTrue(jsonDefinition.contains("preserved-column-property"), "Extracted metadata should contain text 'preserved-column-property'");
+
+        // A second import merges into the definition file referenced by the port
+        Port reimportedPort = importerJDBC.importElement(port, importerArguments);
+        assertNotNull(reimportedPort.getPromises().getApi().getDefinition());
+        assertTrue(Files.readString(definitionFile).contains("preserved-column-property"), "Re-import should preserve 'preserved-column-property'");
+    }
+
+    @Test
+    void testImportElementIncrementally(@TempDir Path tempDir) throws Exception {
+        for (String metadataDialect : List.of("auto", "generic")) {
+            String schemaName = "INCREMENTAL_" + metadataDialect.toUpperCase(Locale.ROOT);
+            try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+                RunScript.execute(conn, new StringReader(
+                        "CREATE SCHEMA " + schemaName + ";\n" +
+                                "CREATE TABLE " + schemaName + ".unchanged_table (id INT PRIMARY KEY, label VARCHAR(20));\n" +
+                                "CREATE TABLE " + schemaName + ".altered_table (id INT PRIMARY KEY);"
+                ));
+            }
+            setOption("--schemaName", schemaName);
+            setOption("--metadataDialect", metadataDialect);
+            setOption("--incremental", "true");
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            Port port = importerJDBC.importElement(null, importerArguments);
+            ObjectNode definition = objectMapper.valueToTree(port.getPromises().getApi().getDefinition());
+            Map<String, JsonNode> tables = tablesByName(definition);
+            assertTrue(tables.get("UNCHANGED_TABLE").path("definition").has(TableWatermarks.WATERMARK_PROPERTY), metadataDialect + ": watermark expected");
+
+            // Tag the stored entry of the unchanged table: it survives only if the table is not read again
+            ((ObjectNode) tables.get("UNCHANGED_TABLE").path("definition").path("properties").path("LABEL")).put("physicalType", "NOT_READ_AGAIN");
+            port.getPromises().getApi().setDefinition(objectMapper.treeToValue(definition, ComponentBase.class));
+            try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+                RunScript.execute(conn, new StringReader("ALTER TABLE " + schemaName + ".altered_table ADD COLUMN note VARCHAR(20);"));
+            }
+
+            Port reimportedPort = importerJDBC.importElement(port, importerArguments);
+            Map<String, JsonNode> reimportedTables = tablesByName(objectMapper.valueToTree(reimportedPort.getPromises().getApi().getDefinition()));
+            assertEquals("NOT_READ_AGAIN", reimportedTables.get("UNCHANGED_TABLE").path("definition").path("properties").path("LABEL").path("physicalType").asText(),
+                    metadataDialect + ": the unchanged table should be reused");
+            assertEquals(Set.of("ID", "NOTE"), fieldNames(reimportedTables.get("ALTERED_TABLE").path("definition").path("properties")),
+                    metadataDialect + ": the altered table should be read again");
+
+            try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+                RunScript.execute(conn, new StringReader("ALTER TABLE " + schemaName + ".unchanged_table ALTER COLUMN label SET DATA TYPE VARCHAR(50);"));
+            }
+            Port resizedPort = importerJDBC.importElement(reimportedPort, importerArguments);
+            JsonNode resizedLabel = tablesByName(objectMapper.valueToTree(resizedPort.getPromises().getApi().getDefinition()))
+                    .get("UNCHANGED_TABLE").path("definition").path("properties").path("LABEL");
+            assertEquals(50, resizedLabel.path("maxLength").asInt(), metadataDialect + ": a resized column should be read again");
+
+            Path typeMappingFile = tempDir.resolve(schemaName + ".json");
+            Files.writeString(typeMappingFile, "{\"typeNames\": {\"CHARACTER VARYING\": {\"type\": \"string\", \"format\": \"text\", \"facets\": \"length\"}}}");
+            setOption("--typeMappingFile", typeMappingFile.toString());
+            Port remappedPort = importerJDBC.importElement(resizedPort, importerArguments);
+            setOption("--typeMappingFile", null);
+            JsonNode remappedLabel = tablesByName(objectMapper.valueToTree(remappedPort.getPromises().getApi().getDefinition()))
+                    .get("UNCHANGED_TABLE").path("definition").path("properties").path("LABEL");
+            assertEquals("text", remappedLabel.path("format").asText(), metadataDialect + ": new type mappings should map the columns again");
+        }
+    }
+
+    @Test
+    void testImportElementWithSnapshotCache(@TempDir Path tempDir) throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA snapshot_schema;\n" +
+                            "CREATE TABLE snapshot_schema.orders (id INT PRIMARY KEY, total DECIMAL(10,2));\n" +
+                            "CREATE VIEW snapshot_schema.orders_view AS SELECT id FROM snapshot_schema.orders;"
+            ));
+        }
+        setOption("--schemaName", "SNAPSHOT_SCHEMA");
+        setOption("--snapshotCacheDir", tempDir.toString());
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        JsonNode importedDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        try (var snapshots = Files.list(tempDir)) {
+            assertEquals(1, snapshots.filter(file -> file.toString().endsWith(".smile")).count(), "A snapshot should be saved");
+        }
+
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader("ALTER TABLE snapshot_schema.orders ADD COLUMN note VARCHAR(20);"));
+        }
+        JsonNode cachedDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        assertEquals(importedDefinition, cachedDefinition, "The second import should be served by the snapshot");
+
+        setOption("--snapshotCacheTtl", "PT0S");
+        JsonNode refreshedDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        assertTrue(fieldNames(tablesByName(refreshedDefinition).get("ORDERS").path("definition").path("properties")).contains("NOTE"),
+                "An expired snapshot should be read again from the database");
+
+        MetadataSnapshotCache snapshotCache = new MetadataSnapshotCache(tempDir, Duration.ofHours(1), 0);
+        snapshotCache.evict();
+        try (var snapshots = Files.list(tempDir)) {
+            assertEquals(0, snapshots.count(), "Snapshots beyond the maximum size should be evicted");
+        }
+    }
+
+    @Test
+    void testImportElementWithSeveralSchemas() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA multi_sales;\n" +
+                            "CREATE TABLE multi_sales.orders (id INT PRIMARY KEY, total DECIMAL(10,2));\n" +
+                            "CREATE TABLE multi_sales.customers (id INT PRIMARY KEY, name VARCHAR(64));\n" +
+                            "CREATE SCHEMA multi_hr;\n" +
+                            "CREATE TABLE multi_hr.orders (id INT PRIMARY KEY, employee_id INT);\n" +
+                            "CREATE SCHEMA multiXother;\n" +
+                            "CREATE TABLE multiXother.ignored (id INT PRIMARY KEY);"
+            ));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        setOption("--parallelism", "2");
+
+        setOption("--schemaName", "MULTI\\_%");
+        JsonNode patternDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        assertEquals(List.of("MULTI_HR.ORDERS", "MULTI_SALES.CUSTOMERS", "MULTI_SALES.ORDERS"), tableNames(patternDefinition),
+                "The tables of every matching schema should be imported, qualified by their schema");
+        assertTrue(fieldNames(tablesByName(patternDefinition).get("MULTI_HR.ORDERS").path("definition").path("properties")).contains("EMPLOYEE_ID"));
+
+        setOption("--schemaName", "MULTI_SALES, MULTI_HR");
+        setOption("--metadataDialect", "generic");
+        JsonNode listDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        assertEquals(List.of("MULTI_SALES.CUSTOMERS", "MULTI_SALES.ORDERS", "MULTI_HR.ORDERS"), tableNames(listDefinition),
+                "The schemas should be imported in the order of the list");
+    }
+
+    @Test
+    void testImportElementWithKeys() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA keys_schema;\n" +
+                            "CREATE TABLE keys_schema.accounts (id INT PRIMARY KEY, code VARCHAR(10) UNIQUE, region VARCHAR(10), " +
+                            "branch INT, email VARCHAR(64), note VARCHAR(64), CONSTRAINT region_branch UNIQUE (region, branch));\n" +
+                            "CREATE UNIQUE INDEX accounts_email ON keys_schema.accounts (email);"
+            ));
+        }
+        setOption("--schemaName", "KEYS_SCHEMA");
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        JsonNode dialectDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        JsonNode columns = tablesByName(dialectDefinition).get("ACCOUNTS").path("definition").path("properties");
+        assertTrue(columns.path("ID").path("unique").asBoolean(), "The primary key column should be unique");
+        assertTrue(columns.path("CODE").path("unique").asBoolean(), "The unique constraint column should be unique");
+        assertTrue(columns.path("EMAIL").path("unique").asBoolean(), "The unique index column should be unique");
+        assertFalse(columns.path("REGION").path("unique").asBoolean(true), "A column of a composite unique key should not be unique");
+        assertFalse(columns.path("NOTE").path("unique").asBoolean(true));
+
+        setOption("--metadataDialect", "generic");
+        for (String columnFetchMode : List.of("per-table", "bulk")) {
+            setOption("--columnFetchMode", columnFetchMode);
+            JsonNode genericDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+            JsonNode genericColumns = tablesByName(genericDefinition).get("ACCOUNTS").path("definition").path("properties");
+            assertTrue(genericColumns.path("ID").path("unique").asBoolean(), "The primary key column should be unique with " + columnFetchMode);
+            assertTrue(genericColumns.path("CODE").path("unique").asBoolean(), "The unique constraint column should be unique with " + columnFetchMode);
+            // Unique indexes are not part of the standard INFORMATION_SCHEMA views
+            assertFalse(genericColumns.path("EMAIL").path("unique").asBoolean(true));
+            assertFalse(genericColumns.path("REGION").path("unique").asBoolean(true));
+        }
+    }
+
+    @Test
+    void testImportElementWithForeignKeys() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            RunScript.execute(conn, new StringReader(
+                    "CREATE SCHEMA fk_schema;\n" +
+                            "CREATE TABLE fk_schema.customers (id INT PRIMARY KEY, region VARCHAR(10), code INT, " +
+                            "region_id INT REFERENCES types_schema.all_types(id), CONSTRAINT customer_code UNIQUE (region, code));\n" +
+                            "CREATE TABLE fk_schema.orders (id INT PRIMARY KEY, customer_id INT, customer_code INT, customer_region VARCHAR(10), " +
+                            "CONSTRAINT order_customer FOREIGN KEY (customer_id) REFERENCES fk_schema.customers (id), " +
+                            "CONSTRAINT order_customer_code FOREIGN KEY (customer_code, customer_region) REFERENCES fk_schema.customers (code, region));"
+            ));
+        }
+        setOption("--schemaName", "FK_SCHEMA");
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        JsonNode dialectDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        Map<String, JsonNode> foreignKeys = new HashMap<>();
+        tablesByName(dialectDefinition).get("ORDERS").path("definition").path("foreignKeys")
+                .forEach(foreignKey -> foreignKeys.put(foreignKey.path("name").asText(), foreignKey));
+        assertEquals(Set.of("ORDER_CUSTOMER", "ORDER_CUSTOMER_CODE"), foreignKeys.keySet());
+        assertEquals("CUSTOMERS", foreignKeys.get("ORDER_CUSTOMER").path("referencedTable").asText());
+        assertEquals("FK_SCHEMA", foreignKeys.get("ORDER_CUSTOMER").path("referencedSchema").asText());
+        assertEquals(List.of("CUSTOMER_CODE", "CUSTOMER_REGION"), objectMapper.convertValue(foreignKeys.get("ORDER_CUSTOMER_CODE").path("columns"), List.class),
+                "The columns of a composite foreign key should follow the constraint order");
+        assertEquals(List.of("CODE", "REGION"), objectMapper.convertValue(foreignKeys.get("ORDER_CUSTOMER_CODE").path("referencedColumns"), List.class));
+        JsonNode crossSchemaForeignKey = tablesByName(dialectDefinition).get("CUSTOMERS").path("definition").path("foreignKeys").path(0);
+        assertEquals("TYPES_SCHEMA", crossSchemaForeignKey.path("referencedSchema").asText());
+        assertEquals("ALL_TYPES", crossSchemaForeignKey.path("referencedTable").asText());
+
+        setOption("--metadataDialect", "generic");
+        JsonNode genericDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+        for (String table : List.of("ORDERS", "CUSTOMERS")) {
+            assertEquals(tablesByName(dialectDefinition).get(table).path("definition").path("foreignKeys"),
+                    tablesByName(genericDefinition).get(table).path("definition").path("foreignKeys"),
+                    "The generic path should read the same foreign keys for " + table);
+        }
+    }
+
+    @Test
+    void testImportElementWithMetadataLimits(@TempDir Path tempDir) throws Exception {
+        setOption("--schemaName", "BULK_SCHEMA");
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode unlimitedDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+
+        setOption("--metadataFetchSize", "2");
+        setOption("--metadataQueryTimeout", "PT30S");
+        setOption("--metadataDeadline", "PT5M");
+        for (String metadataDialect : List.of("auto", "generic")) {
+            setOption("--metadataDialect", metadataDialect);
+            JsonNode limitedDefinition = objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition());
+            assertEquals(tablesByName(unlimitedDefinition), tablesByName(limitedDefinition),
+                    "The fetch size and timeouts should not change the " + metadataDialect + " import");
+        }
+
+        setOption("--metadataDeadline", "PT0S");
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> importerJDBC.importElement(null, importerArguments));
+        assertTrue(failure.getMessage().contains("deadline"), "The failure should name the deadline: " + failure.getMessage());
+
+        // A partial import keeps the existing tables that were not read, instead of removing them
+        setOption("--schemaName", "TEST_SCHEMA");
+        setOption("--onMetadataDeadline", "partial");
+        String jsonDefinition = objectMapper.writeValueAsString(importerJDBC.importElement(loadPortFromTestResources(), importerArguments)
+                .getPromises().getApi().getDefinition());
+        assertTrue(jsonDefinition.contains("table_to_be_removed"), "A partial import should keep the existing tables not read");
+        assertTrue(jsonDefinition.contains("preserved-column-property"), "A partial import should keep the existing tables as they are");
+
+        Path definitionFile = tempDir.resolve("definition.json");
+        setOption("--definitionFile", definitionFile.toString());
+        importerJDBC.importElement(loadPortFromTestResources(), importerArguments);
+        assertTrue(Files.readString(definitionFile).contains("table_to_be_removed"), "A partial streamed import should keep the existing tables not read");
+
+        setOption("--onMetadataDeadline", "later");
+        assertThrows(RuntimeException.class, () -> importerJDBC.importElement(null, importerArguments));
+    }
+
+    @Test
+    void testReleasedConnectionsAreBackInAutoCommit() throws Exception {
+        try (JdbcConnectionPool pool = new JdbcConnectionPool(JDBC_URL, JDBC_USER, JDBC_PASSWORD, 1);
+             MetadataQueryLimits limits = new MetadataQueryLimits(2, null, null, null)) {
+            Connection connection = pool.borrow();
+            try (PreparedStatement statement = limits.configure(connection.prepareStatement(
+                    "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'TEST_SCHEMA'"))) {
+                statement.executeQuery().close();
+            }
+            assertFalse(connection.getAutoCommit(), "A fetch size should read the rows inside a transaction");
+            pool.release(connection);
+
+            Connection borrowedAgain = pool.borrow();
+            assertSame(connection, borrowedAgain);
+            assertTrue(borrowedAgain.getAutoCommit(), "A released connection should be back in auto-commit mode");
+            pool.release(borrowedAgain);
+        }
+    }
+
+    @Test
+    void testImportElementWithMetricsReport(@TempDir Path tempDir) throws Exception {
+        Path metricsFile = tempDir.resolve("reports").resolve("test-port.metrics.json");
+        setOption("--metricsFile", metricsFile.toString());
+        setOption("--schemaName", "BULK_SCHEMA");
+        importerJDBC.importElement(loadPortFromTestResources(), importerArguments);
+
+        JsonNode report = new ObjectMapper().readTree(metricsFile.toFile());
+        assertEquals("test-port", report.path("port").asText());
+        assertEquals("BULK_SCHEMA", report.path("schemaName").asText());
+        assertEquals(Set.of("connect", "tableEnumeration", "keyFetch", "columnFetch", "modelBuild", "merge", "profiling", "treeConversion"),
+                fieldNames(report.path("phases")));
+        for (String phase : List.of("connect", "tableEnumeration", "columnFetch", "modelBuild", "merge", "treeConversion")) {
+            assertTrue(report.path("phases").path(phase).path("count").asLong() > 0, "The " + phase + " phase should have been timed");
+        }
+        JsonNode counters = report.path("counters");
+        assertEquals(4, counters.path("tables").asLong());
+        assertEquals(4, counters.path("metadataCalls").asLong(), "The dialect should read the tables, keys, foreign keys and columns with one query each");
+        assertTrue(counters.path("rowsRead").asLong() >= counters.path("tables").asLong() + counters.path("columns").asLong(),
+                "Every table and column row should be counted");
+        assertTrue(report.path("totalMillis").asLong() >= 0);
+    }
+
+    @Test
+    void testImportElementWithProgressListener() {
+        List<Integer> discoveredTables = new ArrayList<>();
+        List<String> completedTables = new ArrayList<>();
+        List<ImportProgress> progresses = new ArrayList<>();
+        Set<String> columns = Collections.synchronizedSet(new HashSet<>());
+        AtomicBoolean inCall = new AtomicBoolean();
+        AtomicBoolean concurrentCall = new AtomicBoolean();
+        importerJDBC.setProgressListener(new ImportProgressListener() {
+            @Override
+            public void tablesDiscovered(int tableCount) {
+                enter();
+                discoveredTables.add(tableCount);
+                try {
+                    // Widens the window in which another schema worker could call the listener
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inCall.set(false);
+            }
+
+            @Override
+            public void tableCompleted(String tableName, ImportProgress progress) {
+                enter();
+                completedTables.add(tableName);
+                progresses.add(progress);
+                inCall.set(false);
+            }
+
+            private void enter() {
+                if (!inCall.compareAndSet(false, true)) {
+                    concurrentCall.set(true);
+                }
+            }
+
+            @Override
+            public void columnRead(String tableName, String columnName) {
+                columns.add(tableName + "." + columnName);
+            }
+        });
+        setOption("--schemaName", "BULK_SCHEMA");
+        setOption("--metadataDialect", "generic");
+        setOption("--parallelism", "2");
+        importerJDBC.importElement(null, importerArguments);
+
+        assertEquals(List.of(4), discoveredTables);
+        assertEquals(4, completedTables.size());
+        assertEquals(Set.of("ORDERS", "ORDERS_VIEW", "ORDERXLINES", "ORDER_LINES"), new HashSet<>(completedTables));
+        assertTrue(columns.containsAll(List.of("ORDERS.ID", "ORDERS.TOTAL", "ORDER_LINES.SKU", "ORDERS_VIEW.TOTAL")));
+        for (int i = 0; i < progresses.size(); i++) {
+            assertEquals(i + 1, progresses.get(i).getCompletedTables());
+            assertEquals(4, progresses.get(i).getDiscoveredTables());
+            assertNotNull(progresses.get(i).getEstimatedRemaining());
+        }
+        ImportProgress lastProgress = progresses.get(progresses.size() - 1);
+        assertEquals(columns.size(), lastProgress.getColumnsRead());
+        assertEquals(Duration.ZERO, lastProgress.getEstimatedRemaining());
+
+        // Each schema worker discovers its tables, without calling the listener concurrently
+        discoveredTables.clear();
+        completedTables.clear();
+        setOption("--schemaName", "BULK_SCHEMA,TEST_SCHEMA");
+        importerJDBC.importElement(null, importerArguments);
+        assertEquals(List.of(1, 4), discoveredTables.stream().sorted().collect(Collectors.toList()));
+        assertEquals(5, completedTables.size());
+        assertTrue(completedTables.contains("TEST_SCHEMA.TEST_TABLE"));
+        assertFalse(concurrentCall.get(), "tablesDiscovered and tableCompleted should never be called concurrently");
+    }
+
+    @Test
+    void testImportPortConcurrentlyWithImportRequests() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> expectedDefinitions = new HashMap<>();
+        for (String schemaName : List.of("TEST_SCHEMA", "BULK_SCHEMA")) {
+            setOption("--schemaName", schemaName);
+            expectedDefinitions.put(schemaName, objectMapper.valueToTree(importerJDBC.importElement(null, importerArguments).getPromises().getApi().getDefinition()));
+        }
+
+        List<String> tableTypes = new ArrayList<>(List.of("TABLE", "VIEW"));
+        JdbcImportRequest.Builder requestBuilder = new JdbcImportRequest.Builder()
+                .sourceName("h2")
+                .endpoint(JDBC_URL)
+                .user(JDBC_USER)
+                .password(JDBC_PASSWORD)
+                .portName("test-port")
+                .portVersion("1.0.1")
+                .platform("h2:testplatform")
+                .tableTypes(tableTypes)
+                .progressListener(ImportProgressListener.NONE);
+        List<JdbcImportRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(requestBuilder.schemaName(i % 2 == 0 ? "TEST_SCHEMA" : "BULK_SCHEMA").build());
+        }
+        tableTypes.clear();
+        assertEquals(List.of("TABLE", "VIEW"), requests.get(0).getTableTypes(), "A request should not change once built");
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        try {
+            List<Future<Port>> ports = new ArrayList<>();
+            for (JdbcImportRequest request : requests) {
+                ports.add(executor.submit(() -> importerJDBC.importPort(request, null)));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                Port port = ports.get(i).get();
+                assertEquals("ports/output-port/test-port.json", port.getRef());
+                JsonNode definition = objectMapper.valueToTree(port.getPromises().getApi().getDefinition());
+                assertEquals(tablesByName(expectedDefinitions.get(requests.get(i).getSchemaName())), tablesByName(definition),
+                        "Concurrent imports should not interfere with each other");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThrows(RuntimeException.class, () -> new JdbcImportRequest.Builder().endpoint(JDBC_URL).portName("test-port").build(),
+                "A request without schema should be rejected");
+    }
+
+    @Test
+    void testImportPortsWithRoutes(@TempDir Path tempDir) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path metricsFile = tempDir.resolve("metrics.json");
+        JdbcImportRequest request = new JdbcImportRequest.Builder()
+                .endpoint(JDBC_URL).user(JDBC_USER).password(JDBC_PASSWORD)
+                .schemaName("BULK_SCHEMA").portName("bulk-port").portVersion("1.0.1").platform("h2:testplatform")
+                .metricsFile(metricsFile)
+                .progressListener(ImportProgressListener.NONE)
+                .build();
+        List<PortRoute> routes = List.of(
+                new PortRoute("orders-port", "ORDERS.*"),
+                new PortRoute("lines-port", "ORDER.?LINES"),
+                new PortRoute("all-port", ".*"));
+        Map<String, Port> existingPorts = Map.of("all-port", loadPortFromTestResources());
+
+        Map<String, Port> ports;
+        try (ImportSession session = new ImportSession()) {
+            ports = session.importPorts(request, routes, existingPorts);
+            assertThrows(RuntimeException.class, () -> session.importPorts(request, List.of(new PortRoute("a", ".*"), new PortRoute("a", "X")), Map.of()),
+                    "Routes to the same port should be rejected");
+        }
+
+        assertEquals(List.of("orders-port", "lines-port", "all-port"), new ArrayList<>(ports.keySet()));
+        Map<String, Set<String>> tablesByPort = new HashMap<>();
+        ports.forEach((name, port) -> {
+            assertEquals(name, port.getName());
+            tablesByPort.put(name, new HashSet<>(tableNames(objectMapper.valueToTree(port.getPromises().getApi().getDefinition()))));
+        });
+        assertEquals(Set.of("ORDERS", "ORDERS_VIEW"), tablesByPort.get("orders-port"));
+        assertEquals(Set.of("ORDER_LINES", "ORDERXLINES"), tablesByPort.get("lines-port"));
+        assertEquals(Set.of("ORDERS", "ORDERS_VIEW", "ORDER_LINES", "ORDERXLINES"), tablesByPort.get("all-port"),
+                "The existing tables not routed to the port should be removed by the merge");
+        assertSame(existingPorts.get("all-port"), ports.get("all-port"));
+
+        JsonNode report = objectMapper.readTree(metricsFile.toFile());
+        assertEquals(4, report.path("counters").path("tables").asLong(), "The schema should be read once for every port");
+        assertEquals("orders-port,lines-port,all-port", report.path("port").asText());
+    }
+
+    @Test
+    void testImportBatchManifest(@TempDir Path tempDir) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode manifest = objectMapper.createObjectNode().put("concurrency", 2).put("connectionsPerSource", 2);
+        manifest.putObject("sources").putObject("h2").put("endpoint", JDBC_URL).put("user", JDBC_USER).put("password", JDBC_PASSWORD);
+        manifest.putArray("entries")
+                .add(objectMapper.createObjectNode().put("source", "h2").put("schemaName", "TEST_SCHEMA")
+                        .put("port", "test-port").put("portVersion", "1.0.1").put("platform", "h2:testplatform")
+                        .put("portFile", "ports/test-port.json"))
+                .add(objectMapper.createObjectNode().put("source", "h2").put("schemaName", "BULK_SCHEMA").put("tablesPattern", "ORDERS")
+                        .put("port", "orders-port").put("portVersion", "1.0.0").put("platform", "h2:testplatform")
+                        .put("portFile", "ports/orders-port.json"))
+                .add(objectMapper.createObjectNode().put("source", "missing").put("schemaName", "BULK_SCHEMA")
+                        .put("port", "missing-port").put("portFile", "ports/missing-port.json"));
+        Path manifestFile = tempDir.resolve("manifest.json");
+        objectMapper.writeValue(manifestFile.toFile(), manifest);
+
+        for (int run = 0; run < 2; run++) {
+            List<BatchImport.Result> results = new BatchImport().run(manifestFile);
+            assertEquals(3, results.size());
+            assertTrue(results.get(0).isSuccess(), results.get(0).getError());
+            assertTrue(results.get(1).isSuccess(), results.get(1).getError());
+            assertFalse(results.get(2).isSuccess(), "An entry with an unknown source should fail without stopping the batch");
+            assertFalse(Files.exists(tempDir.resolve("ports/missing-port.json")));
+
+            JsonNode testPort = objectMapper.readTree(tempDir.resolve("ports/test-port.json").toFile());
+            assertEquals("test-port", testPort.path("name").asText());
+            assertTrue(tableNames(testPort.path("promises").path("api").path("definition")).contains("TEST_TABLE"));
+            JsonNode ordersPort = objectMapper.readTree(tempDir.resolve("ports/orders-port.json").toFile());
+            assertEquals(List.of("ORDERS"), tableNames(ordersPort.path("promises").path("api").path("definition")),
+                    "The second run should merge into the ports written by the first one");
+        }
+    }
+
+    private void setOption(String name, String value) {
+        importerJDBC.getExtensionOptions().stream()
+                .filter(option -> option.getNames().contains(name))
+                .findFirst()
+                .orElseThrow()
+                .getSetter()
+                .accept(value);
+    }
+
+    private Map<String, JsonNode> tablesByName(JsonNode definition) {
+        Map<String, JsonNode> tables = new HashMap<>();
+        definition.path("schema").path("tables").forEach(table -> tables.put(table.path("definition").path("name").asText(), table));
+        return tables;
+    }
+
+    private List<String> tableNames(JsonNode definition) {
+        List<String> tableNames = new ArrayList<>();
+        definition.path("schema").path("tables").forEach(table -> tableNames.add(table.path("definition").path("name").asText()));
+        return tableNames;
+    }
+
+    private Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
     private Port loadPortFromTestResources() {
         try {
             String text = new Scanner(Objects.requireNonNull(ImporterJDBCExtensionTest.class.getResourceAsStream("ImporterJDBCExtensionTest.testPatch.json")), StandardCharsets.UTF_8).useDelimiter("\\A").next();
@@ -136,4 +1114,77 @@ class ImporterJDBCExtensionTest {
         }
     }
 
+    /**
+     * Serves the H2 database under {@value #PREFIX}, reporting a table statistic through
+     * {@link DatabaseMetaData#getIndexInfo} as the drivers of other databases do, and failing the lookup of BROKEN.
+     */
+    private static final class IndexStatisticsDriver implements Driver {
+
+        static final String PREFIX = "jdbc:index-statistics:";
+
+        final List<String> lookups = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            Connection connection = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseMetaData statisticsMetaData = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{DatabaseMetaData.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("getIndexInfo")) {
+                            return invoke(method, metaData, args);
+                        }
+                        lookups.add(args[2] + " unique=" + args[3]);
+                        if ("BROKEN".equals(args[2])) {
+                            throw new SQLException("No statistics for BROKEN");
+                        }
+                        Statement statement = connection.createStatement();
+                        statement.closeOnCompletion();
+                        return statement.executeQuery("SELECT CAST(" + DatabaseMetaData.tableIndexStatistic + " AS SMALLINT) AS TYPE, " +
+                                "CAST(42 AS BIGINT) AS CARDINALITY");
+                    });
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> method.getName().equals("getMetaData") ? statisticsMetaData : invoke(method, connection, args));
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
 }